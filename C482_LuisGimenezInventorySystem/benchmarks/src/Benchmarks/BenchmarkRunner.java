@@ -0,0 +1,144 @@
+package Benchmarks;
+
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BenchmarkRunner runs the Models benchmarks twice, once on a warmed-up JIT and once cold, and optionally checks
+ * the warm scores against a saved baseline.
+ * <p>Arguments: {@code [--sizes 10000,100000] [--save scores.tsv] [--baseline scores.tsv] [--tolerance 0.10]}.
+ * With a baseline, the runner exits with status 1 if any benchmark got slower by more than the tolerance.</p>
+ * @author Luis J. Gimenez
+ */
+public class BenchmarkRunner {
+    /**
+     * Runs the warm and cold passes and the regression check.
+     * @param args the command line arguments.
+     */
+    public static void main(String[] args) throws RunnerException, IOException {
+        String sizes = null;
+        Path save = null;
+        Path baseline = null;
+        double tolerance = 0.10;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sizes":
+                    sizes = args[i + 1];
+                    break;
+                case "--save":
+                    save = Paths.get(args[i + 1]);
+                    break;
+                case "--baseline":
+                    baseline = Paths.get(args[i + 1]);
+                    break;
+                case "--tolerance":
+                    tolerance = Double.parseDouble(args[i + 1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        // Warm: the iterations configured on the benchmark classes, after JIT warm-up.
+        ChainedOptionsBuilder warm = options(sizes);
+        Map<String, Double> warmScores = scores(new Runner(warm.build()).run());
+
+        // Cold: a single invocation in each of several fresh JVMs, before the JIT has compiled anything.
+        ChainedOptionsBuilder cold = options(sizes)
+                .mode(Mode.SingleShotTime)
+                .warmupIterations(0)
+                .measurementIterations(1)
+                .forks(5);
+        Map<String, Double> coldScores = scores(new Runner(cold.build()).run());
+
+        System.out.println();
+        System.out.printf("%-70s %14s %14s%n", "Benchmark", "warm (us/op)", "cold (us/op)");
+        for (Map.Entry<String, Double> entry : warmScores.entrySet()) {
+            System.out.printf("%-70s %14.3f %14.3f%n", entry.getKey(), entry.getValue(),
+                    coldScores.getOrDefault(entry.getKey(), Double.NaN));
+        }
+        if (save != null) {
+            write(save, warmScores);
+        }
+        if (baseline != null && !regressions(read(baseline), warmScores, tolerance).isEmpty()) {
+            System.exit(1);
+        }
+    }
+    /**
+     * Options shared by the warm and cold passes.
+     */
+    private static ChainedOptionsBuilder options(String sizes) {
+        ChainedOptionsBuilder options = new OptionsBuilder()
+                .include(InventoryBenchmark.class.getSimpleName())
+                .include(ProductBenchmark.class.getSimpleName())
+                .include(ConcurrentBenchmark.class.getSimpleName());
+        if (sizes != null) {
+            options.param("size", sizes.split(","));
+        }
+        return options;
+    }
+    /**
+     * Keys each result by benchmark name and parameters.
+     */
+    private static Map<String, Double> scores(Collection<RunResult> results) {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (RunResult result : results) {
+            String name = result.getParams().getBenchmark();
+            String size = result.getParams().getParam("size");
+            scores.put(name + " size=" + size, result.getPrimaryResult().getScore());
+        }
+        return scores;
+    }
+    /**
+     * Lists the benchmarks that got slower than the baseline by more than the tolerance.
+     */
+    private static List<String> regressions(Map<String, Double> baseline, Map<String, Double> current,
+                                            double tolerance) {
+        List<String> slower = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : current.entrySet()) {
+            Double before = baseline.get(entry.getKey());
+            if (before != null && entry.getValue() > before * (1 + tolerance)) {
+                slower.add(entry.getKey());
+                System.out.printf("REGRESSION %s: %.3f -> %.3f us/op%n", entry.getKey(), before, entry.getValue());
+            }
+        }
+        return slower;
+    }
+    /**
+     * Saves scores as tab separated lines.
+     */
+    private static void write(Path file, Map<String, Double> scores) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            lines.add(entry.getKey() + "\t" + entry.getValue());
+        }
+        Files.write(file, lines);
+    }
+    /**
+     * Reads scores saved by write.
+     */
+    private static Map<String, Double> read(Path file) throws IOException {
+        Map<String, Double> scores = new LinkedHashMap<>();
+        for (String line : Files.readAllLines(file)) {
+            int tab = line.lastIndexOf('\t');
+            if (tab > 0) {
+                scores.put(line.substring(0, tab), Double.parseDouble(line.substring(tab + 1)));
+            }
+        }
+        return scores;
+    }
+}
@@ -0,0 +1,64 @@
+package Benchmarks;
+
+import Models.Inventory;
+import Models.Part;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConcurrentBenchmark measures readers and a writer working on Inventory at the same time. The readers' scores
+ * show whether reads are held up by the writer; compare them with the single-threaded InventoryBenchmark scores.
+ * @author Luis J. Gimenez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class ConcurrentBenchmark {
+    /**
+     * Looks up a random part by ID while the writer replaces parts.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public Part lookupWhileWriting(InventoryFixture fixture) {
+        return Inventory.lookupPart(fixture.parts[randomIndex(fixture)].getId());
+    }
+    /**
+     * Searches by name while the writer replaces parts.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public List<Part> searchWhileWriting() {
+        return Inventory.searchParts("ake 12");
+    }
+    /**
+     * Replaces a random part with a copy of itself, the way ModifyPart saves.
+     */
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public boolean updateWhileReading(InventoryFixture fixture) {
+        int index = randomIndex(fixture);
+        return Inventory.updatePart(InventoryFixture.newPart(fixture.parts[index].getId(), index));
+    }
+    /**
+     * Picks a random position in the catalog; the fixture's own random source is not shared between threads.
+     */
+    private static int randomIndex(InventoryFixture fixture) {
+        return ThreadLocalRandom.current().nextInt(fixture.parts.length);
+    }
+}
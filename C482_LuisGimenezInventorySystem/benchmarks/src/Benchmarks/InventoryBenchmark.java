@@ -0,0 +1,93 @@
+package Benchmarks;
+
+import Models.Inventory;
+import Models.Part;
+import javafx.collections.ObservableList;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * InventoryBenchmark measures the Inventory part operations used by the screens against a loaded catalog.
+ * Every benchmark leaves the catalog at its original size, so the scores of an iteration are comparable.
+ * @author Luis J. Gimenez
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class InventoryBenchmark {
+    /**
+     * Adds a new part, then deletes it again to keep the catalog size steady.
+     */
+    @Benchmark
+    public boolean addPart(InventoryFixture fixture) {
+        Part part = InventoryFixture.newPart(Inventory.lookupPart(), fixture.nextIndex());
+        Inventory.addPart(part);
+        return Inventory.deletePart(part);
+    }
+    /**
+     * Looks up a random part by ID.
+     */
+    @Benchmark
+    public Part lookupPartById(InventoryFixture fixture) {
+        return Inventory.lookupPart(fixture.parts[fixture.nextIndex()].getId());
+    }
+    /**
+     * Looks up a random part by its exact name.
+     */
+    @Benchmark
+    public ObservableList<Part> lookupPartByName(InventoryFixture fixture) {
+        return Inventory.lookupPart(fixture.parts[fixture.nextIndex()].getName());
+    }
+    /**
+     * Deletes a random part, then adds it back so the catalog size stays steady.
+     */
+    @Benchmark
+    public boolean deletePart(InventoryFixture fixture) {
+        Part part = fixture.parts[fixture.nextIndex()];
+        boolean deleted = Inventory.deletePart(part);
+        Inventory.addPart(part);
+        return deleted;
+    }
+    /**
+     * Replaces the part at a random position with a copy of itself, the way ModifyPart saves.
+     */
+    @Benchmark
+    public void updatePart(InventoryFixture fixture) {
+        int index = fixture.nextIndex();
+        Part part = Inventory.getPartStore().get(index);
+        Inventory.updatePart(index, InventoryFixture.newPart(part.getId(), index));
+    }
+    /**
+     * The substring search the screens performed before the search index: a scan of every part.
+     */
+    @Benchmark
+    public List<Part> searchByScan() {
+        List<Part> found = new ArrayList<>();
+        String searchString = "ake 12";
+        for (Part part : Inventory.getPartStore()) {
+            if (String.valueOf(part.getId()).contains(searchString) ||
+                    part.getName().contains(searchString)) {
+                found.add(part);
+            }
+        }
+        return found;
+    }
+    /**
+     * The same substring search answered by the search index.
+     */
+    @Benchmark
+    public List<Part> searchByIndex() {
+        return Inventory.searchParts("ake 12");
+    }
+}
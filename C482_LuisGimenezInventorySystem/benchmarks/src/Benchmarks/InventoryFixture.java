@@ -0,0 +1,75 @@
+package Benchmarks;
+
+import Models.InHouse;
+import Models.Inventory;
+import Models.Outsourced;
+import Models.Part;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+
+/**
+ * InventoryFixture loads Inventory with a generated catalog of parts before each benchmark trial.
+ * @author Luis J. Gimenez
+ */
+@State(Scope.Benchmark)
+public class InventoryFixture {
+    /**
+     * Words the generated part names are made of, so name searches hit realistic fractions of the catalog.
+     */
+    static final String[] WORDS = {"Brakes", "Wheel", "Chain", "Pedal", "Saddle", "Spoke", "Tire", "Gear",
+            "Crank", "Cable", "Bolt", "Frame", "Fork", "Grip", "Light"};
+    /**
+     * Number of parts loaded into inventory.
+     */
+    @Param({"10000", "100000", "1000000", "10000000"})
+    public int size;
+    /**
+     * The loaded parts, in inventory order.
+     */
+    public Part[] parts;
+    /**
+     * Source of the random part picked by each invocation.
+     */
+    private SplittableRandom random;
+
+    /**
+     * Clears Inventory and loads the generated catalog.
+     */
+    @Setup(Level.Trial)
+    public void load() {
+        Inventory.clear();
+        random = new SplittableRandom(42);
+        parts = new Part[size];
+        for (int i = 0; i < size; i++) {
+            parts[i] = newPart(Inventory.lookupPart(), i);
+            Inventory.addPart(parts[i]);
+        }
+    }
+    /**
+     * Creates a generated part, alternating between in-house and outsourced parts.
+     * @param id the ID of the part.
+     * @param seed selects the name, price and stock of the part.
+     * @return the new part.
+     */
+    static Part newPart(int id, int seed) {
+        String name = WORDS[seed % WORDS.length] + " " + seed;
+        double price = 1 + (seed % 5000) / 100.0;
+        int stock = 1 + seed % 100;
+        if (seed % 2 == 0) {
+            return new InHouse(id, name, price, stock, 1, 100, 100 + seed % 50);
+        }
+        return new Outsourced(id, name, price, stock, 1, 100, "Vendor " + seed % 300);
+    }
+    /**
+     * Picks a random position in the catalog.
+     * @return an index into parts.
+     */
+    public int nextIndex() {
+        return random.nextInt(parts.length);
+    }
+}
@@ -0,0 +1,64 @@
+package Benchmarks;
+
+import Models.Part;
+import Models.Product;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductBenchmark measures the associated parts operations of a product holding every part of the catalog.
+ * @author Luis J. Gimenez
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx12g"})
+public class ProductBenchmark {
+    /**
+     * The product under test.
+     */
+    private Product product;
+
+    /**
+     * Associates every part of the catalog with a new product.
+     */
+    @Setup(Level.Trial)
+    public void associate(InventoryFixture fixture) {
+        product = new Product(1, "Benchmark Bike", 499.99, 10, 1, 100);
+        for (Part part : fixture.parts) {
+            product.addAssociatedPart(part);
+        }
+    }
+    /**
+     * Associates a random part, then removes it again to keep the list size steady.
+     */
+    @Benchmark
+    public boolean addAssociatedPart(InventoryFixture fixture) {
+        Part part = fixture.parts[fixture.nextIndex()];
+        product.addAssociatedPart(part);
+        return product.deleteAssociatedPart(part);
+    }
+    /**
+     * Removes a random associated part, then adds it back to keep the list size steady.
+     */
+    @Benchmark
+    public boolean deleteAssociatedPart(InventoryFixture fixture) {
+        Part part = fixture.parts[fixture.nextIndex()];
+        boolean deleted = product.deleteAssociatedPart(part);
+        product.addAssociatedPart(part);
+        return deleted;
+    }
+}
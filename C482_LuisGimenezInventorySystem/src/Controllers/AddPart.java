@@ -4,13 +4,10 @@ import Models.InHouse;
 import Models.Inventory;
 import Models.Outsourced;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.event.ActionEvent;
 import javafx.scene.control.*;
 import javafx.scene.Node;
-import javafx.scene.Parent;
 import javafx.fxml.Initializable;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
 import java.io.IOException;
 import java.net.URL;
@@ -21,7 +18,7 @@ import java.util.ResourceBundle;
  * AddPart is responsible for "Add Part" form scene of the inventory management application.
  * @author Luis J. Gimenez
  */
-    public class AddPart implements Initializable {
+    public class AddPart implements Initializable, ScreenController {
     @FXML private TextField partId;
     @FXML private TextField partIdName;
     @FXML private TextField partName;
@@ -41,6 +38,17 @@ import java.util.ResourceBundle;
     public void initialize(URL location, ResourceBundle resources) {
         inHouseBtn.setSelected(true);
     }
+    /**
+     * Empties the form for a new part each time it is shown, as an in-house part.
+     */
+    @Override
+    public void showing() {
+        for (TextField field : new TextField[] {partName, partInventory, partPrice, partMax, partMin, partIdName}) {
+            field.clear();
+        }
+        inHouseBtn.setSelected(true);
+        machineID.setText("Machine ID");
+    }
 
     /**
      * Save Button action. Text-fields are validated when user clicks Save button.
@@ -108,12 +116,8 @@ import java.util.ResourceBundle;
      * @throws IOException From FXMLLoader.
      */
     private void ToMainScreen(ActionEvent event) throws IOException {
-
-        Parent parent = FXMLLoader.load(getClass().getResource("../Views/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        SceneCache.show(stage, SceneCache.Screen.MAIN);
     }
     /**
      * Checks that min is greater than 0 and less than max.
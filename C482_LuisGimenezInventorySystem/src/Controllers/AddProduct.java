@@ -4,13 +4,9 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.fxml.Initializable;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 import Models.Inventory;
@@ -25,7 +21,7 @@ import java.util.ResourceBundle;
  * AddProduct is responsible for "Add Product" form scene of the inventory management application.
  * @author Luis J. Gimenez
  */
-public class AddProduct implements Initializable {
+public class AddProduct implements Initializable, ScreenController {
     /**
      * the parts list associated with the product.
      */
@@ -105,16 +101,23 @@ public class AddProduct implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        partIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
-        partInventoryCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        partPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
+        InventoryTables.partColumns(partIdCol, partNameCol, partInventoryCol, partPriceCol);
+        InventoryTables.partColumns(assocPartIdCol, assocPartNameCol, assocPartInventoryCol, assocPartPriceCol);
+    }
+    /**
+     * Empties the form and the associated parts for a new product each time it is shown, with every part listed.
+     */
+    @Override
+    public void showing() {
+        for (TextField field : new TextField[] {partSearchTxt, productNameTxt, productInventoryTxt, productPriceTxt,
+                productMaxTxt, productMinTxt}) {
+            field.clear();
+        }
+        associatedParts = FXCollections.observableArrayList();
+        assocPartTV.setItems(associatedParts);
         partTV.setItems(Inventory.getAllParts());
-
-        assocPartIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
-        assocPartNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
-        assocPartInventoryCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        assocPartPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partTV.getSelectionModel().clearSelection();
+        partTV.refresh();
     }
 
     /**
@@ -150,15 +153,7 @@ public class AddProduct implements Initializable {
      * Parts can be searched for by ID or name.
      */
     @FXML void partSearchBtnAct(ActionEvent event) {
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> partsFound = FXCollections.observableArrayList();
-        String searchString = partSearchTxt.getText();
-        for (Part part : allParts) {
-            if (String.valueOf(part.getId()).contains(searchString) ||
-                    part.getName().contains(searchString)) {
-                partsFound.add(part);
-            }
-        }
+        ObservableList<Part> partsFound = InventoryTables.rows(Inventory.searchParts(partSearchTxt.getText()));
         partTV.setItems(partsFound);
         if (partsFound.size() == 0) {
             AlertBox(1);
@@ -226,11 +221,8 @@ public class AddProduct implements Initializable {
      * @throws IOException From FXMLLoader.
      */
     private void ToMainScreen(ActionEvent event) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../Views/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        SceneCache.show(stage, SceneCache.Screen.MAIN);
     }
     /**
      * Checks that min is greater than 0 and less than max.
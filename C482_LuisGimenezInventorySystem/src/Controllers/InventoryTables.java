@@ -0,0 +1,183 @@
+package Controllers;
+
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import Models.PagedList;
+import Models.Part;
+import Models.Product;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * InventoryTables sets up the part and product table views shared by the MainScreen, AddProduct and ModifyProduct
+ * scenes. Columns read their values through the getters directly instead of PropertyValueFactory, which looks the
+ * getter up by reflection for every visible cell, and rows are shown through PagedList so only the visible window
+ * of a large list is read. Tables showing every part or product are sorted by inventory level or price through the
+ * inventory's ordered indexes instead of sorting a copy of the rows.
+ * @author Luis J. Gimenez
+ */
+final class InventoryTables {
+    /**
+     * No instances; the methods are static.
+     */
+    private InventoryTables() {
+    }
+    /**
+     * Sets the cell values of a part table's ID, name, inventory level and price columns.
+     */
+    static void partColumns(TableColumn<Part, Integer> id, TableColumn<Part, String> name,
+                            TableColumn<Part, Integer> stock, TableColumn<Part, Double> price) {
+        column(id, Part::getId);
+        column(name, Part::getName);
+        column(stock, Part::getStock);
+        column(price, Part::getPrice);
+    }
+    /**
+     * Sets the cell values of a product table's ID, name, inventory level and price columns.
+     */
+    static void productColumns(TableColumn<Product, Integer> id, TableColumn<Product, String> name,
+                               TableColumn<Product, Integer> stock, TableColumn<Product, Double> price) {
+        column(id, Product::getId);
+        column(name, Product::getName);
+        column(stock, Product::getStock);
+        column(price, Product::getPrice);
+    }
+    /**
+     * Sets the cell values of a column from a getter of the row.
+     * @param column the column.
+     * @param value reads the cell value from the row.
+     * @param <S> the type of the rows.
+     * @param <T> the type of the cell values.
+     */
+    static <S, T> void column(TableColumn<S, T> column, Function<S, T> value) {
+        column.setCellValueFactory(cell -> new ReadOnlyObjectWrapper<>(value.apply(cell.getValue())));
+    }
+    /**
+     * Makes the rows through which a table shows every part or product, and sorts them by the inventory level or
+     * price column through the inventory's ordered indexes: the rows are then copied in index order, read at one
+     * moment, instead of sorting them. Other columns are sorted on a copy of the rows, and tables showing other rows,
+     * such as search results, keep the default sort policy.
+     * <p>The table must keep showing the same rows while sorted, as JavaFX drops a table's sort order whenever its
+     * items are replaced; the sorted copy is taken again on each change to the inventory, so the table never reads
+     * an index while other threads change it. The rows listen to the inventory list, so they must be made on the FX
+     * thread, where the list reports its changes.</p>
+     * @param table the table.
+     * @param all the inventory list shown when the table is not sorted.
+     * @param stock the inventory level column.
+     * @param byStock copies every row by inventory level, highest first when given true.
+     * @param price the price column.
+     * @param byPrice copies every row by price, highest first when given true.
+     * @param <T> the type of the rows.
+     * @return the rows, to be set as the table's items.
+     */
+    static <T> ObservableList<T> sortedRows(TableView<T> table, ObservableList<T> all, TableColumn<T, ?> stock,
+                                            Function<Boolean, List<T>> byStock, TableColumn<T, ?> price,
+                                            Function<Boolean, List<T>> byPrice) {
+        SortedRows<T> rows = new SortedRows<>(all);
+        all.addListener(rows);
+        table.setSortPolicy(view -> {
+            if (view.getItems() != rows) {
+                return TableView.DEFAULT_SORT_POLICY.call(view);
+            }
+            List<TableColumn<T, ?>> sortOrder = view.getSortOrder();
+            if (sortOrder.isEmpty()) {
+                rows.order(null);
+            } else if (sortOrder.size() == 1 && (sortOrder.get(0) == stock || sortOrder.get(0) == price)) {
+                TableColumn<T, ?> column = sortOrder.get(0);
+                Function<Boolean, List<T>> ordered = column == stock ? byStock : byPrice;
+                boolean descending = column.getSortType() == TableColumn.SortType.DESCENDING;
+                rows.order(() -> ordered.apply(descending));
+            } else {
+                Comparator<T> comparator = view.getComparator();
+                rows.order(() -> {
+                    List<T> copy = new ArrayList<>(all);
+                    copy.sort(comparator);
+                    return copy;
+                });
+            }
+            return true;
+        });
+        return rows;
+    }
+    /**
+     * Wraps search results for a table view without copying them.
+     * @param rows the rows.
+     * @param <T> the type of the rows.
+     * @return a read-only list reading the rows a page at a time.
+     */
+    static <T> ObservableList<T> rows(List<T> rows) {
+        return new PagedList<>(rows);
+    }
+
+    /**
+     * Rows of a table showing every part or product, in inventory order or in the order last sorted.
+     * @param <T> the type of the rows.
+     */
+    private static final class SortedRows<T> extends PagedList<T> implements ListChangeListener<T> {
+        /**
+         * The inventory list.
+         */
+        private final ObservableList<T> all;
+        /**
+         * Lists the rows in sorted order, null for inventory order.
+         */
+        private Supplier<List<T>> order;
+
+        /**
+         * Creates rows in inventory order.
+         */
+        SortedRows(ObservableList<T> all) {
+            super(all);
+            this.all = all;
+        }
+        /**
+         * Shows the rows in another order, reported as a replacement of every row.
+         * @param order lists the rows in the new order; null for inventory order.
+         */
+        void order(Supplier<List<T>> order) {
+            this.order = order;
+            setSource(order == null ? all : order.get());
+        }
+        /**
+         * Passes on a change of the inventory list: as it is in inventory order, otherwise as a replacement of every
+         * row, read again in the sorted order.
+         */
+        @Override
+        public void onChanged(Change<? extends T> change) {
+            if (order != null) {
+                setSource(order.get());
+                return;
+            }
+            reset(all);
+            beginChange();
+            while (change.next()) {
+                if (change.wasPermutated()) {
+                    int[] permutation = new int[change.getTo() - change.getFrom()];
+                    for (int i = 0; i < permutation.length; i++) {
+                        permutation[i] = change.getPermutation(change.getFrom() + i);
+                    }
+                    nextPermutation(change.getFrom(), change.getTo(), permutation);
+                } else if (change.wasUpdated()) {
+                    for (int i = change.getFrom(); i < change.getTo(); i++) {
+                        nextUpdate(i);
+                    }
+                } else {
+                    if (change.wasRemoved()) {
+                        nextRemove(change.getFrom(), change.getRemoved());
+                    }
+                    if (change.wasAdded()) {
+                        nextAdd(change.getFrom(), change.getTo());
+                    }
+                }
+            }
+            endChange();
+        }
+    }
+}
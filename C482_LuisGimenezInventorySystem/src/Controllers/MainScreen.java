@@ -1,19 +1,15 @@
 package Controllers;
 
-import javafx.collections.FXCollections;
+import javafx.application.Platform;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.fxml.Initializable;
-import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 import Models.Inventory;
+import Models.LiveSearch;
 import Models.Part;
 import Models.Product;
 
@@ -26,7 +22,7 @@ import java.util.ResourceBundle;
  * MediaScreen is responsible for the main screen of the inventory management application.
  * @author Luis J. Gimenez
  */
-public class MainScreen implements Initializable {
+public class MainScreen implements Initializable, ScreenController {
     /**
      * the selected part in table-view by user
      */
@@ -35,6 +31,16 @@ public class MainScreen implements Initializable {
      * the selected product in table-view by user
      */
     private static Product productToModify;
+    /**
+     * Searches parts off the FX application thread while the user types, shared by every load of the main screen.
+     */
+    private static final LiveSearch<Part> partLiveSearch =
+            new LiveSearch<>(Inventory::searchParts, Part::getId, Part::getName, Platform::runLater);
+    /**
+     * Searches products off the FX application thread while the user types.
+     */
+    private static final LiveSearch<Product> productLiveSearch =
+            new LiveSearch<>(Inventory::searchProducts, Product::getId, Product::getName, Platform::runLater);
     /**
      * the parts search text-field.
      */
@@ -85,6 +91,15 @@ public class MainScreen implements Initializable {
      * the price column for product's table.
      */
     @FXML private TableColumn<Product, Double> productPriceCol;
+    /**
+     * Every part, as shown by the parts table when no search is entered, sorted through the inventory's indexes.
+     * Made the first time the screen is shown, on the FX thread, as it listens to the inventory's parts.
+     */
+    private ObservableList<Part> partRows;
+    /**
+     * Every product, as shown by the products table when no search is entered, sorted like partRows.
+     */
+    private ObservableList<Product> productRows;
     /**
      * Gets part selected by user in part table.
      * @return a part, null if no part is selected.
@@ -105,18 +120,35 @@ public class MainScreen implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-        //Show parts tableview
-        partTV.setItems(Inventory.getAllParts());
-        partIdColumn.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameColumn.setCellValueFactory(new PropertyValueFactory<>("name"));
-        partInventoryColumn.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        partPriceColumn.setCellValueFactory(new PropertyValueFactory<>("price"));
-        //Show products tableview
-        productTV.setItems(Inventory.getAllProducts());
-        productIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
-        productNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
-        productInventoryCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        productPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
+        //Parts and products tableviews, filled by showing
+        InventoryTables.partColumns(partIdColumn, partNameColumn, partInventoryColumn, partPriceColumn);
+        InventoryTables.productColumns(productIdCol, productNameCol, productInventoryCol, productPriceCol);
+        //Search as the user types
+        partSearch.textProperty().addListener((observable, oldText, text) -> partSearchTxtChanged(text));
+        productSearchTxt.textProperty().addListener((observable, oldText, text) -> productSearchTxtChanged(text));
+    }
+    /**
+     * Shows every part and product again, with empty searches and nothing selected, when the user comes back from
+     * another screen. The tables are bound to the inventory rows the first time, here on the FX thread rather than in
+     * initialize, which may run on the preloading thread; after that they stay bound, in the order last sorted, and
+     * only their rows are redrawn.
+     */
+    @Override
+    public void showing() {
+        if (partRows == null) {
+            partRows = InventoryTables.sortedRows(partTV, Inventory.getAllParts(), partInventoryColumn,
+                    Inventory::listPartsByStock, partPriceColumn, Inventory::listPartsByPrice);
+            productRows = InventoryTables.sortedRows(productTV, Inventory.getAllProducts(), productInventoryCol,
+                    Inventory::listProductsByStock, productPriceCol, Inventory::listProductsByPrice);
+        }
+        partSearch.clear();
+        productSearchTxt.clear();
+        partTV.setItems(partRows);
+        productTV.setItems(productRows);
+        partTV.getSelectionModel().clearSelection();
+        productTV.getSelectionModel().clearSelection();
+        partTV.refresh();
+        productTV.refresh();
     }
     /**
      * Exits the application.
@@ -130,27 +162,28 @@ public class MainScreen implements Initializable {
      * @throws IOException From FXMLLoader.
      */
     @FXML void partAddAct(ActionEvent event) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../Views/AddPartScreen.fxml"));
-        Scene scene = new Scene(parent);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        SceneCache.show(stage, SceneCache.Screen.ADD_PART);
     }
     /**
      * Deletes part selected by user in the part table.
      * Displays an error message if part is not selected, confirmation dialog is displayed before delete is executed.
+     * Also prevents user from deleting a part that is associated with one or more products.
      */
     @FXML void partDeleteAct(ActionEvent event) {
         Part selectedPart = partTV.getSelectionModel().getSelectedItem();
         if (selectedPart == null) {
             AlertBox(3);
+        } else if (Inventory.isPartUsed(selectedPart.getId())) {
+            AlertBox(6);
         } else {
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
             alert.setTitle("Alert");
             alert.setContentText("Are you sure you want to delete the selected part?");
             Optional<ButtonType> result = alert.showAndWait();
-            if (result.isPresent() && result.get() == ButtonType.OK) {
-                Inventory.deletePart(selectedPart);
+            if (result.isPresent() && result.get() == ButtonType.OK && !Inventory.deleteUnusedPart(selectedPart)
+                    && Inventory.isPartUsed(selectedPart.getId())) {
+                AlertBox(6);
             }
         }
     }
@@ -160,29 +193,23 @@ public class MainScreen implements Initializable {
      */
     @FXML void partSearchBtnAct(ActionEvent event) {
 
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> partsFound = FXCollections.observableArrayList();
-        String searchString = partSearch.getText();
-
-        for (Part part : allParts) {
-            if (String.valueOf(part.getId()).contains(searchString) ||
-                    part.getName().contains(searchString)) {
-                partsFound.add(part);
-            }
-        }
+        ObservableList<Part> partsFound = InventoryTables.rows(Inventory.searchParts(partSearch.getText()));
         partTV.setItems(partsFound);
         if (partsFound.size() == 0) {
             AlertBox(1);
         }
     }
     /**
-     * Refresh part table when parts search text-field is empty.
+     * Searches parts as the user types. The part table shows all parts again when the parts search text-field is
+     * emptied.
      */
-    @FXML void partSearchTxtPressed(KeyEvent event) {
-        if (partSearch.getText().isEmpty()) {
-            partTV.setItems(Inventory.getAllParts());
+    private void partSearchTxtChanged(String text) {
+        if (text.isEmpty()) {
+            partLiveSearch.cancel();
+            partTV.setItems(partRows);
+        } else {
+            partLiveSearch.query(text, partsFound -> partTV.setItems(InventoryTables.rows(partsFound)));
         }
-
     }
     /**
      * Loads ModifyPart. Displays an error message if no part is selected.
@@ -194,11 +221,8 @@ public class MainScreen implements Initializable {
         if (partToModify == null) {
             AlertBox(3);
         } else {
-            Parent parent = FXMLLoader.load(getClass().getResource("../Views/ModifyPartScreen.fxml"));
-            Scene scene = new Scene(parent);
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setScene(scene);
-            stage.show();
+            SceneCache.show(stage, SceneCache.Screen.MODIFY_PART);
         }
     }
     /**
@@ -206,11 +230,8 @@ public class MainScreen implements Initializable {
      * @throws IOException From FXMLLoader.
      */
     @FXML void productAddAct(ActionEvent event) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../Views/AddProductScreen.fxml"));
-        Scene scene = new Scene(parent);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        SceneCache.show(stage, SceneCache.Screen.ADD_PRODUCT);
     }
     /**
      * Deletes the product selected by the user in the product's table.
@@ -226,17 +247,16 @@ public class MainScreen implements Initializable {
         if (productToModify == null) {
             AlertBox(4);
         } else {
-            Parent parent = FXMLLoader.load(getClass().getResource("../Views/ModifyProductScreen.fxml"));
-            Scene scene = new Scene(parent);
             Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-            stage.setScene(scene);
-            stage.show();
+            SceneCache.show(stage, SceneCache.Screen.MODIFY_PRODUCT);
         }
     }
     @FXML void productDeleteAct(ActionEvent event) {
         Product selectedProduct = productTV.getSelectionModel().getSelectedItem();
         if (selectedProduct == null) {
             AlertBox(4);
+        } else if (Inventory.isProductUsed(selectedProduct.getId())) {
+            AlertBox(7);
         } else {
             Alert alert = new Alert(Alert.AlertType.CONFIRMATION);
             alert.setTitle("Alert");
@@ -246,8 +266,9 @@ public class MainScreen implements Initializable {
                 ObservableList<Part> assocParts = selectedProduct.getAllAssociatedParts();
                 if (assocParts.size() >= 1) {
                     AlertBox(5);
-                } else {
-                    Inventory.deleteProduct(selectedProduct);
+                } else if (!Inventory.deleteUnusedProduct(selectedProduct)
+                        && Inventory.isProductUsed(selectedProduct.getId())) {
+                    AlertBox(7);
                 }
             }
         }
@@ -257,26 +278,24 @@ public class MainScreen implements Initializable {
      * Products can be searched for by ID or name.
      */
     @FXML void productSearchBtnAct(ActionEvent event) {
-        ObservableList<Product> allProducts = Inventory.getAllProducts();
-        ObservableList<Product> productsFound = FXCollections.observableArrayList();
-        String searchString = productSearchTxt.getText();
-        for (Product product : allProducts) {
-            if (String.valueOf(product.getId()).contains(searchString) ||
-                    product.getName().contains(searchString)) {
-                productsFound.add(product);
-            }
-        }
+        ObservableList<Product> productsFound =
+                InventoryTables.rows(Inventory.searchProducts(productSearchTxt.getText()));
         productTV.setItems(productsFound);
         if (productsFound.size() == 0) {
             AlertBox(2);
         }
     }
     /**
-     * Refreshes product's table view to show all products when search text-field is empty.
+     * Searches products as the user types. The product's table view shows all products again when the search
+     * text-field is emptied.
      */
-    @FXML void productSearchTxtPressed(KeyEvent event) {
-        if (productSearchTxt.getText().isEmpty()) {
-            productTV.setItems(Inventory.getAllProducts());
+    private void productSearchTxtChanged(String text) {
+        if (text.isEmpty()) {
+            productLiveSearch.cancel();
+            productTV.setItems(productRows);
+        } else {
+            productLiveSearch.query(text,
+                    productsFound -> productTV.setItems(InventoryTables.rows(productsFound)));
         }
     }
     /**
@@ -314,6 +333,19 @@ public class MainScreen implements Initializable {
                 alertError.setContentText("All parts must be removed from products prior to deletion.");
                 alertError.showAndWait();
                 break;
+            case 6:
+                alertError.setTitle("Error");
+                alertError.setHeaderText("Part In Use");
+                alertError.setContentText("The part must be removed from every product using it prior to deletion.");
+                alertError.showAndWait();
+                break;
+            case 7:
+                alertError.setTitle("Error");
+                alertError.setHeaderText("Product In Use");
+                alertError.setContentText("The product must be removed from every product built from it prior to "
+                        + "deletion.");
+                alertError.showAndWait();
+                break;
         }
     }
 }
\ No newline at end of file
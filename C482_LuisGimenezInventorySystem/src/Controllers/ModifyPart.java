@@ -2,12 +2,8 @@ package Controllers;
 
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.fxml.Initializable;
 import javafx.stage.Stage;
 import Models.InHouse;
 import Models.Inventory;
@@ -15,15 +11,13 @@ import Models.Outsourced;
 import Models.Part;
 
 import java.io.IOException;
-import java.net.URL;
 import java.util.Optional;
-import java.util.ResourceBundle;
 
 /**
  * ModifyPart is responsible for "Modify Part" form scene of the inventory management application.
  * @author Luis J. Gimenez
  */
-public class ModifyPart implements Initializable {
+public class ModifyPart implements ScreenController {
     /**
      * the part selected in the MainScreen.
      */
@@ -69,10 +63,10 @@ public class ModifyPart implements Initializable {
      */
     @FXML private Label machineId;
     /**
-     *  Second necessary part of "Initialization," it initiates the controller.
+     * Fills the form with the part selected in the MainScreen each time it is shown.
      */
     @Override
-    public void initialize(URL location, ResourceBundle resources) {
+    public void showing() {
         selectedPart = MainScreen.getPartToModify();
         if (selectedPart instanceof InHouse) {
             inHouseBtn.setSelected(true);
@@ -137,7 +131,7 @@ public class ModifyPart implements Initializable {
                     try {
                         machineId = Integer.parseInt(partIdName.getText());
                         InHouse newInHousePart = new InHouse(id, name, price, stock, min, max, machineId);
-                        Inventory.addPart(newInHousePart);
+                        Inventory.updatePart(newInHousePart);
                         partAddSuccess = true;
                     } catch (Exception e) {
                         showAlert(2);
@@ -147,11 +141,10 @@ public class ModifyPart implements Initializable {
                     companyName = partIdName.getText();
                     Outsourced newOutsourcedPart = new Outsourced(id, name, price, stock, min, max,
                             companyName);
-                    Inventory.addPart(newOutsourcedPart);
+                    Inventory.updatePart(newOutsourcedPart);
                     partAddSuccess = true;
                 }
                 if (partAddSuccess) {
-                    Inventory.deletePart(selectedPart);
                     ToMainScreen(event);
                 }
             }
@@ -164,11 +157,8 @@ public class ModifyPart implements Initializable {
      * @throws IOException From FXMLLoader.
      */
     private void ToMainScreen(ActionEvent event) throws IOException {
-        Parent parent = FXMLLoader.load(getClass().getResource("../Views/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        SceneCache.show(stage, SceneCache.Screen.MAIN);
     }
     /**
      * Checks that min is greater than 0 and less than max.
@@ -4,13 +4,9 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
 import javafx.scene.Node;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.fxml.Initializable;
-import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.scene.input.KeyEvent;
 import javafx.stage.Stage;
 import Models.Inventory;
@@ -26,7 +22,7 @@ import java.util.ResourceBundle;
  * ModifyPart is responsible for "Modify Product" form scene of the inventory management application.
  * @author Luis J. Gimenez
  */
-public class ModifyProduct implements Initializable {
+public class ModifyProduct implements Initializable, ScreenController {
     /**
      * the product object selected in the MainScreen.
      */
@@ -108,20 +104,22 @@ public class ModifyProduct implements Initializable {
      */
     @Override
     public void initialize(URL location, ResourceBundle resources) {
-
+        InventoryTables.partColumns(partIdCol, partNameCol, partInventoryCol, partPriceCol);
+        InventoryTables.partColumns(assocPartIdCol, assocPartNameCol, assocPartInventoryCol, assocPartPriceCol);
+    }
+    /**
+     * Fills the form and the associated parts with the product selected in the MainScreen each time it is shown,
+     * with every part listed.
+     */
+    @Override
+    public void showing() {
         selectedProduct = MainScreen.getProductToModify();
         associatedParts = selectedProduct.getAllAssociatedParts();
 
-        partIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
-        partNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
-        partInventoryCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        partPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partSearchTxt.clear();
         partTV.setItems(Inventory.getAllParts());
-
-        assocPartIdCol.setCellValueFactory(new PropertyValueFactory<>("id"));
-        assocPartNameCol.setCellValueFactory(new PropertyValueFactory<>("name"));
-        assocPartInventoryCol.setCellValueFactory(new PropertyValueFactory<>("stock"));
-        assocPartPriceCol.setCellValueFactory(new PropertyValueFactory<>("price"));
+        partTV.getSelectionModel().clearSelection();
+        partTV.refresh();
         assocPartTV.setItems(associatedParts);
 
         productIdTxt.setText(String.valueOf(selectedProduct.getId()));
@@ -201,8 +199,7 @@ public class ModifyProduct implements Initializable {
                     for (Part part : associatedParts) {
                         newProduct.addAssociatedPart(part);
                     }
-                    Inventory.addProduct(newProduct);
-                    Inventory.deleteProduct(selectedProduct);
+                    Inventory.updateProduct(newProduct);
                     ToMainScreen(event);
                 }
             }
@@ -215,15 +212,7 @@ public class ModifyProduct implements Initializable {
      * Parts can be searched for by ID or name.
      */
     @FXML void searchBtnAction(ActionEvent event) {
-        ObservableList<Part> allParts = Inventory.getAllParts();
-        ObservableList<Part> partsFound = FXCollections.observableArrayList();
-        String searchString = partSearchTxt.getText();
-        for (Part part : allParts) {
-            if (String.valueOf(part.getId()).contains(searchString) ||
-                    part.getName().contains(searchString)) {
-                partsFound.add(part);
-            }
-        }
+        ObservableList<Part> partsFound = InventoryTables.rows(Inventory.searchParts(partSearchTxt.getText()));
         partTV.setItems(partsFound);
         if (partsFound.size() == 0) {
             showAlert(2);
@@ -243,12 +232,8 @@ public class ModifyProduct implements Initializable {
      * @throws IOException From FXMLLoader.
      */
     private void ToMainScreen(ActionEvent event) throws IOException {
-
-        Parent parent = FXMLLoader.load(getClass().getResource("../Views/MainScreen.fxml"));
-        Scene scene = new Scene(parent);
         Stage stage = (Stage) ((Node) event.getSource()).getScene().getWindow();
-        stage.setScene(scene);
-        stage.show();
+        SceneCache.show(stage, SceneCache.Screen.MAIN);
     }
     /**
      * Checks that min is greater than 0 and less than max.
@@ -0,0 +1,164 @@
+package Controllers;
+
+import javafx.fxml.FXMLLoader;
+import javafx.scene.Parent;
+import javafx.scene.Scene;
+import javafx.stage.Stage;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+
+/**
+ * SceneCache loads each of the application's screens once and shows the same scene and controller every time the
+ * user comes back to it, instead of parsing the FXML and building the scene graph again on every navigation.
+ * <p>{@link #preload()} loads every screen in the background, one at a time, while the user looks at the main
+ * screen. Nodes may be built off the FX application thread until they are shown, so only the scene is created on
+ * it; the inventory lists, which change on the FX application thread, are bound to the tables only when a screen is
+ * shown. A screen asked for before the background thread got to it is loaded right away on the caller's thread, and
+ * one the background thread is loading is waited for, so no screen is ever loaded twice.</p>
+ * <p>Controllers implementing ScreenController are told every time their screen is about to be shown, so they show
+ * the current selection and fresh, empty or reset fields instead of what was left the last time.</p>
+ * @author Luis J. Gimenez
+ */
+public final class SceneCache {
+    /**
+     * The screens of the application.
+     */
+    public enum Screen {
+        MAIN("MainScreen.fxml"),
+        ADD_PART("AddPartScreen.fxml"),
+        MODIFY_PART("ModifyPartScreen.fxml"),
+        ADD_PRODUCT("AddProductScreen.fxml"),
+        MODIFY_PRODUCT("ModifyProductScreen.fxml");
+
+        /**
+         * Name of the FXML file in Views.
+         */
+        private final String file;
+
+        /**
+         * Creates a screen loaded from an FXML file.
+         */
+        Screen(String file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * The loading or loaded screens; only touched under the class's monitor.
+     */
+    private static final Map<Screen, FutureTask<Loaded>> screens = new EnumMap<>(Screen.class);
+    /**
+     * Loads screens in the background, one at a time, on a daemon thread.
+     */
+    private static final ExecutorService preloader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "scene-preload");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * No instances; the methods are static.
+     */
+    private SceneCache() {
+    }
+    /**
+     * Starts loading every screen in the background, in the order they are declared.
+     */
+    public static void preload() {
+        for (Screen screen : Screen.values()) {
+            preloader.execute(task(screen));
+        }
+    }
+    /**
+     * Shows a screen in a stage, loading it first if needed. Must be called on the FX application thread.
+     * @param stage the stage.
+     * @param screen the screen.
+     * @throws IOException From FXMLLoader; the screen is loaded again when next asked for.
+     */
+    public static void show(Stage stage, Screen screen) throws IOException {
+        FutureTask<Loaded> task = task(screen);
+        // Loads the screen here unless the background thread started on it, which is then waited for.
+        task.run();
+        Loaded loaded;
+        try {
+            loaded = task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + screen.file, e);
+        } catch (ExecutionException e) {
+            synchronized (SceneCache.class) {
+                screens.remove(screen, task);
+            }
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Could not load " + screen.file, cause);
+        }
+        if (loaded.scene == null) {
+            loaded.scene = new Scene(loaded.root);
+        }
+        if (loaded.controller instanceof ScreenController) {
+            ((ScreenController) loaded.controller).showing();
+        }
+        stage.setScene(loaded.scene);
+        stage.show();
+    }
+    /**
+     * Gets the task loading a screen, creating it the first time.
+     */
+    private static synchronized FutureTask<Loaded> task(Screen screen) {
+        return screens.computeIfAbsent(screen, s -> new FutureTask<>(() -> load(s)));
+    }
+    /**
+     * Parses a screen's FXML into its scene graph and controller.
+     */
+    private static Loaded load(Screen screen) {
+        FXMLLoader loader = new FXMLLoader(SceneCache.class.getResource("../Views/" + screen.file));
+        try {
+            Parent root = loader.load();
+            return new Loaded(root, loader.getController());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A loaded screen.
+     */
+    private static final class Loaded {
+        /**
+         * Root of the screen's scene graph.
+         */
+        final Parent root;
+        /**
+         * The screen's controller.
+         */
+        final Object controller;
+        /**
+         * The scene, created on the FX application thread when the screen is first shown.
+         */
+        Scene scene;
+
+        /**
+         * Creates a loaded screen.
+         */
+        Loaded(Parent root, Object controller) {
+            this.root = root;
+            this.controller = controller;
+        }
+    }
+}
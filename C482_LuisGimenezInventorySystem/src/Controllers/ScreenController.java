@@ -0,0 +1,14 @@
+package Controllers;
+
+/**
+ * ScreenController is implemented by the controllers of screens that SceneCache shows again and again, so each
+ * showing starts from the current inventory and selection rather than from what the user left behind.
+ * @author Luis J. Gimenez
+ */
+interface ScreenController {
+    /**
+     * Brings the screen up to date just before it is shown, every time it is shown. Called on the FX application
+     * thread.
+     */
+    void showing();
+}
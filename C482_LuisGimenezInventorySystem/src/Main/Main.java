@@ -1,15 +1,19 @@
 package Main;
 
 import javafx.application.Application;
-import javafx.fxml.FXMLLoader;
-import javafx.scene.Parent;
-import javafx.scene.Scene;
 import javafx.stage.Stage;
+import Controllers.SceneCache;
 import Models.InHouse;
 import Models.Inventory;
+import Models.InventoryJournal;
 import Models.Outsourced;
 import Models.Product;
 
+import Server.InventoryServer;
+
+import java.io.IOException;
+import java.util.Arrays;
+
 /***
   The Inventory Management Software is an application designed to maintain an inventory of parts and products and
   it's associated parts.
@@ -21,20 +25,46 @@ import Models.Product;
  */
 public class Main extends Application {
     /***
-     * the start method. Loads the initial scene and creates the FXML stage.
+     * the start method. Shows the main screen and loads the other screens in the background.
      * @throws Exception
      */
     @Override
     public void start(Stage mainStage) throws Exception{
-        Parent root = FXMLLoader.load(getClass().getResource("../Views/MainScreen.fxml"));
+        SceneCache.preload();
         mainStage.setTitle("Inventory Management System");
-        mainStage.setScene(new Scene(root));
-        mainStage.show();
+        SceneCache.show(mainStage, SceneCache.Screen.MAIN);
     }
     /***
-     * the Main method is the entry point of the application, it launches the application and adds the sample data.
+     * the Main method is the entry point of the application. It loads the saved inventory, adds the sample data on
+     * the first run and launches the application. The inventory is kept in the directory named by the inventory.dir
+     * system property, by default .inventory in the user's home directory, and with -Dinventory.offHeapParts=true
+     * the parts are kept outside the Java heap. Started with --server [port], it serves the inventory over HTTP
+     * instead of opening a window.
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        if (args.length > 0 && args[0].equals("--server")) {
+            InventoryServer.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        Inventory.configureStores();
+        InventoryJournal journal = InventoryJournal.open(InventoryJournal.defaultDirectory());
+        //Exit button calls System.exit, so the journal is closed by a shutdown hook rather than in stop()
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+        if (journal.isNew()) {
+            addSampleData();
+        }
+        launch(args);
+    }
+    /***
+     * Adds the sample parts and products.
+     */
+    private static void addSampleData() {
         //Add sample parts
         int partId = Inventory.lookupPart();
         InHouse pa1 = new InHouse(partId,"Brakes", 15.99, 8, 1, 20,
@@ -61,6 +91,5 @@ public class Main extends Application {
         prod.addAssociatedPart(pa3);
         Inventory.addProduct(prod);
         Inventory.addProduct(prod2);
-        launch(args);
     }
 }
\ No newline at end of file
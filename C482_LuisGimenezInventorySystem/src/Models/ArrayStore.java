@@ -0,0 +1,236 @@
+package Models;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.ToIntFunction;
+
+/**
+ * Supplied class ArrayStore.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ArrayStore Class. The plain single-threaded InventoryStore: a resizable array plus an index from ID to array
+ * position. It has no JavaFX dependency and fires one listener call per store operation, so a bulk add costs a
+ * single notification however many items it adds.
+ * <p>Every operation on a single item runs in constant time. Removal moves the last item into the freed
+ * position instead of shifting the items after it, so removing does not preserve the order of the items.</p>
+ * @param <T> the type of the stored items.
+ */
+public class ArrayStore<T> implements InventoryStore<T> {
+    /**
+     * Reads the ID of an item.
+     */
+    private final ToIntFunction<T> idOf;
+    /**
+     * Items in list order.
+     */
+    private Object[] items = new Object[16];
+    /**
+     * Number of items.
+     */
+    private int size;
+    /**
+     * Primary-key index from item ID to position in the array.
+     */
+    private final IntIntHashMap slotById = new IntIntHashMap();
+    /**
+     * Registered listeners.
+     */
+    private final List<StoreListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an empty store.
+     * @param idOf reads the ID of an item.
+     */
+    public ArrayStore(ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+    }
+    @Override
+    public void add(T item) {
+        grow(size + 1);
+        slotById.put(idOf.applyAsInt(item), size);
+        items[size++] = item;
+        for (StoreListener<? super T> listener : listeners) {
+            listener.added(size - 1, size);
+        }
+    }
+    @Override
+    public void addAll(Collection<? extends T> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        int from = size;
+        grow(size + newItems.size());
+        for (T item : newItems) {
+            slotById.put(idOf.applyAsInt(item), size);
+            items[size++] = item;
+        }
+        for (StoreListener<? super T> listener : listeners) {
+            listener.added(from, size);
+        }
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+        return (T) items[index];
+    }
+    @Override
+    public T set(int index, T item) {
+        T old = get(index);
+        items[index] = item;
+        unmap(old, index);
+        slotById.put(idOf.applyAsInt(item), index);
+        for (StoreListener<? super T> listener : listeners) {
+            listener.replaced(index, old);
+        }
+        return old;
+    }
+    @Override
+    public T replace(T item) {
+        int index = slotById.get(idOf.applyAsInt(item));
+        return index == IntIntHashMap.MISSING ? null : set(index, item);
+    }
+    @Override
+    public boolean remove(T item) {
+        int index = indexOf(item);
+        if (index < 0) {
+            return false;
+        }
+        unmap(item, index);
+        int last = --size;
+        if (index != last) {
+            items[index] = items[last];
+            int movedId = idOf.applyAsInt(get(index));
+            if (slotById.get(movedId) == last) {
+                slotById.put(movedId, index);
+            }
+        }
+        items[last] = null;
+        for (StoreListener<? super T> listener : listeners) {
+            listener.removed(index, item);
+        }
+        return true;
+    }
+    @Override
+    public int indexOf(T item) {
+        int index = item == null ? IntIntHashMap.MISSING : slotById.get(idOf.applyAsInt(item));
+        if (index != IntIntHashMap.MISSING && items[index] == item) {
+            return index;
+        }
+        // Only an item whose ID was taken over by a later item with the same ID gets here.
+        for (int i = 0; i < size; i++) {
+            if (items[i] == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    @Override
+    public boolean contains(T item) {
+        int index = item == null ? IntIntHashMap.MISSING : slotById.get(idOf.applyAsInt(item));
+        return index != IntIntHashMap.MISSING && items[index] == item;
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public T findById(int id) {
+        int index = slotById.get(id);
+        return index == IntIntHashMap.MISSING ? null : (T) items[index];
+    }
+    @Override
+    public boolean rekey(T item, int oldId) {
+        int index = slotById.get(oldId);
+        if (index == IntIntHashMap.MISSING || items[index] != item) {
+            return false;
+        }
+        slotById.remove(oldId);
+        slotById.put(idOf.applyAsInt(item), index);
+        return true;
+    }
+    @Override
+    public int size() {
+        return size;
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public void clear() {
+        List<T> removed = (List<T>) Arrays.asList(Arrays.copyOf(items, size));
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        slotById.clear();
+        for (StoreListener<? super T> listener : listeners) {
+            listener.cleared(removed);
+        }
+    }
+    /**
+     * Gets a live read-only view of the items. ArrayStore is not thread-safe, so it is only read from the thread
+     * that writes it and needs no copy.
+     */
+    @Override
+    public List<T> snapshot() {
+        return new AbstractList<T>() {
+            @Override
+            public T get(int index) {
+                return ArrayStore.this.get(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+    @Override
+    public void addListener(StoreListener<? super T> listener) {
+        listeners.add(listener);
+    }
+    @Override
+    public void removeListener(StoreListener<? super T> listener) {
+        listeners.remove(listener);
+    }
+    @Override
+    public Iterator<T> iterator() {
+        return new Iterator<T>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < size;
+            }
+
+            @Override
+            public T next() {
+                if (next >= size) {
+                    throw new NoSuchElementException();
+                }
+                return get(next++);
+            }
+        };
+    }
+    /**
+     * Drops the ID index entry of an item leaving a position, unless its ID already points at another item.
+     */
+    private void unmap(T item, int index) {
+        int id = idOf.applyAsInt(item);
+        if (slotById.get(id) == index) {
+            slotById.remove(id);
+        }
+    }
+    /**
+     * Makes room for at least the given number of items.
+     */
+    private void grow(int capacity) {
+        if (capacity > items.length) {
+            items = Arrays.copyOf(items, Math.max(capacity, items.length + (items.length >> 1)));
+        }
+    }
+}
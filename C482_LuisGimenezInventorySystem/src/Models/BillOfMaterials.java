@@ -0,0 +1,579 @@
+package Models;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Supplied class BillOfMaterials.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * BillOfMaterials Class. Explodes each product's bill of materials into the parts it needs, computes its material
+ * cost and the number of units that can be built from the parts in stock, and remembers the results until
+ * something they depend on changes.
+ * <p>A product's bill of materials is its associated parts plus its components, sub-assemblies that have bills of
+ * materials of their own, any number of levels deep. A part or component listed several times is needed that many
+ * times per unit. Components and parts are read by ID from Inventory, so a part replaced from the Modify Part
+ * screen is costed at its new price; a listed part that is no longer in inventory keeps its last price and counts as
+ * out of stock, and a component no longer in inventory is exploded as the product holds it. A product built from
+ * itself, directly or through its components, cannot be exploded.</p>
+ * <p>A tree is exploded the way MRP does it: one walk lists each distinct product once and finds cycles, the
+ * quantity needed of each product is passed down from assembly to component, and the parts each product lists
+ * are added up scaled by its quantity, so a product shared by many assemblies costs the same as one used once. On
+ * large trees the adding up is split over the common fork/join pool. Explosions are memoized per product, and a
+ * sub-assembly already exploded is not explored again when it turns up in a larger tree.</p>
+ * <p>When a part changes, only the products using it and the assemblies built from them are forgotten, found
+ * through Inventory's part and component usage indexes, so editing one part costs as much as the number of products
+ * it reaches and the next lookup recomputes those, never the whole catalog. A result computed while a change it
+ * depends on was made is returned but not remembered.</p>
+ */
+public class BillOfMaterials implements AutoCloseable {
+    /**
+     * Number of distinct products in a tree from which their parts are added up in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1024;
+    /**
+     * Number of products a fork/join task adds up without splitting further.
+     */
+    private static final int TASK_SIZE = 256;
+    /**
+     * Remembered rollups by product ID, or the token of a computation in progress.
+     */
+    private final ConcurrentHashMap<Integer, Object> memo = new ConcurrentHashMap<>();
+    /**
+     * Remembered explosions by product ID. Its monitor guards storing and forgetting explosions.
+     */
+    private final ConcurrentHashMap<Integer, BomExplosion> explosions = new ConcurrentHashMap<>();
+    /**
+     * Number of times explosions were forgotten, so an explosion that raced with a change is not stored.
+     */
+    private long generation;
+    /**
+     * Forgets the results that changes in Inventory affect.
+     */
+    private final InventoryListener inventoryListener = new Invalidation();
+
+    /**
+     * Creates a bill of materials engine and starts watching Inventory.
+     */
+    public BillOfMaterials() {
+        Inventory.addListener(inventoryListener);
+    }
+    /**
+     * Gets the material cost and buildable quantity of a product, computing them unless they are remembered.
+     * @param product the product.
+     * @return the product's rollup.
+     * @throws IllegalStateException if the product is built from itself.
+     */
+    public BomRollup rollup(Product product) {
+        int id = product.getId();
+        if (Inventory.lookupProduct(id) != product) {
+            // A product being edited, or not in inventory: nothing tells us when it changes.
+            return compute(product);
+        }
+        Object known = memo.get(id);
+        if (known instanceof BomRollup) {
+            return (BomRollup) known;
+        }
+        Object token = known;
+        if (token == null) {
+            token = new Object();
+            Object raced = memo.putIfAbsent(id, token);
+            if (raced instanceof BomRollup) {
+                return (BomRollup) raced;
+            } else if (raced != null) {
+                token = raced;
+            }
+        }
+        BomRollup rollup = compute(product);
+        // Only remembered if no change removed the token meanwhile.
+        memo.replace(id, token, rollup);
+        return rollup;
+    }
+    /**
+     * Gets the material cost of a product.
+     * @param product the product.
+     * @return the cost of one unit's parts.
+     */
+    public double getMaterialCost(Product product) {
+        return rollup(product).getMaterialCost();
+    }
+    /**
+     * Gets how many units of a product can be built from the parts in stock.
+     * @param product the product.
+     * @return the buildable quantity.
+     */
+    public int getBuildableQuantity(Product product) {
+        return rollup(product).getBuildableQuantity();
+    }
+    /**
+     * Explodes a product into the total quantity of each part needed to build one unit, through every level of
+     * its components. Sub-assemblies already exploded are not explored again.
+     * @param product the product.
+     * @return the product's explosion.
+     * @throws IllegalStateException if the product is built from itself.
+     * @throws ArithmeticException if a quantity needed does not fit in a long.
+     */
+    public BomExplosion explode(Product product) {
+        long seen;
+        synchronized (explosions) {
+            seen = generation;
+        }
+        Node root = new Node(product, Inventory.lookupProduct(product.getId()) == product);
+        if (root.remembered) {
+            BomExplosion known = explosions.get(root.id);
+            if (known != null) {
+                return known;
+            }
+        }
+        List<Node> order = plan(root);
+        // Parents come before their components in reverse walk order, so each node's quantity is final when read.
+        root.quantity = 1;
+        for (int i = order.size() - 1; i >= 0; i--) {
+            Node node = order.get(i);
+            if (node.result == null) {
+                for (int c = 0; c < node.children.length; c++) {
+                    Node child = node.children[c];
+                    child.quantity = Math.addExact(child.quantity, Math.multiplyExact(node.quantity, node.times[c]));
+                }
+            }
+        }
+        BomExplosion explosion = order.size() >= PARALLEL_THRESHOLD
+                ? ForkJoinPool.commonPool().invoke(new Requirements(order, 0, order.size()))
+                : Requirements.of(order, 0, order.size());
+        if (root.remembered) {
+            synchronized (explosions) {
+                if (generation == seen) {
+                    explosions.put(root.id, explosion);
+                }
+            }
+        }
+        return explosion;
+    }
+    /**
+     * Tells whether a product is, or is built from, the product with a given ID, through any number of levels of
+     * components.
+     * @param product the product to look into.
+     * @param productId the ID looked for.
+     * @return true if the product or one of its components, at any level, has that ID.
+     */
+    static boolean isBuiltFrom(Product product, int productId) {
+        Set<Integer> visited = new HashSet<>();
+        ArrayDeque<Product> pending = new ArrayDeque<>();
+        pending.push(product);
+        while (!pending.isEmpty()) {
+            Product next = pending.pop();
+            if (next.getId() == productId) {
+                return true;
+            }
+            if (visited.add(next.getId())) {
+                for (Product component : next.getComponentList()) {
+                    pending.push(resolve(component));
+                }
+            }
+        }
+        return false;
+    }
+    /**
+     * Stops watching Inventory and forgets every result.
+     */
+    @Override
+    public void close() {
+        Inventory.removeListener(inventoryListener);
+        memo.clear();
+        synchronized (explosions) {
+            generation++;
+            explosions.clear();
+        }
+    }
+    /**
+     * Computes a product's rollup from its explosion.
+     */
+    private BomRollup compute(Product product) {
+        BomExplosion explosion = explode(product);
+        if (explosion.size() == 0) {
+            return new BomRollup(0, 0, -1);
+        }
+        long cost = 0;
+        long buildable = Long.MAX_VALUE;
+        int limiting = -1;
+        for (int i = 0; i < explosion.size(); i++) {
+            long quantity = explosion.getQuantity(i);
+            Part part = Inventory.lookupPart(explosion.getPartId(i));
+            int stock = 0;
+            if (part == null) {
+                part = explosion.listedPart(i);
+            } else {
+                stock = part.getStock();
+            }
+            cost += quantity * Math.round(part.getPrice() * 100);
+            long units = Math.max(0, stock) / quantity;
+            if (units < buildable) {
+                buildable = units;
+                limiting = explosion.getPartId(i);
+            }
+        }
+        return new BomRollup(cost, (int) buildable, limiting);
+    }
+    /**
+     * Walks a product's tree of components depth first, listing each distinct product once, after every product it
+     * is built from. Sub-assemblies already exploded end the walk.
+     * @throws IllegalStateException if a product is found inside itself.
+     */
+    private List<Node> plan(Node root) {
+        IntHashMap<Node> nodes = new IntHashMap<>();
+        nodes.put(root.id, root);
+        List<Node> order = new ArrayList<>();
+        ArrayDeque<Node> path = new ArrayDeque<>();
+        root.open();
+        path.push(root);
+        while (!path.isEmpty()) {
+            Node top = path.peek();
+            if (top.next < top.children.length) {
+                int index = top.next++;
+                Product held = top.children[index].product;
+                Node child = nodes.get(held.getId());
+                if (child == null) {
+                    Product component = Inventory.lookupProduct(held.getId());
+                    child = component != null ? new Node(component, true) : new Node(held, false);
+                    nodes.put(child.id, child);
+                    child.result = child.remembered ? explosions.get(child.id) : null;
+                    if (child.result == null) {
+                        child.open();
+                        path.push(child);
+                    } else {
+                        child.done = true;
+                        order.add(child);
+                    }
+                } else if (!child.done) {
+                    throw new IllegalStateException(cycle(path, child.id));
+                }
+                top.children[index] = child;
+                continue;
+            }
+            path.pop();
+            top.done = true;
+            order.add(top);
+        }
+        return order;
+    }
+    /**
+     * Describes the cycle found when a product on the current path turns up again.
+     */
+    private static String cycle(ArrayDeque<Node> path, int id) {
+        StringBuilder message = new StringBuilder().append(id);
+        for (Iterator<Node> nodes = path.iterator(); nodes.hasNext(); ) {
+            Node node = nodes.next();
+            message.insert(0, node.id + " > ");
+            if (node.id == id) {
+                break;
+            }
+        }
+        return "Product " + id + " is built from itself: " + message + ".";
+    }
+    /**
+     * Gets the product in inventory with the ID of a held product, or the held product if there is none.
+     */
+    private static Product resolve(Product held) {
+        Product current = Inventory.lookupProduct(held.getId());
+        return current != null ? current : held;
+    }
+    /**
+     * Forgets the rollups, and the explosions too when the tree itself may have changed, of some products and of
+     * every assembly built from them.
+     */
+    private void forget(Collection<Integer> productIds, boolean explosionsToo) {
+        Set<Integer> reached = new HashSet<>(productIds);
+        ArrayDeque<Integer> pending = new ArrayDeque<>(reached);
+        synchronized (explosions) {
+            if (explosionsToo) {
+                generation++;
+            }
+            while (!pending.isEmpty()) {
+                int id = pending.poll();
+                memo.remove(id);
+                if (explosionsToo) {
+                    explosions.remove(id);
+                }
+                for (Product assembly : Inventory.lookupAssembliesUsing(id)) {
+                    if (reached.add(assembly.getId())) {
+                        pending.add(assembly.getId());
+                    }
+                }
+            }
+        }
+    }
+    /**
+     * Forgets the results of the products listing a part and of the assemblies built from them.
+     */
+    private void partChanged(int partId, boolean explosionsToo) {
+        List<Integer> users = new ArrayList<>();
+        for (Product product : Inventory.lookupProductsUsing(partId)) {
+            users.add(product.getId());
+        }
+        forget(users, explosionsToo);
+    }
+    /**
+     * Forgets the results of a product and of the assemblies built from it.
+     */
+    private void productChanged(int productId) {
+        forget(List.of(productId), true);
+    }
+
+    /**
+     * One product of a tree being exploded.
+     */
+    private static final class Node {
+        /**
+         * The product, as found in inventory or as held by its assembly.
+         */
+        final Product product;
+        /**
+         * The product's ID when the walk found it.
+         */
+        final int id;
+        /**
+         * Whether the product is the one in inventory, so its explosion can be remembered.
+         */
+        final boolean remembered;
+        /**
+         * Distinct components, held objects until the walk reaches them and nodes after.
+         */
+        Node[] children;
+        /**
+         * Units of each component needed per unit of the product.
+         */
+        long[] times;
+        /**
+         * Next component the walk visits.
+         */
+        int next;
+        /**
+         * Whether the walk is done with the product, false while it is on the walk's path.
+         */
+        boolean done;
+        /**
+         * Units of the product needed per unit of the exploded product.
+         */
+        long quantity;
+        /**
+         * The remembered explosion of a sub-assembly the walk did not explore.
+         */
+        BomExplosion result;
+
+        /**
+         * Creates the node of a product.
+         */
+        Node(Product product, boolean remembered) {
+            this.product = product;
+            this.id = product.getId();
+            this.remembered = remembered;
+        }
+        /**
+         * Groups the product's components by ID before the walk visits them.
+         */
+        void open() {
+            List<Product> components = product.getComponentList();
+            components.sort(Comparator.comparingInt(Product::getId));
+            List<Node> distinct = new ArrayList<>();
+            long[] counts = new long[components.size()];
+            for (Product component : components) {
+                int last = distinct.size() - 1;
+                if (last >= 0 && distinct.get(last).id == component.getId()) {
+                    counts[last]++;
+                } else {
+                    distinct.add(new Node(component, false));
+                    counts[last + 1] = 1;
+                }
+            }
+            children = distinct.toArray(new Node[0]);
+            times = Arrays.copyOf(counts, children.length);
+        }
+    }
+
+    /**
+     * Adds up the parts a range of a tree's products need, each scaled by the product's quantity, splitting the
+     * range in halves until the pieces are small and merging the halves' sums.
+     */
+    private static final class Requirements extends RecursiveTask<BomExplosion> {
+        /**
+         * Version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The tree's products.
+         */
+        private final List<Node> nodes;
+        /**
+         * First position of the range.
+         */
+        private final int from;
+        /**
+         * Position after the range.
+         */
+        private final int to;
+
+        /**
+         * Creates a task for a range of products.
+         */
+        Requirements(List<Node> nodes, int from, int to) {
+            this.nodes = nodes;
+            this.from = from;
+            this.to = to;
+        }
+        @Override
+        protected BomExplosion compute() {
+            if (to - from <= TASK_SIZE) {
+                return of(nodes, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Requirements second = new Requirements(nodes, middle, to);
+            second.fork();
+            BomExplosion first = new Requirements(nodes, from, middle).compute();
+            return first.plus(second.join(), 1);
+        }
+        /**
+         * Adds up the parts a range of products needs in the calling thread: the listings are collected, sorted by
+         * part ID and summed.
+         */
+        static BomExplosion of(List<Node> nodes, int from, int to) {
+            int size = 0;
+            int[] ids = new int[64];
+            long[] counts = new long[64];
+            Part[] listed = new Part[64];
+            for (int n = from; n < to; n++) {
+                Node node = nodes.get(n);
+                int needed = node.result != null ? node.result.size() : 0;
+                List<Part> parts = node.result == null ? node.product.getAssociatedPartList() : null;
+                if (parts != null) {
+                    needed = parts.size();
+                }
+                if (size + needed > ids.length) {
+                    int capacity = Math.max(ids.length * 2, size + needed);
+                    ids = Arrays.copyOf(ids, capacity);
+                    counts = Arrays.copyOf(counts, capacity);
+                    listed = Arrays.copyOf(listed, capacity);
+                }
+                if (parts != null) {
+                    for (Part part : parts) {
+                        ids[size] = part.getId();
+                        counts[size] = node.quantity;
+                        listed[size++] = part;
+                    }
+                } else {
+                    for (int i = 0; i < needed; i++) {
+                        ids[size] = node.result.getPartId(i);
+                        counts[size] = Math.multiplyExact(node.result.getQuantity(i), node.quantity);
+                        listed[size++] = node.result.listedPart(i);
+                    }
+                }
+            }
+            if (size == 0) {
+                return BomExplosion.EMPTY;
+            }
+            // Part ID in the high half, listing in the low half: sorting the keys sorts the listings by part ID.
+            long[] keys = new long[size];
+            for (int i = 0; i < size; i++) {
+                keys[i] = (long) ids[i] << 32 | i;
+            }
+            Arrays.sort(keys);
+            int[] partIds = new int[size];
+            long[] quantities = new long[size];
+            Part[] parts = new Part[size];
+            int distinct = 0;
+            for (long key : keys) {
+                int listing = (int) key;
+                if (distinct > 0 && partIds[distinct - 1] == ids[listing]) {
+                    quantities[distinct - 1] = Math.addExact(quantities[distinct - 1], counts[listing]);
+                } else {
+                    partIds[distinct] = ids[listing];
+                    quantities[distinct] = counts[listing];
+                    parts[distinct++] = listed[listing];
+                }
+            }
+            return new BomExplosion(Arrays.copyOf(partIds, distinct), Arrays.copyOf(quantities, distinct),
+                    Arrays.copyOf(parts, distinct));
+        }
+    }
+
+    /**
+     * Forgets the results Inventory's changes affect. Runs under Inventory's lock, after its indexes are updated.
+     */
+    private final class Invalidation implements InventoryListener {
+        @Override
+        public void partAdded(Part part) {
+            partChanged(part.getId(), false);
+        }
+        @Override
+        public void partsAdded(Collection<? extends Part> parts) {
+            for (Part part : parts) {
+                partChanged(part.getId(), false);
+            }
+        }
+        @Override
+        public void partUpdated(Part old, Part part) {
+            partChanged(old.getId(), false);
+            if (part.getId() != old.getId()) {
+                partChanged(part.getId(), false);
+            }
+        }
+        @Override
+        public void partIdChanged(Part part, int oldId) {
+            // Products holding the part now list it under its new ID.
+            partChanged(oldId, true);
+            partChanged(part.getId(), true);
+        }
+        @Override
+        public void partRemoved(Part part) {
+            partChanged(part.getId(), false);
+        }
+        @Override
+        public void productAdded(Product product) {
+            productChanged(product.getId());
+        }
+        @Override
+        public void productsAdded(Collection<? extends Product> products) {
+            List<Integer> ids = new ArrayList<>();
+            for (Product product : products) {
+                ids.add(product.getId());
+            }
+            forget(ids, true);
+        }
+        @Override
+        public void productUpdated(Product old, Product product) {
+            productChanged(old.getId());
+            if (product.getId() != old.getId()) {
+                productChanged(product.getId());
+            }
+        }
+        @Override
+        public void productIdChanged(Product product, int oldId) {
+            productChanged(oldId);
+            productChanged(product.getId());
+        }
+        @Override
+        public void productRemoved(Product product) {
+            productChanged(product.getId());
+        }
+        @Override
+        public void cleared() {
+            memo.clear();
+            synchronized (explosions) {
+                generation++;
+                explosions.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Supplied class BomExplosion.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * BomExplosion Class. A product's bill of materials flattened down to parts: every part needed to build one unit,
+ * through all levels of sub-assemblies, with the total quantity needed. Explosions are immutable and computed by
+ * BillOfMaterials; parts are listed by increasing ID.
+ */
+public class BomExplosion {
+    /**
+     * Explosion of a product without parts or sub-assemblies.
+     */
+    static final BomExplosion EMPTY = new BomExplosion(new int[0], new long[0], new Part[0]);
+    /**
+     * Part IDs, increasing.
+     */
+    private final int[] partIds;
+    /**
+     * Quantity of each part needed per unit.
+     */
+    private final long[] quantities;
+    /**
+     * The part object listed for each ID, used for parts no longer in inventory.
+     */
+    private final Part[] listed;
+
+    /**
+     * Creates an explosion from arrays it takes over.
+     */
+    BomExplosion(int[] partIds, long[] quantities, Part[] listed) {
+        this.partIds = partIds;
+        this.quantities = quantities;
+        this.listed = listed;
+    }
+    /**
+     * Number of distinct parts needed.
+     * @return the number of parts.
+     */
+    public int size() {
+        return partIds.length;
+    }
+    /**
+     * Gets the ID of a needed part.
+     * @param index the position, from 0 to size - 1.
+     * @return the part ID.
+     */
+    public int getPartId(int index) {
+        return partIds[index];
+    }
+    /**
+     * Gets the quantity of a needed part.
+     * @param index the position, from 0 to size - 1.
+     * @return the number of that part needed per unit.
+     */
+    public long getQuantity(int index) {
+        return quantities[index];
+    }
+    /**
+     * Gets the quantity needed of a part, by ID.
+     * @param partId the part ID.
+     * @return the number needed per unit, 0 if the part is not needed.
+     */
+    public long quantityOf(int partId) {
+        int index = Arrays.binarySearch(partIds, partId);
+        return index < 0 ? 0 : quantities[index];
+    }
+    /**
+     * Copies the explosion into a map.
+     * @return the quantity needed by part ID, by increasing ID.
+     */
+    public Map<Integer, Long> toMap() {
+        Map<Integer, Long> map = new LinkedHashMap<>();
+        for (int i = 0; i < partIds.length; i++) {
+            map.put(partIds[i], quantities[i]);
+        }
+        return map;
+    }
+    /**
+     * Gets the part object a product listed for a needed part.
+     */
+    Part listedPart(int index) {
+        return listed[index];
+    }
+    /**
+     * Adds another explosion, scaled by a quantity, to this one.
+     * @throws ArithmeticException if a quantity overflows a long.
+     */
+    BomExplosion plus(BomExplosion other, long times) {
+        int[] ids = new int[partIds.length + other.partIds.length];
+        long[] counts = new long[ids.length];
+        Part[] parts = new Part[ids.length];
+        int i = 0;
+        int j = 0;
+        int k = 0;
+        while (i < partIds.length || j < other.partIds.length) {
+            if (j == other.partIds.length || (i < partIds.length && partIds[i] < other.partIds[j])) {
+                ids[k] = partIds[i];
+                counts[k] = quantities[i];
+                parts[k++] = listed[i++];
+            } else if (i == partIds.length || other.partIds[j] < partIds[i]) {
+                ids[k] = other.partIds[j];
+                counts[k] = Math.multiplyExact(other.quantities[j], times);
+                parts[k++] = other.listed[j++];
+            } else {
+                ids[k] = partIds[i];
+                counts[k] = Math.addExact(quantities[i], Math.multiplyExact(other.quantities[j++], times));
+                parts[k++] = listed[i++];
+            }
+        }
+        return k == ids.length ? new BomExplosion(ids, counts, parts)
+                : new BomExplosion(Arrays.copyOf(ids, k), Arrays.copyOf(counts, k), Arrays.copyOf(parts, k));
+    }
+}
@@ -0,0 +1,66 @@
+package Models;
+
+/**
+ * Supplied class BomRollup.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * BomRollup Class. What a product's bill of materials adds up to: the cost of the parts it is built from, and how
+ * many units can be built from the parts in stock. Rollups are immutable and computed by BillOfMaterials.
+ */
+public class BomRollup {
+    /**
+     * Cost of one unit's parts, in cents.
+     */
+    private final long materialCostCents;
+    /**
+     * Units that can be built from the parts in stock.
+     */
+    private final int buildableQuantity;
+    /**
+     * ID of the part that runs out first, -1 if the product has no parts.
+     */
+    private final int limitingPartId;
+
+    /**
+     * Creates a rollup.
+     * @param materialCostCents the cost of one unit's parts in cents.
+     * @param buildableQuantity the units that can be built.
+     * @param limitingPartId the part that runs out first, -1 if none.
+     */
+    BomRollup(long materialCostCents, int buildableQuantity, int limitingPartId) {
+        this.materialCostCents = materialCostCents;
+        this.buildableQuantity = buildableQuantity;
+        this.limitingPartId = limitingPartId;
+    }
+    /**
+     * Gets the cost of the parts of one unit, each part's price rounded to the cent and counted once per listing.
+     * @return the material cost.
+     */
+    public double getMaterialCost() {
+        return materialCostCents / 100.0;
+    }
+    /**
+     * Gets the material cost in cents.
+     * @return the exact material cost in cents.
+     */
+    public long getMaterialCostCents() {
+        return materialCostCents;
+    }
+    /**
+     * Gets how many units can be built from the parts in stock.
+     * @return the buildable quantity, 0 for a product without parts.
+     */
+    public int getBuildableQuantity() {
+        return buildableQuantity;
+    }
+    /**
+     * Gets the part whose stock limits the buildable quantity.
+     * @return the ID of the part that runs out first, -1 for a product without parts.
+     */
+    public int getLimitingPartId() {
+        return limitingPartId;
+    }
+}
@@ -0,0 +1,382 @@
+package Models;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Supplied class ChangeFeed.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ChangeFeed Class. Publishes every change to Inventory as a typed InventoryEvent to any number of subscribers, each
+ * consuming on its own thread at its own pace, without JavaFX.
+ * <p>Events go through a ring buffer of preallocated slots, in the manner of the LMAX Disruptor. Inventory's lock
+ * makes the feed single-producer: the publisher claims the next sequence number, fills the slot and moves the
+ * published cursor with one volatile write, with no lock and no allocation. Every subscription has its own cursor
+ * and reads every event published after it subscribed, in batches of whatever is available. A slot is only written
+ * again once every subscriber has moved past it, so a subscriber that falls a whole ring behind holds back
+ * Inventory's writers until it catches up: back-pressure instead of lost events or unbounded queues. A handler must
+ * therefore never change Inventory itself.</p>
+ * <p>Waiting, on either side, spins briefly, then yields. A subscriber with nothing left to read then parks until
+ * the publisher unparks it, so an idle feed costs no CPU; the publisher only looks for parked subscribers when one
+ * has announced itself. A publisher held back by a full ring sleeps in short naps. A busy feed never blocks on a
+ * monitor.</p>
+ */
+public class ChangeFeed implements InventoryListener, AutoCloseable {
+    /**
+     * Number of slots in the ring unless another capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 1 << 16;
+    /**
+     * Nanoseconds a waiting thread sleeps once spinning and yielding did not help.
+     */
+    private static final long NAP_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    /**
+     * Rounds of spinning and yielding after which a subscriber with nothing to read parks.
+     */
+    private static final int PARK_AFTER = 200;
+    /**
+     * The ring of event slots.
+     */
+    private final InventoryEvent[] ring;
+    /**
+     * Index mask of the ring, whose length is a power of two.
+     */
+    private final int mask;
+    /**
+     * Sequence of the last published event, -1 before the first.
+     */
+    private final AtomicLong cursor = new AtomicLong(-1);
+    /**
+     * Sequence of the next event; only used by the publisher, under Inventory's lock.
+     */
+    private long next;
+    /**
+     * Lowest subscriber cursor last seen by the publisher, so it only looks at the subscribers again when the ring
+     * may be full.
+     */
+    private long gate = -1;
+    /**
+     * The subscriptions; its monitor orders subscribing against the publisher reading the subscriber cursors.
+     */
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    /**
+     * Number of subscribers parked or about to park, waiting for the publisher to unpark them.
+     */
+    private final AtomicInteger sleepers = new AtomicInteger();
+    /**
+     * Whether the feed was closed.
+     */
+    private volatile boolean closed;
+
+    /**
+     * Creates a feed with the default capacity and starts watching Inventory.
+     */
+    public ChangeFeed() {
+        this(DEFAULT_CAPACITY);
+    }
+    /**
+     * Creates a feed and starts watching Inventory.
+     * @param capacity number of slots in the ring, rounded up to a power of two: how far the slowest subscriber may
+     * fall behind before Inventory's writers wait for it.
+     */
+    public ChangeFeed(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        int size = Integer.highestOneBit(capacity);
+        size = size < capacity ? size << 1 : size;
+        ring = new InventoryEvent[size];
+        for (int i = 0; i < size; i++) {
+            ring[i] = new InventoryEvent();
+        }
+        mask = size - 1;
+        Inventory.addListener(this);
+    }
+    /**
+     * Subscribes a handler to every event published from now on, on a new daemon thread.
+     * @param name the name of the subscription's thread.
+     * @param handler receives the events.
+     * @return the subscription, to close when done.
+     */
+    public Subscription subscribe(String name, InventoryEventHandler handler) {
+        if (closed) {
+            throw new IllegalStateException("The feed is closed.");
+        }
+        Subscription subscription;
+        synchronized (subscriptions) {
+            subscription = new Subscription(handler, cursor.get());
+            subscriptions.add(subscription);
+        }
+        subscription.thread = new Thread(subscription::run, name);
+        subscription.thread.setDaemon(true);
+        subscription.thread.start();
+        return subscription;
+    }
+    /**
+     * Gets the sequence of the last published event.
+     * @return the sequence, -1 before the first event.
+     */
+    public long getCursor() {
+        return cursor.get();
+    }
+    /**
+     * Gets the number of slots in the ring.
+     * @return the capacity.
+     */
+    public int getCapacity() {
+        return ring.length;
+    }
+    /**
+     * Stops watching Inventory. Subscriptions handle the events already published, then their threads end.
+     */
+    @Override
+    public void close() {
+        Inventory.removeListener(this);
+        closed = true;
+        for (Subscription subscription : subscriptions) {
+            LockSupport.unpark(subscription.thread);
+        }
+    }
+    @Override
+    public void partAdded(Part part) {
+        publishPart(InventoryEvent.Type.PART_CREATED, part, part.getId(), part.getStock());
+    }
+    @Override
+    public void partsAdded(Collection<? extends Part> parts) {
+        for (Part part : parts) {
+            publishPart(InventoryEvent.Type.PART_CREATED, part, part.getId(), part.getStock());
+        }
+    }
+    @Override
+    public void partUpdated(Part old, Part part) {
+        publishPart(InventoryEvent.Type.PART_UPDATED, part, old.getId(), part.getStock());
+    }
+    @Override
+    public void partStockChanged(Part part, int oldStock) {
+        publishPart(InventoryEvent.Type.PART_STOCK_CHANGED, part, part.getId(), oldStock);
+    }
+    @Override
+    public void partIdChanged(Part part, int oldId) {
+        publishPart(InventoryEvent.Type.PART_UPDATED, part, oldId, part.getStock());
+    }
+    @Override
+    public void partRemoved(Part part) {
+        publishPart(InventoryEvent.Type.PART_DELETED, part, part.getId(), part.getStock());
+    }
+    @Override
+    public void productAdded(Product product) {
+        publishProduct(InventoryEvent.Type.PRODUCT_CREATED, product, product.getId(), product.getStock());
+    }
+    @Override
+    public void productsAdded(Collection<? extends Product> products) {
+        for (Product product : products) {
+            publishProduct(InventoryEvent.Type.PRODUCT_CREATED, product, product.getId(), product.getStock());
+        }
+    }
+    @Override
+    public void productUpdated(Product old, Product product) {
+        publishProduct(InventoryEvent.Type.PRODUCT_UPDATED, product, old.getId(), product.getStock());
+    }
+    @Override
+    public void productStockChanged(Product product, int oldStock) {
+        publishProduct(InventoryEvent.Type.PRODUCT_STOCK_CHANGED, product, product.getId(), oldStock);
+    }
+    @Override
+    public void productPartsChanged(Product product) {
+        publishProduct(InventoryEvent.Type.ASSOCIATION_CHANGED, product, product.getId(), product.getStock());
+    }
+    @Override
+    public void productIdChanged(Product product, int oldId) {
+        publishProduct(InventoryEvent.Type.PRODUCT_UPDATED, product, oldId, product.getStock());
+    }
+    @Override
+    public void productRemoved(Product product) {
+        publishProduct(InventoryEvent.Type.PRODUCT_DELETED, product, product.getId(), product.getStock());
+    }
+    @Override
+    public void cleared() {
+        publish(InventoryEvent.Type.CLEARED, 0, 0, 0, 0, null, null);
+    }
+    /**
+     * Publishes a part event.
+     */
+    private void publishPart(InventoryEvent.Type type, Part part, int oldId, int oldStock) {
+        publish(type, part.getId(), oldId, oldStock, part.getStock(), part, null);
+    }
+    /**
+     * Publishes a product event.
+     */
+    private void publishProduct(InventoryEvent.Type type, Product product, int oldId, int oldStock) {
+        publish(type, product.getId(), oldId, oldStock, product.getStock(), null, product);
+    }
+    /**
+     * Claims the next slot, waiting while it still holds an event a subscriber has not read, fills it and
+     * publishes it. Runs under Inventory's lock, the only publisher.
+     */
+    private void publish(InventoryEvent.Type type, int id, int oldId, int oldStock, int stock, Part part,
+                         Product product) {
+        long sequence = next++;
+        long wrap = sequence - ring.length;
+        for (int idle = 0; wrap > gate; idle++) {
+            gate = slowestSubscriber(sequence - 1);
+            if (wrap > gate) {
+                idle(idle);
+            }
+        }
+        ring[(int) sequence & mask].set(sequence, type, id, oldId, oldStock, stock, part, product);
+        // A volatile write, so the read of sleepers below cannot be ordered before it: a subscriber announcing
+        // itself either sees this event or is seen here.
+        cursor.set(sequence);
+        if (sleepers.get() > 0) {
+            for (Subscription subscription : subscriptions) {
+                if (subscription.parked) {
+                    LockSupport.unpark(subscription.thread);
+                }
+            }
+        }
+    }
+    /**
+     * Finds the lowest cursor of the subscribers, or the given sequence if there are none.
+     */
+    private long slowestSubscriber(long published) {
+        synchronized (subscriptions) {
+            long slowest = published;
+            for (Subscription subscription : subscriptions) {
+                slowest = Math.min(slowest, subscription.sequence.get());
+            }
+            return slowest;
+        }
+    }
+    /**
+     * Waits a little, longer the longer the caller has been waiting.
+     */
+    private static void idle(int rounds) {
+        if (rounds < 100) {
+            Thread.onSpinWait();
+        } else if (rounds < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(NAP_NANOS);
+        }
+    }
+
+    /**
+     * A subscriber's cursor and thread.
+     */
+    public final class Subscription implements AutoCloseable {
+        /**
+         * Receives the events.
+         */
+        private final InventoryEventHandler handler;
+        /**
+         * Sequence of the last event handled.
+         */
+        private final AtomicLong sequence;
+        /**
+         * The thread reading the events.
+         */
+        private Thread thread;
+        /**
+         * Whether the subscription was closed.
+         */
+        private volatile boolean stopped;
+        /**
+         * Whether the thread is parked or about to park, waiting for the publisher.
+         */
+        private volatile boolean parked;
+
+        /**
+         * Creates a subscription starting after a sequence.
+         */
+        private Subscription(InventoryEventHandler handler, long start) {
+            this.handler = handler;
+            this.sequence = new AtomicLong(start);
+        }
+        /**
+         * Gets the sequence of the last event handled.
+         * @return the sequence.
+         */
+        public long getSequence() {
+            return sequence.get();
+        }
+        /**
+         * Gets how many published events the subscriber has not handled yet.
+         * @return the number of events behind the feed.
+         */
+        public long getLag() {
+            return cursor.get() - sequence.get();
+        }
+        /**
+         * Stops the subscription without handling the events left, so it no longer holds back the publisher.
+         */
+        @Override
+        public void close() {
+            stopped = true;
+            subscriptions.remove(this);
+            LockSupport.unpark(thread);
+        }
+        /**
+         * Hands every published event to the handler in batches, until the subscription or the feed is closed.
+         * Anything the handler throws, errors included, goes to the thread's uncaught exception handler and does not
+         * stop the subscription. However the thread ends, the subscription is removed, so it never holds back the
+         * publisher afterwards.
+         */
+        private void run() {
+            try {
+                long handled = sequence.get();
+                int idle = 0;
+                while (!stopped) {
+                    long available = cursor.get();
+                    if (available <= handled) {
+                        if (closed) {
+                            break;
+                        }
+                        if (idle < PARK_AFTER) {
+                            idle(idle++);
+                        } else {
+                            park(handled);
+                        }
+                        continue;
+                    }
+                    idle = 0;
+                    for (long s = handled + 1; s <= available && !stopped; s++) {
+                        try {
+                            handler.onEvent(ring[(int) s & mask], s == available);
+                        } catch (Throwable e) {
+                            Thread current = Thread.currentThread();
+                            current.getUncaughtExceptionHandler().uncaughtException(current, e);
+                        }
+                    }
+                    handled = available;
+                    sequence.lazySet(handled);
+                }
+            } finally {
+                subscriptions.remove(this);
+            }
+        }
+        /**
+         * Parks until the publisher, the feed or the subscription unparks the thread, unless an event was published
+         * after the handled one in the meantime.
+         */
+        private void park(long handled) {
+            parked = true;
+            sleepers.incrementAndGet();
+            try {
+                if (cursor.get() <= handled && !closed && !stopped) {
+                    LockSupport.park(this);
+                }
+            } finally {
+                parked = false;
+                sleepers.decrementAndGet();
+            }
+        }
+    }
+}
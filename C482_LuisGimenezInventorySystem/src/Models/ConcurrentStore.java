@@ -0,0 +1,497 @@
+package Models;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.ToIntFunction;
+
+/**
+ * Supplied class ConcurrentStore.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ConcurrentStore Class. An InventoryStore that any number of threads can read while other threads write.
+ * <p>Items are kept in a trie of 64-slot nodes, four levels deep for up to 16 million items. Every write works on
+ * its own copies of the nodes it changes and then publishes a new immutable snapshot with a single volatile write,
+ * so readers never take a lock: get, size and iteration read one snapshot and see the store as it was after some
+ * complete write. Appends fill unused slots in place, and any other write copies only the nodes on the path to the
+ * changed position, a few hundred references however large the store is. Writers are serialized by a lock.</p>
+ * <p>The ID index is an IntIntHashMap from ID to position, with no boxed keys and nothing allocated per item.
+ * Writers change it and publish the matching snapshot under the write lock of a StampedLock, and lookups by ID read
+ * it optimistically, as OffHeapPartStore does, so they only wait for the few map writes of a write in progress.</p>
+ * <p>Like ArrayStore, removal moves the last item into the freed position.</p>
+ * @param <T> the type of the stored items.
+ */
+public class ConcurrentStore<T> implements InventoryStore<T> {
+    /**
+     * Slots per trie node, as a power of two.
+     */
+    private static final int BITS = 6;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    /**
+     * Reads the ID of an item.
+     */
+    private final ToIntFunction<T> idOf;
+    /**
+     * The items as of the last complete write.
+     */
+    private volatile Snapshot<T> snapshot = new Snapshot<>(new Object[WIDTH], 0, 0);
+    /**
+     * Positions below this may be visible to a published snapshot, so they are only written in copied nodes.
+     */
+    private int published;
+    /**
+     * Primary-key index from item ID to its position in the current snapshot.
+     */
+    private final IntIntHashMap positionById = new IntIntHashMap();
+    /**
+     * Guards the ID index together with the snapshot, which readers use without locking while no write is made.
+     */
+    private final StampedLock idLock = new StampedLock();
+    /**
+     * Serializes writers.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Registered listeners.
+     */
+    private final List<StoreListener<? super T>> listeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates an empty store.
+     * @param idOf reads the ID of an item.
+     */
+    public ConcurrentStore(ToIntFunction<T> idOf) {
+        this.idOf = idOf;
+    }
+    @Override
+    public void add(T item) {
+        lock.lock();
+        try {
+            Writer<T> writer = new Writer<>(snapshot, published);
+            int index = writer.size;
+            writer.append(item);
+            long write = idLock.writeLock();
+            try {
+                positionById.put(idOf.applyAsInt(item), index);
+                publish(writer);
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            for (StoreListener<? super T> listener : listeners) {
+                listener.added(index, index + 1);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public void addAll(Collection<? extends T> newItems) {
+        if (newItems.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            Writer<T> writer = new Writer<>(snapshot, published);
+            int from = writer.size;
+            int[] ids = new int[newItems.size()];
+            for (T item : newItems) {
+                ids[writer.size - from] = idOf.applyAsInt(item);
+                writer.append(item);
+            }
+            long write = idLock.writeLock();
+            try {
+                for (int i = 0; i < ids.length; i++) {
+                    positionById.put(ids[i], from + i);
+                }
+                publish(writer);
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            for (StoreListener<? super T> listener : listeners) {
+                listener.added(from, writer.size);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public T get(int index) {
+        return snapshot.get(index);
+    }
+    @Override
+    public T set(int index, T item) {
+        lock.lock();
+        try {
+            Writer<T> writer = new Writer<>(snapshot, published);
+            T old = writer.snapshot.get(index);
+            writer.set(index, item);
+            long write = idLock.writeLock();
+            try {
+                unmap(old, index);
+                positionById.put(idOf.applyAsInt(item), index);
+                publish(writer);
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            for (StoreListener<? super T> listener : listeners) {
+                listener.replaced(index, old);
+            }
+            return old;
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public T replace(T item) {
+        lock.lock();
+        try {
+            int index = positionById.get(idOf.applyAsInt(item));
+            return index == IntIntHashMap.MISSING ? null : set(index, item);
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public boolean remove(T item) {
+        lock.lock();
+        try {
+            int index = indexOf(item);
+            if (index < 0) {
+                return false;
+            }
+            Writer<T> writer = new Writer<>(snapshot, published);
+            int last = writer.size - 1;
+            T moved = writer.snapshot.get(last);
+            if (index != last) {
+                writer.set(index, moved);
+            }
+            writer.set(last, null);
+            writer.size = last;
+            long write = idLock.writeLock();
+            try {
+                unmap(item, index);
+                if (index != last) {
+                    int movedId = idOf.applyAsInt(moved);
+                    if (positionById.get(movedId) == last) {
+                        positionById.put(movedId, index);
+                    }
+                }
+                publish(writer);
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            for (StoreListener<? super T> listener : listeners) {
+                listener.removed(index, item);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public int indexOf(T item) {
+        if (item == null) {
+            return -1;
+        }
+        int index = positionOf(idOf.applyAsInt(item));
+        Snapshot<T> current = snapshot;
+        if (index >= 0 && index < current.size && current.get(index) == item) {
+            return index;
+        }
+        // Only an item whose ID was taken over by a later item with the same ID, or one moved by a concurrent
+        // write, gets here.
+        for (int i = 0; i < current.size; i++) {
+            if (current.get(i) == item) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    @Override
+    public boolean contains(T item) {
+        return item != null && findById(idOf.applyAsInt(item)) == item;
+    }
+    @Override
+    public T findById(int id) {
+        long read = idLock.tryOptimisticRead();
+        if (read != 0) {
+            try {
+                T item = itemAt(positionById.get(id), snapshot);
+                if (idLock.validate(read)) {
+                    return item;
+                }
+            } catch (RuntimeException e) {
+                // The index was changed while it was read; read it again under the lock.
+            }
+        }
+        read = idLock.readLock();
+        try {
+            return itemAt(positionById.get(id), snapshot);
+        } finally {
+            idLock.unlockRead(read);
+        }
+    }
+    @Override
+    public boolean rekey(T item, int oldId) {
+        lock.lock();
+        try {
+            int index = positionById.get(oldId);
+            if (itemAt(index, snapshot) != item) {
+                return false;
+            }
+            long write = idLock.writeLock();
+            try {
+                positionById.remove(oldId);
+                positionById.put(idOf.applyAsInt(item), index);
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            List<T> removed = snapshot;
+            long write = idLock.writeLock();
+            try {
+                positionById.clear();
+                snapshot = new Snapshot<>(new Object[WIDTH], 0, 0);
+                published = 0;
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            for (StoreListener<? super T> listener : listeners) {
+                listener.cleared(removed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Gets the items as of the last complete write, in constant time.
+     * @return an immutable list that later writes do not affect.
+     */
+    @Override
+    public List<T> snapshot() {
+        return snapshot;
+    }
+    @Override
+    public void addListener(StoreListener<? super T> listener) {
+        listeners.add(listener);
+    }
+    @Override
+    public void removeListener(StoreListener<? super T> listener) {
+        listeners.remove(listener);
+    }
+    /**
+     * Iterates over the items as of the call, unaffected by later writes.
+     */
+    @Override
+    public Iterator<T> iterator() {
+        return snapshot.iterator();
+    }
+    /**
+     * Makes a write visible to readers.
+     */
+    private void publish(Writer<T> writer) {
+        snapshot = new Snapshot<>(writer.root, writer.shift, writer.size);
+        published = Math.max(writer.published, writer.size);
+    }
+    /**
+     * Drops the ID index entry of an item leaving a position, unless its ID already points at another item. Called
+     * under the write lock of the ID index.
+     */
+    private void unmap(T item, int index) {
+        int id = idOf.applyAsInt(item);
+        if (positionById.get(id) == index) {
+            positionById.remove(id);
+        }
+    }
+    /**
+     * Looks up the position of an ID without waiting for a writer.
+     * @return the position, MISSING if the ID is not in the index.
+     */
+    private int positionOf(int id) {
+        long read = idLock.tryOptimisticRead();
+        if (read != 0) {
+            try {
+                int index = positionById.get(id);
+                if (idLock.validate(read)) {
+                    return index;
+                }
+            } catch (RuntimeException e) {
+                // The index was resized while it was read; read it again under the lock.
+            }
+        }
+        read = idLock.readLock();
+        try {
+            return positionById.get(id);
+        } finally {
+            idLock.unlockRead(read);
+        }
+    }
+    /**
+     * Reads the item at a position of the ID index, null for MISSING or a position past the snapshot's end.
+     */
+    private static <T> T itemAt(int index, Snapshot<T> snapshot) {
+        return index >= 0 && index < snapshot.size ? snapshot.get(index) : null;
+    }
+
+    /**
+     * The trie and size of the store at one moment. Its nodes are never written below its size.
+     */
+    private static final class Snapshot<T> extends AbstractList<T> {
+        final Object[] root;
+        /**
+         * Bit shift of the root level; zero when the root is a leaf.
+         */
+        final int shift;
+        final int size;
+
+        Snapshot(Object[] root, int shift, int size) {
+            this.root = root;
+            this.shift = shift;
+            this.size = size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return (T) leaf(index)[index & MASK];
+        }
+
+        /**
+         * Finds the leaf node holding a position.
+         */
+        Object[] leaf(int index) {
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                node = (Object[]) node[(index >>> level) & MASK];
+            }
+            return node;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<T> iterator() {
+            return new Iterator<T>() {
+                private int next;
+                private Object[] leaf;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public T next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    if ((next & MASK) == 0 || leaf == null) {
+                        leaf = leaf(next);
+                    }
+                    return (T) leaf[next++ & MASK];
+                }
+            };
+        }
+    }
+
+    /**
+     * Builds the next snapshot from the current one. Nodes on the path to a position that a published snapshot may
+     * read are copied once per write; positions past every published size are written in place.
+     */
+    private static final class Writer<T> {
+        final Snapshot<T> snapshot;
+        final int published;
+        Object[] root;
+        int shift;
+        int size;
+        /**
+         * Nodes copied by this write, which it may change freely.
+         */
+        private Set<Object[]> copied;
+
+        Writer(Snapshot<T> snapshot, int published) {
+            this.snapshot = snapshot;
+            this.published = published;
+            this.root = snapshot.root;
+            this.shift = snapshot.shift;
+            this.size = snapshot.size;
+        }
+
+        void append(T item) {
+            if (size == 1 << (shift + BITS)) {
+                Object[] grown = new Object[WIDTH];
+                grown[0] = root;
+                root = grown;
+                shift += BITS;
+            }
+            set(size, item);
+            size++;
+        }
+
+        void set(int index, Object item) {
+            boolean shared = index < published;
+            if (shared && !isCopied(root)) {
+                root = copy(root);
+            }
+            Object[] node = root;
+            for (int level = shift; level > 0; level -= BITS) {
+                int slot = (index >>> level) & MASK;
+                Object[] child = (Object[]) node[slot];
+                if (child == null) {
+                    // No published snapshot reaches an empty slot, so its node is added in place.
+                    child = new Object[WIDTH];
+                    node[slot] = child;
+                } else if (shared && !isCopied(child)) {
+                    child = copy(child);
+                    node[slot] = child;
+                }
+                node = child;
+            }
+            node[index & MASK] = item;
+        }
+
+        private boolean isCopied(Object[] node) {
+            return copied != null && copied.contains(node);
+        }
+
+        private Object[] copy(Object[] node) {
+            if (copied == null) {
+                copied = Collections.newSetFromMap(new IdentityHashMap<>());
+            }
+            Object[] copy = node.clone();
+            copied.add(copy);
+            return copy;
+        }
+    }
+}
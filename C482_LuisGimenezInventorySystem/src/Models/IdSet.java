@@ -0,0 +1,78 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Supplied class IdSet.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * IdSet Class. A set of IDs in a dense int array, for the secondary indexes that list the parts sharing a vendor or
+ * a machine and for collecting the IDs of changed items. A position map gives constant-time removal by moving the
+ * last ID into the gap, so the IDs are in no particular order. Not thread-safe; the owning index synchronizes.
+ */
+class IdSet {
+    /**
+     * The IDs, in the first size slots.
+     */
+    private int[] ids = new int[8];
+    /**
+     * Number of IDs.
+     */
+    private int size;
+    /**
+     * Position of each ID in the array.
+     */
+    private final IntIntHashMap positionOf = new IntIntHashMap();
+
+    /**
+     * Adds an ID that is not in the set.
+     * @param id the ID.
+     */
+    void add(int id) {
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        positionOf.put(id, size);
+        ids[size++] = id;
+    }
+    /**
+     * Removes an ID if it is in the set.
+     * @param id the ID.
+     */
+    void remove(int id) {
+        int position = positionOf.remove(id);
+        if (position == IntIntHashMap.MISSING) {
+            return;
+        }
+        int last = ids[--size];
+        if (position != size) {
+            ids[position] = last;
+            positionOf.put(last, position);
+        }
+    }
+    /**
+     * Checks if an ID is in the set.
+     * @param id the ID.
+     * @return true if the ID was added and not removed since.
+     */
+    boolean contains(int id) {
+        return positionOf.containsKey(id);
+    }
+    /**
+     * Number of IDs in the set.
+     * @return the size.
+     */
+    int size() {
+        return size;
+    }
+    /**
+     * Copies the IDs.
+     * @return the IDs, in no particular order.
+     */
+    int[] toArray() {
+        return Arrays.copyOf(ids, size);
+    }
+}
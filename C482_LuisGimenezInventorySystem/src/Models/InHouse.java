@@ -10,9 +10,9 @@ package Models;
  */
 public class InHouse extends Part {
     /**
-     * @param machineId the machine ID for part
+     * the machine ID for part, changed through setMachineId so the machine index follows
      */
-    public int machineId;
+    private int machineId;
     /**
      * Creates InHouse class
      * @param id ID of part
@@ -39,5 +39,6 @@ public class InHouse extends Part {
      */
     public void setMachineId(int machineId) {
         this.machineId = machineId;
+        Inventory.partChanged(this);
     }
 }
\ No newline at end of file
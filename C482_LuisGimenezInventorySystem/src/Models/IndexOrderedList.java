@@ -0,0 +1,89 @@
+package Models;
+
+import java.util.AbstractList;
+import java.util.ConcurrentModificationException;
+import java.util.RandomAccess;
+import java.util.function.IntFunction;
+
+/**
+ * Supplied class IndexOrderedList.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * IndexOrderedList Class. A read-only list of the parts or products in the order of an OrderedIndex, such as by
+ * price, read from the index as it is used instead of sorting a copy of the items.
+ * <p>Items are read from the index a chunk of CHUNK_SIZE IDs at a time, each chunk at one moment in O(log n), so a
+ * caller reading its first k items pays O(log n + k). The list follows later changes to the inventory: a chunk read
+ * before a change is read again, and an item that left inventory after its ID was read fails the read with a
+ * ConcurrentModificationException. Like the store snapshots, it is meant to be read by one thread at a time; a table
+ * shows a copy from Inventory.listPartsByPrice and the like instead, taken at one moment.</p>
+ * @param <T> the type of the items.
+ */
+class IndexOrderedList<T> extends AbstractList<T> implements RandomAccess {
+    /**
+     * Most IDs read from the index at once.
+     */
+    private static final int CHUNK_SIZE = 256;
+    /**
+     * The index giving the order.
+     */
+    private final OrderedIndex<T> index;
+    /**
+     * True to read the index from its highest key.
+     */
+    private final boolean descending;
+    /**
+     * Finds an item by ID.
+     */
+    private final IntFunction<T> find;
+    /**
+     * IDs of the positions last read.
+     */
+    private final int[] chunk = new int[CHUNK_SIZE];
+    /**
+     * Position of the first ID in the chunk, and the number of IDs in it.
+     */
+    private int chunkStart;
+    private int chunkLength;
+    /**
+     * Version of the index the chunk was read at.
+     */
+    private int chunkVersion;
+
+    /**
+     * Creates a view of an index.
+     * @param index the index giving the order.
+     * @param descending true to list the items with the highest key first.
+     * @param find finds an item in inventory by ID.
+     */
+    IndexOrderedList(OrderedIndex<T> index, boolean descending, IntFunction<T> find) {
+        this.index = index;
+        this.descending = descending;
+        this.find = find;
+    }
+    @Override
+    public T get(int position) {
+        int version = index.version();
+        if (version != chunkVersion || position < chunkStart || position >= chunkStart + chunkLength) {
+            chunkLength = index.readAt(position, descending, chunk);
+            chunkStart = position;
+            // Taken before the chunk was read, the version may be older than it; the chunk is then read again.
+            chunkVersion = version;
+        }
+        if (position < chunkStart || position >= chunkStart + chunkLength) {
+            throw new IndexOutOfBoundsException("Index " + position + " out of bounds for size " + index.size());
+        }
+        int id = chunk[position - chunkStart];
+        T item = find.apply(id);
+        if (item == null) {
+            throw new ConcurrentModificationException("Item " + id + " left inventory while the list was read.");
+        }
+        return item;
+    }
+    @Override
+    public int size() {
+        return index.size();
+    }
+}
@@ -0,0 +1,202 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Supplied class IntHashMap.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * IntHashMap Class. A hash map keyed by primitive ints, so lookups by ID never box the key into an Integer.
+ * Uses open addressing with linear probing; removals shift the following entries back instead of leaving
+ * tombstones, so the table never degrades after many deletes.
+ * @param <V> the type of the mapped values.
+ */
+public class IntHashMap<V> {
+    /**
+     * Keys of the table, only meaningful where the matching value slot is not null.
+     */
+    private int[] keys;
+    /**
+     * Values of the table, null marks a free slot.
+     */
+    private Object[] values;
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+    /**
+     * Creates an empty map.
+     */
+    public IntHashMap() {
+        this(16);
+    }
+    /**
+     * Creates an empty map able to hold the expected number of entries without resizing.
+     * @param expectedSize the expected number of entries.
+     */
+    public IntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new Object[capacity];
+    }
+    /**
+     * Gets the value mapped to a key.
+     * @param key the key.
+     * @return the value, null if the key is not mapped.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return (V) values[i];
+            }
+        }
+        return null;
+    }
+    /**
+     * Checks if a key is mapped.
+     * @param key the key.
+     * @return true if the key is mapped.
+     */
+    public boolean containsKey(int key) {
+        return get(key) != null;
+    }
+    /**
+     * Maps a key to a value, replacing any previous value.
+     * @param key the key.
+     * @param value the value, must not be null.
+     * @return the previous value, null if there was none.
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("IntHashMap does not accept null values.");
+        }
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        for (; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * 3 / 4) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+    /**
+     * Removes the mapping for a key.
+     * @param key the key.
+     * @return the removed value, null if the key was not mapped.
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; values[i] != null; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                V old = (V) values[i];
+                shiftBack(i);
+                size--;
+                return old;
+            }
+        }
+        return null;
+    }
+    /**
+     * Removes the mapping for a key only if it is mapped to the given value (compared by identity).
+     * @param key the key.
+     * @param value the expected value.
+     * @return true if the mapping was removed.
+     */
+    public boolean remove(int key, V value) {
+        if (get(key) != value || value == null) {
+            return false;
+        }
+        remove(key);
+        return true;
+    }
+    /**
+     * Number of entries in the map.
+     * @return the size.
+     */
+    public int size() {
+        return size;
+    }
+    /**
+     * Checks if the map has no entries.
+     * @return true if empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+    /**
+     * Closes the gap left by a removed entry by moving back later entries of the same probe run.
+     * @param gap the slot that was freed.
+     */
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                break;
+            }
+            int home = mix(keys[i]) & mask;
+            // Move the entry only if its home slot is not between the gap and its current slot.
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        values[gap] = null;
+    }
+    /**
+     * Rehashes every entry into a table of the new capacity.
+     * @param capacity the new capacity, a power of two.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        keys = new int[capacity];
+        values = new Object[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldValues[j] != null) {
+                int i = mix(oldKeys[j]) & mask;
+                while (values[i] != null) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+            }
+        }
+    }
+    /**
+     * Spreads sequential IDs across the table.
+     * @param key the key.
+     * @return the mixed hash.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
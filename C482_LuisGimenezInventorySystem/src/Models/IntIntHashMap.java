@@ -0,0 +1,208 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Supplied class IntIntHashMap.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * IntIntHashMap Class. A map from primitive int keys to primitive int values, used where IntHashMap would box
+ * its values, such as positions and counts. Uses the same open addressing and backward-shift deletion.
+ */
+public class IntIntHashMap {
+    /**
+     * Value returned for keys that are not mapped.
+     */
+    public static final int MISSING = -1;
+    /**
+     * Keys of the table, only meaningful where the slot is used.
+     */
+    private int[] keys;
+    /**
+     * Values of the table, only meaningful where the slot is used.
+     */
+    private int[] values;
+    /**
+     * Marks the slots holding an entry.
+     */
+    private boolean[] used;
+    /**
+     * Number of entries in the map.
+     */
+    private int size;
+    /**
+     * Creates an empty map.
+     */
+    public IntIntHashMap() {
+        this(16);
+    }
+    /**
+     * Creates an empty map able to hold the expected number of entries without resizing.
+     * @param expectedSize the expected number of entries.
+     */
+    public IntIntHashMap(int expectedSize) {
+        int capacity = 16;
+        while (capacity * 3 / 4 < expectedSize) {
+            capacity <<= 1;
+        }
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+    }
+    /**
+     * Gets the value mapped to a key.
+     * @param key the key.
+     * @return the value, MISSING if the key is not mapped.
+     */
+    public int get(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return MISSING;
+    }
+    /**
+     * Checks if a key is mapped.
+     * @param key the key.
+     * @return true if the key is mapped.
+     */
+    public boolean containsKey(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Maps a key to a value, replacing any previous value.
+     * @param key the key.
+     * @param value the value.
+     * @return the previous value, MISSING if there was none.
+     */
+    public int put(int key, int value) {
+        int mask = keys.length - 1;
+        int i = mix(key) & mask;
+        for (; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int old = values[i];
+                values[i] = value;
+                return old;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        used[i] = true;
+        if (++size > keys.length * 3 / 4) {
+            resize(keys.length << 1);
+        }
+        return MISSING;
+    }
+    /**
+     * Adds to the value mapped to a key, treating an unmapped key as zero.
+     * @param key the key.
+     * @param delta the amount to add.
+     * @return the new value.
+     */
+    public int add(int key, int delta) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i] += delta;
+            }
+        }
+        put(key, delta);
+        return delta;
+    }
+    /**
+     * Removes the mapping for a key.
+     * @param key the key.
+     * @return the removed value, MISSING if the key was not mapped.
+     */
+    public int remove(int key) {
+        int mask = keys.length - 1;
+        for (int i = mix(key) & mask; used[i]; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int old = values[i];
+                shiftBack(i);
+                size--;
+                return old;
+            }
+        }
+        return MISSING;
+    }
+    /**
+     * Number of entries in the map.
+     * @return the size.
+     */
+    public int size() {
+        return size;
+    }
+    /**
+     * Removes every entry.
+     */
+    public void clear() {
+        Arrays.fill(used, false);
+        size = 0;
+    }
+    /**
+     * Closes the gap left by a removed entry by moving back later entries of the same probe run.
+     * @param gap the slot that was freed.
+     */
+    private void shiftBack(int gap) {
+        int mask = keys.length - 1;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (!used[i]) {
+                break;
+            }
+            int home = mix(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        used[gap] = false;
+    }
+    /**
+     * Rehashes every entry into a table of the new capacity.
+     * @param capacity the new capacity, a power of two.
+     */
+    private void resize(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new int[capacity];
+        values = new int[capacity];
+        used = new boolean[capacity];
+        int mask = capacity - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            if (oldUsed[j]) {
+                int i = mix(oldKeys[j]) & mask;
+                while (used[i]) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = oldKeys[j];
+                values[i] = oldValues[j];
+                used[i] = true;
+            }
+        }
+    }
+    /**
+     * Spreads sequential keys across the table.
+     * @param key the key.
+     * @return the mixed hash.
+     */
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
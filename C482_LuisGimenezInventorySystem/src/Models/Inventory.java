@@ -3,6 +3,17 @@ package Models;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
 /**
  * Supplied class Inventory.java
  *
@@ -12,45 +23,192 @@ import javafx.collections.ObservableList;
 
 /***
  * Inventory Class. Corresponds to the main object, the inventory of parts and products.
+ * <p>Inventory can be used from several threads at once. Changes are serialized by one lock, so the stores, search
+ * indexes and listeners always see them in the same order, and ID sequences are atomic. Reads never wait for that
+ * lock: lookups by ID and iteration read the lock-free ConcurrentStore, and searches fall back to a scan of a
+ * store snapshot when a change interrupts them.</p>
  */
 public class Inventory {
     /**
-     * Holds all parts in inventory.
+     * Storage engine holding all parts in inventory.
+     */
+    private static volatile InventoryStore<Part> partStore = new ConcurrentStore<>(Part::getId);
+    /**
+     * Storage engine holding all products in inventory.
+     */
+    private static volatile InventoryStore<Product> productStore = new ConcurrentStore<>(Product::getId);
+    /**
+     * Observable view of the parts for the screens, created when a screen first asks for it.
+     */
+    private static volatile ObservableStoreList<Part> allParts;
+    /**
+     * Observable view of the products for the screens, created when a screen first asks for it.
+     */
+    private static volatile ObservableStoreList<Product> allProducts;
+    /**
+     * Search index over part IDs and names, kept in sync with the part store.
+     */
+    private static final SearchIndex<Part> partSearch = new SearchIndex<>(Part::getId, Part::getName);
+    /**
+     * Search index over product IDs and names, kept in sync with the product store.
+     */
+    private static final SearchIndex<Product> productSearch = new SearchIndex<>(Product::getId, Product::getName);
+    /**
+     * Reverse index from part ID to the products using the part, kept in sync with the products' associated parts.
+     */
+    private static final PartUsageIndex partUsage = new PartUsageIndex();
+    /**
+     * Reverse index from product ID to the assemblies built from the product, kept in sync with the products'
+     * components.
+     */
+    private static final PartUsageIndex componentUsage = new PartUsageIndex(Product::componentIds);
+    /**
+     * Index from vendor code to the outsourced parts from that vendor, kept in sync with the part store.
+     */
+    private static final VendorIndex vendors = new VendorIndex();
+    /**
+     * Index from machine ID to the in-house parts made on it and their totals, kept in sync with the part store.
+     */
+    private static final MachineIndex machines = new MachineIndex();
+    /**
+     * Running totals of the parts, kept in sync with the part store.
      */
-    private static ObservableList<Part> allParts = FXCollections.observableArrayList();
+    private static final ValuationIndex<Part> partTotals =
+            new ValuationIndex<>(Part::getId, Part::getStock, Part::getPrice, Part::getMin);
     /**
-     * Holds all products in inventory.
+     * Running totals of the products, kept in sync with the product store.
      */
-    private static ObservableList<Product> allProducts = FXCollections.observableArrayList();
+    private static final ValuationIndex<Product> productTotals =
+            new ValuationIndex<>(Product::getId, Product::getStock, Product::getPrice, Product::getMin);
+    /**
+     * Parts ordered by price, kept in sync with the part store.
+     */
+    private static final OrderedIndex<Part> partPrices =
+            new OrderedIndex<>("price", Part::getId, part -> OrderedIndex.priceKey(part.getPrice()));
+    /**
+     * Parts ordered by inventory level, kept in sync with the part store.
+     */
+    private static final OrderedIndex<Part> partStocks = new OrderedIndex<>("stock", Part::getId, Part::getStock);
+    /**
+     * Products ordered by price, kept in sync with the product store.
+     */
+    private static final OrderedIndex<Product> productPrices =
+            new OrderedIndex<>("price", Product::getId, product -> OrderedIndex.priceKey(product.getPrice()));
+    /**
+     * Products ordered by inventory level, kept in sync with the product store.
+     */
+    private static final OrderedIndex<Product> productStocks =
+            new OrderedIndex<>("stock", Product::getId, Product::getStock);
+    /**
+     * Listeners told about every change to the parts and products.
+     */
+    private static final List<InventoryListener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * Serializes every change to the inventory.
+     */
+    private static final ReentrantLock lock = new ReentrantLock();
     /**
      * Adds a new part to inventory.
      * @param newPart the part to be added.
      */
     public static void addPart(Part newPart) {
-        allParts.add(newPart);
+        lock.lock();
+        try {
+            partStore.add(newPart);
+            partSearch.add(newPart);
+            vendors.update(newPart);
+            machines.update(newPart);
+            partTotals.update(newPart);
+            partPrices.update(newPart);
+            partStocks.update(newPart);
+            reservePartId(newPart.getId());
+            for (InventoryListener listener : listeners) {
+                listener.partAdded(newPart);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
     /**
      * Adds a new product to inventory.
      */
     public static void addProduct(Product newProduct) {
-        allProducts.add(newProduct);
+        lock.lock();
+        try {
+            productStore.add(newProduct);
+            productSearch.add(newProduct);
+            productTotals.update(newProduct);
+            productPrices.update(newProduct);
+            productStocks.update(newProduct);
+            partUsage.update(newProduct);
+            componentUsage.update(newProduct);
+            reserveProductId(newProduct.getId());
+            for (InventoryListener listener : listeners) {
+                listener.productAdded(newProduct);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
     /**
-     * Searches parts by ID,
-     * @param partId the part ID.
-     * @return the part if found, null if not.
+     * Adds several parts to inventory at once. Screens observing the parts list get a single change
+     * notification for the whole batch.
+     * @param newParts the parts to be added.
+     */
+    public static void addAllParts(Collection<? extends Part> newParts) {
+        lock.lock();
+        try {
+            partStore.addAll(newParts);
+            for (Part part : newParts) {
+                partSearch.add(part);
+                vendors.update(part);
+                machines.update(part);
+                partTotals.update(part);
+                reservePartId(part.getId());
+            }
+            partPrices.updateAll(newParts);
+            partStocks.updateAll(newParts);
+            for (InventoryListener listener : listeners) {
+                listener.partsAdded(newParts);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Adds several products to inventory at once, with a single change notification for the whole batch.
+     * @param newProducts the products to be added.
      */
-    public Part lookupPart(int partId) {
-        Part f = null;
-        for (Part p : allParts) {
-            if (p.getId() == partId) {
-                f = p;
+    public static void addAllProducts(Collection<? extends Product> newProducts) {
+        lock.lock();
+        try {
+            productStore.addAll(newProducts);
+            for (Product product : newProducts) {
+                productSearch.add(product);
+                productTotals.update(product);
+                partUsage.update(product);
+                componentUsage.update(product);
+                reserveProductId(product.getId());
             }
+            productPrices.updateAll(newProducts);
+            productStocks.updateAll(newProducts);
+            for (InventoryListener listener : listeners) {
+                listener.productsAdded(newProducts);
+            }
+        } finally {
+            lock.unlock();
         }
-        return f;
     }
     /**
-     * Searches list of products by ID.
+     * Searches parts by ID, in constant time through the ID index.
+     * @param partId the part ID.
+     * @return the part if found, null if not.
+     */
+    public static Part lookupPart(int partId) {
+        return partStore.findById(partId);
+    }
+    /**
+     * Searches list of products by ID, in constant time through the ID index.
      *
      * @param productId the product ID.
      * @return product object if found, null if not.
@@ -59,15 +217,7 @@ public class Inventory {
      * adding the alerts (Product was not found.) directly on the MainScreen.java instead using a switch statement.
      */
     public static Product lookupProduct(int productId) {
-        Product f = null;
-        for (Product product : allProducts) {
-            if (product.getId() == productId) {
-                f = product;
-                // Error occurred here when attempting to add a reference to an outside method.
-            }
-        }
-        // Error occurred here when attempting to add a reference to an outside method.
-        return f;
+        return productStore.findById(productId);
     }
     /**
      * Searches the list of parts by name.
@@ -75,7 +225,7 @@ public class Inventory {
      */
     public static ObservableList<Part> lookupPart(String partName) {
         ObservableList<Part> partFound = FXCollections.observableArrayList();
-        for (Part p : allParts) {
+        for (Part p : partStore) {
             if (p.getName().equals(partName)) {
                 partFound.add(p);
             }
@@ -88,62 +238,984 @@ public class Inventory {
      */
     public static ObservableList<Product> lookupProduct(String productName) {
         ObservableList<Product> productFound = FXCollections.observableArrayList();
-        for (Product p : allProducts) {
+        for (Product p : productStore) {
             if (p.getName().equals(productName)) {
                 productFound.add(p);
             }
         }
         return productFound;
     }
+    /**
+     * Searches parts whose ID or name contains the given text, through the search index.
+     * @param text the text to search for.
+     * @return the matching parts, in the order they were added unless the search was answered by a scan.
+     */
+    public static List<Part> searchParts(String text) {
+        List<Part> found = partSearch.trySearch(text);
+        return found != null ? found : scan(partStore.snapshot(), text, Part::getId, Part::getName);
+    }
+    /**
+     * Searches products whose ID or name contains the given text, through the search index.
+     * @param text the text to search for.
+     * @return the matching products, in the order they were added unless the search was answered by a scan.
+     */
+    public static List<Product> searchProducts(String text) {
+        List<Product> found = productSearch.trySearch(text);
+        return found != null ? found : scan(productStore.snapshot(), text, Product::getId, Product::getName);
+    }
+    /**
+     * Answers a search by scanning a store snapshot, used when a change interrupts the search index.
+     */
+    private static <T> List<T> scan(List<T> items, String text, ToIntFunction<T> idOf, Function<T, String> nameOf) {
+        List<T> found = new ArrayList<>();
+        for (T item : items) {
+            if (String.valueOf(idOf.applyAsInt(item)).contains(text) || nameOf.apply(item).contains(text)) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+    /**
+     * Updates a part in the parts list.
+     * @param index the position of the part to replace.
+     * @param selectedPart the part used for replacement.
+     */
     public static void updatePart(int index, Part selectedPart) {
-
-        allParts.set(index, selectedPart);
+        lock.lock();
+        try {
+            Part old = partStore.set(index, selectedPart);
+            partSearch.replace(old, selectedPart);
+            if (old.getId() != selectedPart.getId()) {
+                vendors.remove(old.getId());
+                machines.remove(old.getId());
+                partTotals.remove(old.getId());
+                partPrices.remove(old.getId());
+                partStocks.remove(old.getId());
+            }
+            vendors.update(selectedPart);
+            machines.update(selectedPart);
+            partTotals.update(selectedPart);
+            partPrices.update(selectedPart);
+            partStocks.update(selectedPart);
+            reservePartId(selectedPart.getId());
+            for (InventoryListener listener : listeners) {
+                listener.partUpdated(old, selectedPart);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Updates a part in place: the part with the same ID as the given part is replaced by it, keeping its position.
+     * Runs in constant time through the ID index.
+     * @param selectedPart the part used for replacement.
+     * @return true if a part with that ID was found and replaced.
+     */
+    public static boolean updatePart(Part selectedPart) {
+        lock.lock();
+        try {
+            Part old = partStore.replace(selectedPart);
+            if (old == null) {
+                return false;
+            }
+            partSearch.replace(old, selectedPart);
+            vendors.update(selectedPart);
+            machines.update(selectedPart);
+            partTotals.update(selectedPart);
+            partPrices.update(selectedPart);
+            partStocks.update(selectedPart);
+            for (InventoryListener listener : listeners) {
+                listener.partUpdated(old, selectedPart);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
     /**
      * Updates a product in the product list.
+     * @param index the position of the product to replace.
+     * @param selectedProduct the product used for replacement.
+     */
+    public static void updateProduct(int index, Product selectedProduct) {
+        lock.lock();
+        try {
+            Product old = productStore.set(index, selectedProduct);
+            productSearch.replace(old, selectedProduct);
+            if (old.getId() != selectedProduct.getId()) {
+                productTotals.remove(old.getId());
+                productPrices.remove(old.getId());
+                productStocks.remove(old.getId());
+            }
+            productTotals.update(selectedProduct);
+            productPrices.update(selectedProduct);
+            productStocks.update(selectedProduct);
+            partUsage.update(selectedProduct);
+            componentUsage.update(selectedProduct);
+            if (old != selectedProduct) {
+                partUsage.remove(old);
+                componentUsage.remove(old);
+            }
+            reserveProductId(selectedProduct.getId());
+            for (InventoryListener listener : listeners) {
+                listener.productUpdated(old, selectedProduct);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Updates a product in place: the product with the same ID as the given product is replaced by it.
+     * Runs in constant time through the ID index.
      * @param selectedProduct the product used for replacement.
+     * @return true if a product with that ID was found and replaced.
      */
-    public static void updateProduct(int index, Product selectedProduct) { allProducts.set(index, selectedProduct); }
-     /**
-     * Removes part from the parts list.
+    public static boolean updateProduct(Product selectedProduct) {
+        lock.lock();
+        try {
+            Product old = productStore.replace(selectedProduct);
+            if (old == null) {
+                return false;
+            }
+            productSearch.replace(old, selectedProduct);
+            productTotals.update(selectedProduct);
+            productPrices.update(selectedProduct);
+            productStocks.update(selectedProduct);
+            partUsage.update(selectedProduct);
+            componentUsage.update(selectedProduct);
+            if (old != selectedProduct) {
+                partUsage.remove(old);
+                componentUsage.remove(old);
+            }
+            for (InventoryListener listener : listeners) {
+                listener.productUpdated(old, selectedProduct);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Removes part from the parts list, in constant time through the ID index. The last part of the list takes
+     * the place of the removed one. Products using the part keep it; use deleteUnusedPart to refuse that.
      *
      * @param selectedPart the part to be removed.
      * @return A boolean indicating status of part removal.
      */
     public static boolean deletePart(Part selectedPart) {
-        if (allParts.contains(selectedPart)) {
-            allParts.remove(selectedPart);
+        lock.lock();
+        try {
+            if (partStore.remove(selectedPart)) {
+                partSearch.remove(selectedPart);
+                if (partStore.findById(selectedPart.getId()) == null) {
+                    vendors.remove(selectedPart.getId());
+                    machines.remove(selectedPart.getId());
+                    partTotals.remove(selectedPart.getId());
+                    partPrices.remove(selectedPart.getId());
+                    partStocks.remove(selectedPart.getId());
+                }
+                for (InventoryListener listener : listeners) {
+                    listener.partRemoved(selectedPart);
+                }
+                return true;
+            } else {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Removes a part unless a product uses it. The check and the removal are made together, so no product can
+     * start using the part in between.
+     * @param selectedPart the part to be removed.
+     * @return true if the part was removed, false if a product uses it or it is not in inventory.
+     */
+    public static boolean deleteUnusedPart(Part selectedPart) {
+        lock.lock();
+        try {
+            return !partUsage.isUsed(selectedPart.getId()) && deletePart(selectedPart);
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Removes a product unless another product is built from it, like deleteUnusedPart. An assembly keeps a deleted
+     * component in memory, but a restart drops components no longer in inventory, changing its cost and buildable
+     * quantity.
+     * @param selectedProduct the product to be removed.
+     * @return true if the product was removed, false if an assembly uses it or it is not in inventory.
+     */
+    public static boolean deleteUnusedProduct(Product selectedProduct) {
+        lock.lock();
+        try {
+            return !componentUsage.isUsed(selectedProduct.getId()) && deleteProduct(selectedProduct);
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Adds a part unless a part with the same ID is in inventory. The check and the addition are made together, so
+     * two callers adding the same ID cannot both succeed.
+     * @param newPart the part to be added.
+     * @return true if the part was added, false if its ID is taken.
+     */
+    public static boolean addPartIfAbsent(Part newPart) {
+        lock.lock();
+        try {
+            if (partStore.findById(newPart.getId()) != null) {
+                return false;
+            }
+            addPart(newPart);
             return true;
-        } else {
-            return false;
+        } finally {
+            lock.unlock();
         }
     }
     /**
-     * Removes a product from parts list.
+     * Adds a product unless a product with the same ID is in inventory, like addPartIfAbsent.
+     * @param newProduct the product to be added.
+     * @return true if the product was added, false if its ID is taken.
      */
-    public static boolean deleteProduct(Product selectedProduct) {
-        if (allProducts.contains(selectedProduct)) {
-            allProducts.remove(selectedProduct);
+    public static boolean addProductIfAbsent(Product newProduct) {
+        lock.lock();
+        try {
+            if (productStore.findById(newProduct.getId()) != null) {
+                return false;
+            }
+            addProduct(newProduct);
             return true;
-        } else {
-            return false;
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Finds the products whose associated parts include a part with the given ID, through the part usage index.
+     * Costs as much as the number of products found.
+     * @param partId the part ID.
+     * @return the products using the part, in no particular order.
+     */
+    public static List<Product> lookupProductsUsing(int partId) {
+        return partUsage.productsUsing(partId);
+    }
+    /**
+     * Finds the products whose components include a product with the given ID, through the component usage index.
+     * Costs as much as the number of assemblies found.
+     * @param productId the product ID.
+     * @return the assemblies built directly from the product, in no particular order.
+     */
+    public static List<Product> lookupAssembliesUsing(int productId) {
+        return componentUsage.productsUsing(productId);
+    }
+    /**
+     * Counts the products whose associated parts include a part with the given ID, in constant time.
+     * @param partId the part ID.
+     * @return the number of products using the part.
+     */
+    static int countProductsUsing(int partId) {
+        return partUsage.count(partId);
+    }
+    /**
+     * Tells whether a product's associated parts include a part with the given ID, in constant time.
+     * @param partId the part ID.
+     * @param product the product.
+     * @return true if the product uses the part.
+     */
+    static boolean isPartUsedBy(int partId, Product product) {
+        return partUsage.isUsedBy(partId, product);
+    }
+    /**
+     * Tells whether any product in inventory uses a part, in constant time.
+     * @param partId the part ID.
+     * @return true if a product's associated parts include a part with that ID.
+     */
+    public static boolean isPartUsed(int partId) {
+        return partUsage.isUsed(partId);
+    }
+    /**
+     * Tells whether any product in inventory is built from a product, in constant time.
+     * @param productId the product ID.
+     * @return true if a product's components include a product with that ID.
+     */
+    public static boolean isProductUsed(int productId) {
+        return componentUsage.isUsed(productId);
+    }
+    /**
+     * Finds the outsourced parts from a vendor through the vendor index. Costs as much as the number of parts found.
+     * @param companyName the company name, compared after trimming.
+     * @return the parts from that vendor, in no particular order.
+     */
+    public static List<Part> lookupPartsByVendor(String companyName) {
+        int[] ids = vendors.partIds(VendorDictionary.find(companyName));
+        List<Part> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Part part = partStore.findById(id);
+            if (part != null) {
+                found.add(part);
+            }
+        }
+        return found;
+    }
+    /**
+     * Counts the outsourced parts from a vendor, in constant time.
+     * @param companyName the company name, compared after trimming.
+     * @return the number of parts from that vendor.
+     */
+    public static int countPartsByVendor(String companyName) {
+        return vendors.count(VendorDictionary.find(companyName));
+    }
+    /**
+     * Finds the in-house parts made on a machine through the machine index. Costs as much as the number of parts
+     * found.
+     * @param machineId the machine ID.
+     * @return the parts made on that machine, in no particular order.
+     */
+    public static List<Part> lookupPartsByMachine(int machineId) {
+        int[] ids = machines.partIds(machineId);
+        List<Part> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Part part = partStore.findById(id);
+            if (part != null) {
+                found.add(part);
+            }
+        }
+        return found;
+    }
+    /**
+     * Gets the part count, total stock and stock value of the in-house parts made on a machine, in constant time.
+     * @param machineId the machine ID.
+     * @return the machine's totals, all zero if no part in inventory is made on it.
+     */
+    public static MachineTotals getMachineTotals(int machineId) {
+        return machines.totals(machineId);
+    }
+    /**
+     * Gets the machines that make at least one in-house part in inventory.
+     * @return a read-only view of the machine IDs, following later changes.
+     */
+    public static Set<Integer> getMachineIds() {
+        return Collections.unmodifiableSet(machines.machines());
+    }
+    /**
+     * Finds the parts priced between two prices through the price index, in O(log n + k) for k parts found.
+     * @param low the lowest price, inclusive.
+     * @param high the highest price, inclusive.
+     * @return the parts in the range, cheapest first.
+     */
+    public static List<Part> lookupPartsByPrice(double low, double high) {
+        return findAll(partPrices.idsBetween(OrderedIndex.priceKey(low), OrderedIndex.priceKey(high)), partStore);
+    }
+    /**
+     * Finds the parts whose inventory level is between two levels through the stock index, in O(log n + k) for k
+     * parts found.
+     * @param low the lowest level, inclusive.
+     * @param high the highest level, inclusive.
+     * @return the parts in the range, lowest stock first.
+     */
+    public static List<Part> lookupPartsByStock(int low, int high) {
+        return findAll(partStocks.idsBetween(low, high), partStore);
+    }
+    /**
+     * Finds the products priced between two prices through the price index, like lookupPartsByPrice.
+     * @param low the lowest price, inclusive.
+     * @param high the highest price, inclusive.
+     * @return the products in the range, cheapest first.
+     */
+    public static List<Product> lookupProductsByPrice(double low, double high) {
+        return findAll(productPrices.idsBetween(OrderedIndex.priceKey(low), OrderedIndex.priceKey(high)),
+                productStore);
+    }
+    /**
+     * Finds the products whose inventory level is between two levels through the stock index, like
+     * lookupPartsByStock.
+     * @param low the lowest level, inclusive.
+     * @param high the highest level, inclusive.
+     * @return the products in the range, lowest stock first.
+     */
+    public static List<Product> lookupProductsByStock(int low, int high) {
+        return findAll(productStocks.idsBetween(low, high), productStore);
+    }
+    /**
+     * Lists every part by price, ties by ID, as a read-only view of the price index: nothing is sorted, and the
+     * first k parts, such as the 100 cheapest, are read in O(log n + k).
+     * @param descending true for the most expensive first.
+     * @return the parts in price order, following later changes.
+     */
+    public static List<Part> getPartsByPrice(boolean descending) {
+        return new IndexOrderedList<>(partPrices, descending, id -> partStore.findById(id));
+    }
+    /**
+     * Lists every part by inventory level, ties by ID, as a read-only view of the stock index, like
+     * getPartsByPrice.
+     * @param descending true for the highest stock first.
+     * @return the parts in stock order, following later changes.
+     */
+    public static List<Part> getPartsByStock(boolean descending) {
+        return new IndexOrderedList<>(partStocks, descending, id -> partStore.findById(id));
+    }
+    /**
+     * Lists every product by price as a read-only view of the price index, like getPartsByPrice.
+     * @param descending true for the most expensive first.
+     * @return the products in price order, following later changes.
+     */
+    public static List<Product> getProductsByPrice(boolean descending) {
+        return new IndexOrderedList<>(productPrices, descending, id -> productStore.findById(id));
+    }
+    /**
+     * Lists every product by inventory level as a read-only view of the stock index, like getPartsByPrice.
+     * @param descending true for the highest stock first.
+     * @return the products in stock order, following later changes.
+     */
+    public static List<Product> getProductsByStock(boolean descending) {
+        return new IndexOrderedList<>(productStocks, descending, id -> productStore.findById(id));
+    }
+    /**
+     * Copies every part by price, ties by ID, from the price index at one moment, for a table sorted by price.
+     * @param descending true for the most expensive first.
+     * @return the parts in price order.
+     */
+    public static List<Part> listPartsByPrice(boolean descending) {
+        return findAll(partPrices.ids(descending), partStore);
+    }
+    /**
+     * Copies every part by inventory level, ties by ID, from the stock index at one moment, like listPartsByPrice.
+     * @param descending true for the highest stock first.
+     * @return the parts in stock order.
+     */
+    public static List<Part> listPartsByStock(boolean descending) {
+        return findAll(partStocks.ids(descending), partStore);
+    }
+    /**
+     * Copies every product by price from the price index at one moment, like listPartsByPrice.
+     * @param descending true for the most expensive first.
+     * @return the products in price order.
+     */
+    public static List<Product> listProductsByPrice(boolean descending) {
+        return findAll(productPrices.ids(descending), productStore);
+    }
+    /**
+     * Copies every product by inventory level from the stock index at one moment, like listPartsByPrice.
+     * @param descending true for the highest stock first.
+     * @return the products in stock order.
+     */
+    public static List<Product> listProductsByStock(boolean descending) {
+        return findAll(productStocks.ids(descending), productStore);
+    }
+    /**
+     * Gets the index ordering the parts by price, for queries.
+     */
+    static OrderedIndex<Part> partPriceIndex() {
+        return partPrices;
+    }
+    /**
+     * Gets the index ordering the parts by inventory level, for queries.
+     */
+    static OrderedIndex<Part> partStockIndex() {
+        return partStocks;
+    }
+    /**
+     * Gets the index ordering the products by price, for queries.
+     */
+    static OrderedIndex<Product> productPriceIndex() {
+        return productPrices;
+    }
+    /**
+     * Gets the index ordering the products by inventory level, for queries.
+     */
+    static OrderedIndex<Product> productStockIndex() {
+        return productStocks;
+    }
+    /**
+     * Finds the items with the given IDs that are still in a store, in the order of the IDs.
+     */
+    private static <T> List<T> findAll(int[] ids, InventoryStore<T> store) {
+        List<T> found = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            T item = store.findById(id);
+            if (item != null) {
+                found.add(item);
+            }
+        }
+        return found;
+    }
+    /**
+     * Starts a query over the parts, such as the in-house parts made on machine 7 that are below their minimum,
+     * cheapest first.
+     * @return a query matching every part until criteria are added.
+     */
+    public static PartQuery queryParts() {
+        return new PartQuery();
+    }
+    /**
+     * Starts a query over the products.
+     * @return a query matching every product until criteria are added.
+     */
+    public static ProductQuery queryProducts() {
+        return new ProductQuery();
+    }
+    /**
+     * Gets the running totals of the parts: count, total stock, stock value and how many are below their minimum.
+     * Kept up to date on every change, so reading them costs the same however many parts there are.
+     * @return the parts' totals.
+     */
+    public static InventoryTotals getPartTotals() {
+        return partTotals.totals();
+    }
+    /**
+     * Gets the running totals of the products, like getPartTotals.
+     * @return the products' totals.
+     */
+    public static InventoryTotals getProductTotals() {
+        return productTotals.totals();
+    }
+    /**
+     * Gets the running totals of the parts and products together.
+     * @return the combined totals.
+     */
+    public static InventoryTotals getTotals() {
+        return partTotals.totals().plus(productTotals.totals());
+    }
+    /**
+     * Removes a product from parts list, in constant time through the ID index. Assemblies built from the product
+     * keep it; use deleteUnusedProduct to refuse that.
+     */
+    public static boolean deleteProduct(Product selectedProduct) {
+        lock.lock();
+        try {
+            if (productStore.remove(selectedProduct)) {
+                productSearch.remove(selectedProduct);
+                partUsage.remove(selectedProduct);
+                componentUsage.remove(selectedProduct);
+                if (productStore.findById(selectedProduct.getId()) == null) {
+                    productTotals.remove(selectedProduct.getId());
+                    productPrices.remove(selectedProduct.getId());
+                    productStocks.remove(selectedProduct.getId());
+                }
+                for (InventoryListener listener : listeners) {
+                    listener.productRemoved(selectedProduct);
+                }
+                return true;
+            } else {
+                return false;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Part when its ID changes, so a part already in inventory is re-keyed in the indexes.
+     * @param part the changed part.
+     * @param oldId the ID before the change.
+     */
+    static void partIdChanged(Part part, int oldId) {
+        lock.lock();
+        try {
+            // Products may hold a part that is no longer in inventory, so their usage follows the ID either way.
+            partUsage.partIdChanged(oldId);
+            if (partStore.rekey(part, oldId)) {
+                partSearch.update(part);
+                vendors.remove(oldId);
+                vendors.update(part);
+                machines.remove(oldId);
+                machines.update(part);
+                partTotals.remove(oldId);
+                partPrices.remove(oldId);
+                partStocks.remove(oldId);
+                partTotals.update(part);
+                partPrices.update(part);
+                partStocks.update(part);
+                reservePartId(part.getId());
+                for (InventoryListener listener : listeners) {
+                    listener.partIdChanged(part, oldId);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Part when its name changes, so a part already in inventory is re-indexed for search.
+     * @param part the changed part.
+     */
+    static void partNameChanged(Part part) {
+        lock.lock();
+        try {
+            if (partStore.contains(part)) {
+                partSearch.update(part);
+                for (InventoryListener listener : listeners) {
+                    listener.partUpdated(part, part);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Outsourced when its company name changes, so a part already in inventory is moved in the vendor
+     * index.
+     * @param part the changed part.
+     */
+    static void partVendorChanged(Part part) {
+        lock.lock();
+        try {
+            if (partStore.contains(part)) {
+                vendors.update(part);
+                for (InventoryListener listener : listeners) {
+                    listener.partUpdated(part, part);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Part and its subclasses when any other field changes, so the machine index, the running totals and
+     * listeners hear about changes made to a part already in inventory.
+     * @param part the changed part.
+     */
+    static void partChanged(Part part) {
+        lock.lock();
+        try {
+            if (partStore.contains(part)) {
+                machines.update(part);
+                partTotals.update(part);
+                partPrices.update(part);
+                partStocks.update(part);
+                for (InventoryListener listener : listeners) {
+                    listener.partUpdated(part, part);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Product when its ID changes, so a product already in inventory is re-keyed in the indexes.
+     * @param product the changed product.
+     * @param oldId the ID before the change.
+     */
+    static void productIdChanged(Product product, int oldId) {
+        lock.lock();
+        try {
+            // Assemblies may hold a product that is no longer in inventory, so their index follows the ID either way.
+            componentUsage.partIdChanged(oldId);
+            if (productStore.rekey(product, oldId)) {
+                productSearch.update(product);
+                productTotals.remove(oldId);
+                productPrices.remove(oldId);
+                productStocks.remove(oldId);
+                productTotals.update(product);
+                productPrices.update(product);
+                productStocks.update(product);
+                reserveProductId(product.getId());
+                for (InventoryListener listener : listeners) {
+                    listener.productIdChanged(product, oldId);
+                }
+            }
+        } finally {
+            lock.unlock();
         }
     }
     /**
-     * Displays a list of all parts
+     * Called by Product when its name changes, so a product already in inventory is re-indexed for search.
+     * @param product the changed product.
+     */
+    static void productNameChanged(Product product) {
+        lock.lock();
+        try {
+            if (productStore.contains(product)) {
+                productSearch.update(product);
+                for (InventoryListener listener : listeners) {
+                    listener.productUpdated(product, product);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Part and its subclasses when the stock changes; like partChanged, but listeners also hear the stock
+     * it had.
+     * @param part the changed part.
+     * @param oldStock the stock before the change.
+     */
+    static void partStockChanged(Part part, int oldStock) {
+        lock.lock();
+        try {
+            if (partStore.contains(part)) {
+                machines.update(part);
+                partTotals.update(part);
+                partPrices.update(part);
+                partStocks.update(part);
+                for (InventoryListener listener : listeners) {
+                    listener.partStockChanged(part, oldStock);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Product when its stock changes; like productChanged, but listeners also hear the stock it had.
+     * @param product the changed product.
+     * @param oldStock the stock before the change.
+     */
+    static void productStockChanged(Product product, int oldStock) {
+        lock.lock();
+        try {
+            if (productStore.contains(product)) {
+                productTotals.update(product);
+                productPrices.update(product);
+                productStocks.update(product);
+                for (InventoryListener listener : listeners) {
+                    listener.productStockChanged(product, oldStock);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Product when its associated parts or components change, so a product already in inventory is
+     * re-indexed in the part and component usage indexes.
+     * @param product the changed product.
+     */
+    static void productPartsChanged(Product product) {
+        lock.lock();
+        try {
+            if (productStore.contains(product)) {
+                partUsage.update(product);
+                componentUsage.update(product);
+                for (InventoryListener listener : listeners) {
+                    listener.productPartsChanged(product);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Called by Product when any other field changes, so the running totals and listeners hear about changes made
+     * to a product already in inventory.
+     * @param product the changed product.
+     */
+    static void productChanged(Product product) {
+        lock.lock();
+        try {
+            if (productStore.contains(product)) {
+                productTotals.update(product);
+                productPrices.update(product);
+                productStocks.update(product);
+                for (InventoryListener listener : listeners) {
+                    listener.productUpdated(product, product);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Commits a batch: checks it, then applies it under the lock while the screens' list views hold back their
+     * change events, so each view reports the batch as one change.
+     * @param batch the batch to commit.
+     */
+    static void commit(InventoryBatch batch) {
+        lock.lock();
+        try {
+            batch.validate();
+            ObservableStoreList<Part> partsView = allParts;
+            ObservableStoreList<Product> productsView = allProducts;
+            if (partsView != null) {
+                partsView.suspend();
+            }
+            if (productsView != null) {
+                productsView.suspend();
+            }
+            try {
+                batch.apply();
+            } finally {
+                if (partsView != null) {
+                    partsView.resume();
+                }
+                if (productsView != null) {
+                    productsView.resume();
+                }
+            }
+            for (InventoryListener listener : listeners) {
+                listener.batchCommitted(batch);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Registers a listener for every change to the parts and products.
+     * @param listener the listener.
+     */
+    public static void addListener(InventoryListener listener) {
+        listeners.add(listener);
+    }
+    /**
+     * Unregisters a listener.
+     * @param listener the listener.
+     */
+    public static void removeListener(InventoryListener listener) {
+        listeners.remove(listener);
+    }
+    /**
+     * Displays a list of all parts. The list is a read-only view of the part store that follows its changes;
+     * it is only created once a screen asks for it, so a headless inventory never fires JavaFX list events.
      */
     public static ObservableList<Part> getAllParts() {
-        return allParts;
+        lock.lock();
+        try {
+            if (allParts == null) {
+                allParts = ObservableStoreList.of(partStore);
+            }
+            return allParts;
+        } finally {
+            lock.unlock();
+        }
     }
     /**
-     * Displays a list of all products
+     * Displays a list of all products, as a read-only view of the product store.
      */
     public static ObservableList<Product> getAllProducts() {
-        return allProducts;
+        lock.lock();
+        try {
+            if (allProducts == null) {
+                allProducts = ObservableStoreList.of(productStore);
+            }
+            return allProducts;
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Gets the storage engine holding the parts, for callers that do not use JavaFX.
+     * @return the part store.
+     */
+    public static InventoryStore<Part> getPartStore() {
+        return partStore;
+    }
+    /**
+     * Gets the storage engine holding the products, for callers that do not use JavaFX.
+     * @return the product store.
+     */
+    public static InventoryStore<Product> getProductStore() {
+        return productStore;
+    }
+    /**
+     * Replaces the storage engines. Must be called while the inventory is empty and before any screen has asked
+     * for the observable lists.
+     * @param parts the new part store.
+     * @param products the new product store.
+     */
+    public static void setStores(InventoryStore<Part> parts, InventoryStore<Product> products) {
+        lock.lock();
+        try {
+            if (allParts != null || allProducts != null || partStore.size() > 0 || productStore.size() > 0) {
+                throw new IllegalStateException(
+                        "Stores can only be replaced while the inventory is empty and unobserved.");
+            }
+            partStore = parts;
+            productStore = products;
+            // An index over a store of views would hold a view per item, so such stores are searched by scanning.
+            partSearch.setEnabled(!parts.storesByValue());
+            productSearch.setEnabled(!products.storesByValue());
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Installs the stores chosen by system properties, before inventory is loaded. With inventory.offHeapParts set
+     * to true, parts are kept in an OffHeapPartStore; otherwise the default stores are kept.
+     */
+    public static void configureStores() {
+        if (Boolean.getBoolean("inventory.offHeapParts")) {
+            setStores(new OffHeapPartStore(), new ConcurrentStore<>(Product::getId));
+        }
+    }
+    /**
+     * Removes every part and product and restarts the ID sequences.
+     */
+    public static void clear() {
+        lock.lock();
+        try {
+            partStore.clear();
+            productStore.clear();
+            partSearch.clear();
+            productSearch.clear();
+            partUsage.clear();
+            componentUsage.clear();
+            vendors.clear();
+            machines.clear();
+            partTotals.clear();
+            partPrices.clear();
+            partStocks.clear();
+            productTotals.clear();
+            productPrices.clear();
+            productStocks.clear();
+            partId.set(0);
+            prodID.set(0);
+            for (InventoryListener listener : listeners) {
+                listener.cleared();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Holds off every change to the inventory until unlockChanges, for callers reading the whole inventory at one
+     * moment. Changes made by the caller itself still go through.
+     */
+    static void lockChanges() {
+        lock.lock();
+    }
+    /**
+     * Lets changes through again after lockChanges.
+     */
+    static void unlockChanges() {
+        lock.unlock();
+    }
+    /**
+     * Moves the part ID sequence past an ID that is already in use, so loaded parts never get their ID reused.
+     */
+    private static void reservePartId(int id) {
+        partId.accumulateAndGet(id, Math::max);
+    }
+    /**
+     * Moves the product ID sequence past an ID that is already in use.
+     */
+    private static void reserveProductId(int id) {
+        prodID.accumulateAndGet(id, Math::max);
+    }
+    /**
+     * Gets the last part ID handed out or used.
+     * @return the current value of the part ID sequence.
+     */
+    static int getPartIdSequence() {
+        return partId.get();
+    }
+    /**
+     * Gets the last product ID handed out or used.
+     * @return the current value of the product ID sequence.
+     */
+    static int getProductIdSequence() {
+        return prodID.get();
+    }
+    /**
+     * Moves the ID sequences forward to saved values, so IDs handed out before a restart are not handed out again.
+     * @param lastPartId the saved part ID sequence.
+     * @param lastProductId the saved product ID sequence.
+     */
+    static void restoreIdSequences(int lastPartId, int lastProductId) {
+        reservePartId(lastPartId);
+        reserveProductId(lastProductId);
     }
-    private static int partId = 0;
-    private static int prodID = 0;
-    public static int lookupPart() { return ++partId;}
-    public static int lookupProduct() { return ++prodID;
+    private static final AtomicInteger partId = new AtomicInteger();
+    private static final AtomicInteger prodID = new AtomicInteger();
+    public static int lookupPart() { return partId.incrementAndGet();}
+    public static int lookupProduct() { return prodID.incrementAndGet();
     }
 }
\ No newline at end of file
@@ -0,0 +1,314 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supplied class InventoryBatch.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryBatch Class. Collects adds, updates and deletes of parts and products and commits them to Inventory
+ * together, so a mass repricing of 100,000 parts refreshes the screens' tables once instead of 100,000 times.
+ * <p>Commit takes Inventory's lock for the whole batch, so no other change is made in between; lookups, which never
+ * wait for the lock, may see a batch half applied. Before anything is changed, every added or updated item is
+ * checked for min &lt;= stock &lt;= max, every update and delete for a target with its ID, and every add for a free
+ * ID, taking the earlier changes of the batch into account; if any check fails, nothing is changed. Should a change
+ * still fail while the batch is applied, the changes made before it are undone in reverse order; a deleted item is
+ * then added back at the end of the list.</p>
+ * <p>The screens' list views report the whole batch as one change when it is committed. Inventory listeners hear
+ * each change as it is made, so indexes and the journal stay exact, and then batchCommitted once. A batch is
+ * filled by one thread and committed once.</p>
+ */
+public class InventoryBatch {
+    /**
+     * Most check failures listed in the message of a rejected batch.
+     */
+    private static final int REPORTED_ERRORS = 10;
+    /**
+     * The changes, in the order they were made.
+     */
+    private final List<Change> changes = new ArrayList<>();
+    /**
+     * Whether the batch was committed.
+     */
+    private boolean committed;
+
+    /**
+     * Adds a part when the batch is committed.
+     * @param part the new part.
+     * @return this batch.
+     */
+    public InventoryBatch addPart(Part part) {
+        return queue(new Change(Kind.ADD_PART, part.getId(), part));
+    }
+    /**
+     * Replaces the part with the same ID when the batch is committed.
+     * @param part the replacement.
+     * @return this batch.
+     */
+    public InventoryBatch updatePart(Part part) {
+        return queue(new Change(Kind.UPDATE_PART, part.getId(), part));
+    }
+    /**
+     * Deletes a part when the batch is committed.
+     * @param partId the ID of the part.
+     * @return this batch.
+     */
+    public InventoryBatch deletePart(int partId) {
+        return queue(new Change(Kind.DELETE_PART, partId, null));
+    }
+    /**
+     * Adds a product when the batch is committed.
+     * @param product the new product.
+     * @return this batch.
+     */
+    public InventoryBatch addProduct(Product product) {
+        return queue(new Change(Kind.ADD_PRODUCT, product.getId(), product));
+    }
+    /**
+     * Replaces the product with the same ID when the batch is committed.
+     * @param product the replacement.
+     * @return this batch.
+     */
+    public InventoryBatch updateProduct(Product product) {
+        return queue(new Change(Kind.UPDATE_PRODUCT, product.getId(), product));
+    }
+    /**
+     * Deletes a product when the batch is committed.
+     * @param productId the ID of the product.
+     * @return this batch.
+     */
+    public InventoryBatch deleteProduct(int productId) {
+        return queue(new Change(Kind.DELETE_PRODUCT, productId, null));
+    }
+    /**
+     * Number of changes in the batch.
+     * @return the number of adds, updates and deletes.
+     */
+    public int size() {
+        return changes.size();
+    }
+    /**
+     * Checks and applies every change, as one.
+     * @throws IllegalArgumentException if a change fails its checks; nothing was changed.
+     * @throws IllegalStateException if the batch was already committed.
+     * @throws RuntimeException whatever made a change fail while the batch was applied, after the changes made
+     * before it were undone.
+     */
+    public void commit() {
+        if (committed) {
+            throw new IllegalStateException("The batch was already committed.");
+        }
+        committed = true;
+        Inventory.commit(this);
+    }
+    /**
+     * Checks every change against inventory and the changes before it. Called under Inventory's lock.
+     * @throws IllegalArgumentException listing the failed checks.
+     */
+    void validate() {
+        // Whether each ID touched by the batch is in inventory after the changes checked so far.
+        Map<Integer, Boolean> parts = new HashMap<>();
+        Map<Integer, Boolean> products = new HashMap<>();
+        List<String> errors = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            Change change = changes.get(i);
+            boolean part = change.kind.ordinal() <= Kind.DELETE_PART.ordinal();
+            Map<Integer, Boolean> present = part ? parts : products;
+            boolean exists = present.computeIfAbsent(change.id,
+                    id -> part ? Inventory.lookupPart(id) != null : Inventory.lookupProduct(id) != null);
+            String item = (part ? "Part " : "Product ") + change.id;
+            switch (change.kind) {
+                case ADD_PART:
+                case ADD_PRODUCT:
+                    if (exists) {
+                        errors.add("change " + i + ": " + item + " already exists");
+                    }
+                    present.put(change.id, true);
+                    break;
+                default:
+                    if (!exists) {
+                        errors.add("change " + i + ": " + item + " not found");
+                    }
+                    if (change.kind == Kind.DELETE_PART || change.kind == Kind.DELETE_PRODUCT) {
+                        present.put(change.id, false);
+                    }
+            }
+            if (change.item != null) {
+                int stock = part ? ((Part) change.item).getStock() : ((Product) change.item).getStock();
+                int min = part ? ((Part) change.item).getMin() : ((Product) change.item).getMin();
+                int max = part ? ((Part) change.item).getMax() : ((Product) change.item).getMax();
+                if (min > stock || stock > max) {
+                    errors.add("change " + i + ": " + item + " has stock " + stock + " outside " + min + " to " + max);
+                }
+            }
+        }
+        if (!errors.isEmpty()) {
+            StringBuilder message = new StringBuilder("Batch rejected, ").append(errors.size()).append(" error")
+                    .append(errors.size() == 1 ? "" : "s").append(": ");
+            for (int i = 0; i < Math.min(errors.size(), REPORTED_ERRORS); i++) {
+                message.append(i == 0 ? "" : "; ").append(errors.get(i));
+            }
+            if (errors.size() > REPORTED_ERRORS) {
+                message.append("; ...");
+            }
+            throw new IllegalArgumentException(message.toString());
+        }
+    }
+    /**
+     * Applies every change, undoing the ones made if a change fails. Called under Inventory's lock after validate.
+     */
+    void apply() {
+        List<Runnable> undo = new ArrayList<>(changes.size());
+        try {
+            for (Change change : changes) {
+                // Taken first, since a change that fails may already have been made in part.
+                undo.add(undo(change));
+                apply(change);
+            }
+        } catch (RuntimeException e) {
+            for (int i = undo.size() - 1; i >= 0; i--) {
+                try {
+                    undo.get(i).run();
+                } catch (RuntimeException suppressed) {
+                    e.addSuppressed(suppressed);
+                }
+            }
+            throw e;
+        }
+    }
+    /**
+     * Applies one change.
+     */
+    private static void apply(Change change) {
+        switch (change.kind) {
+            case ADD_PART:
+                Inventory.addPart((Part) change.item);
+                break;
+            case UPDATE_PART:
+                Inventory.updatePart((Part) change.item);
+                break;
+            case DELETE_PART:
+                Inventory.deletePart(Inventory.lookupPart(change.id));
+                break;
+            case ADD_PRODUCT:
+                Inventory.addProduct((Product) change.item);
+                break;
+            case UPDATE_PRODUCT:
+                Inventory.updateProduct((Product) change.item);
+                break;
+            default:
+                Inventory.deleteProduct(Inventory.lookupProduct(change.id));
+        }
+    }
+    /**
+     * Gets the change that restores inventory as it is before a change, whether the change was made in full or in
+     * part.
+     */
+    private static Runnable undo(Change change) {
+        switch (change.kind) {
+            case ADD_PART:
+                return () -> {
+                    Part added = Inventory.lookupPart(change.id);
+                    if (added != null) {
+                        Inventory.deletePart(added);
+                    }
+                };
+            case UPDATE_PART: {
+                Part old = detach(Inventory.lookupPart(change.id));
+                return () -> Inventory.updatePart(old);
+            }
+            case DELETE_PART: {
+                Part old = detach(Inventory.lookupPart(change.id));
+                return () -> {
+                    if (Inventory.lookupPart(change.id) == null) {
+                        Inventory.addPart(old);
+                    }
+                };
+            }
+            case ADD_PRODUCT:
+                return () -> {
+                    Product added = Inventory.lookupProduct(change.id);
+                    if (added != null) {
+                        Inventory.deleteProduct(added);
+                    }
+                };
+            case UPDATE_PRODUCT: {
+                Product old = Inventory.lookupProduct(change.id);
+                return () -> Inventory.updateProduct(old);
+            }
+            default: {
+                Product old = Inventory.lookupProduct(change.id);
+                return () -> {
+                    if (Inventory.lookupProduct(change.id) == null) {
+                        Inventory.addProduct(old);
+                    }
+                };
+            }
+        }
+    }
+    /**
+     * Copies a part out of a store that keeps parts by value, whose part objects are views that later changes
+     * rewrite; parts of other stores are returned as they are.
+     */
+    private static Part detach(Part part) {
+        if (!Inventory.getPartStore().storesByValue()) {
+            return part;
+        }
+        if (part instanceof InHouse) {
+            return new InHouse(part.getId(), part.getName(), part.getPrice(), part.getStock(), part.getMin(),
+                    part.getMax(), ((InHouse) part).getMachineId());
+        }
+        return new Outsourced(part.getId(), part.getName(), part.getPrice(), part.getStock(), part.getMin(),
+                part.getMax(), ((Outsourced) part).getCompanyName());
+    }
+    /**
+     * Adds a change, unless the batch was committed.
+     */
+    private InventoryBatch queue(Change change) {
+        if (committed) {
+            throw new IllegalStateException("The batch was already committed.");
+        }
+        changes.add(change);
+        return this;
+    }
+
+    /**
+     * The kinds of change, parts first.
+     */
+    private enum Kind {
+        ADD_PART, UPDATE_PART, DELETE_PART, ADD_PRODUCT, UPDATE_PRODUCT, DELETE_PRODUCT
+    }
+
+    /**
+     * One change of the batch.
+     */
+    private static final class Change {
+        /**
+         * What the change does.
+         */
+        final Kind kind;
+        /**
+         * ID of the item changed.
+         */
+        final int id;
+        /**
+         * The new part or product, null for a delete.
+         */
+        final Object item;
+
+        /**
+         * Creates a change.
+         */
+        Change(Kind kind, int id, Object item) {
+            this.kind = kind;
+            this.id = id;
+            this.item = item;
+        }
+    }
+}
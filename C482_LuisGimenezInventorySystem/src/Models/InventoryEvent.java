@@ -0,0 +1,139 @@
+package Models;
+
+/**
+ * Supplied class InventoryEvent.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryEvent Class. One change to Inventory as delivered by a ChangeFeed: what happened, to which part or
+ * product, and the ID and stock before and after where they apply.
+ * <p>Events are slots of the feed's ring buffer, written again once every subscriber has moved a ring's length
+ * past them, so a handler must copy what it keeps instead of keeping the event.</p>
+ */
+public class InventoryEvent {
+    /**
+     * The kinds of change.
+     */
+    public enum Type {
+        PART_CREATED, PART_UPDATED, PART_STOCK_CHANGED, PART_DELETED,
+        PRODUCT_CREATED, PRODUCT_UPDATED, PRODUCT_STOCK_CHANGED, PRODUCT_DELETED,
+        /**
+         * The associated parts or components of a product changed.
+         */
+        ASSOCIATION_CHANGED,
+        /**
+         * Every part and product was removed.
+         */
+        CLEARED
+    }
+
+    /**
+     * Position of the event in the feed, counted from 0.
+     */
+    long sequence;
+    /**
+     * What happened.
+     */
+    Type type;
+    /**
+     * ID of the part or product after the change.
+     */
+    int id;
+    /**
+     * ID of the part or product before the change.
+     */
+    int oldId;
+    /**
+     * Stock before the change.
+     */
+    int oldStock;
+    /**
+     * Stock after the change.
+     */
+    int stock;
+    /**
+     * The part, for part events.
+     */
+    Part part;
+    /**
+     * The product, for product and association events.
+     */
+    Product product;
+
+    /**
+     * Fills the slot with a new event.
+     */
+    void set(long sequence, Type type, int id, int oldId, int oldStock, int stock, Part part, Product product) {
+        this.sequence = sequence;
+        this.type = type;
+        this.id = id;
+        this.oldId = oldId;
+        this.oldStock = oldStock;
+        this.stock = stock;
+        this.part = part;
+        this.product = product;
+    }
+    /**
+     * Gets the position of the event in the feed.
+     * @return the sequence number, counted from 0.
+     */
+    public long getSequence() {
+        return sequence;
+    }
+    /**
+     * Gets what happened.
+     * @return the type of change.
+     */
+    public Type getType() {
+        return type;
+    }
+    /**
+     * Gets the ID of the changed part or product.
+     * @return the ID after the change, 0 for CLEARED.
+     */
+    public int getId() {
+        return id;
+    }
+    /**
+     * Gets the ID the changed part or product had.
+     * @return the ID before the change, the same as getId unless the ID changed.
+     */
+    public int getOldId() {
+        return oldId;
+    }
+    /**
+     * Gets the stock the part or product had.
+     * @return the stock before the change; for other events than stock changes, the stock after it.
+     */
+    public int getOldStock() {
+        return oldStock;
+    }
+    /**
+     * Gets the stock of the part or product.
+     * @return the stock after the change.
+     */
+    public int getStock() {
+        return stock;
+    }
+    /**
+     * Gets the changed part.
+     * @return the part, null for product events.
+     */
+    public Part getPart() {
+        return part;
+    }
+    /**
+     * Gets the changed product.
+     * @return the product, null for part events.
+     */
+    public Product getProduct() {
+        return product;
+    }
+    @Override
+    public String toString() {
+        return sequence + " " + type + " " + (oldId != id ? oldId + " -> " : "") + id
+                + (oldStock != stock ? " stock " + oldStock + " -> " + stock : "");
+    }
+}
@@ -0,0 +1,22 @@
+package Models;
+
+/**
+ * Supplied class InventoryEventHandler.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryEventHandler Interface. Receives the events of a ChangeFeed subscription, in order, on the
+ * subscription's own thread.
+ */
+public interface InventoryEventHandler {
+    /**
+     * Handles an event. The event is a ring buffer slot that is written again later, so anything kept from it must
+     * be copied.
+     * @param event the event.
+     * @param endOfBatch true for the last event available when it was read, a good time to flush work done for the
+     * events before it.
+     */
+    void onEvent(InventoryEvent event, boolean endOfBatch);
+}
@@ -0,0 +1,770 @@
+package Models;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Supplied class InventoryJournal.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryJournal Class. Keeps Inventory on disk between runs.
+ * <p>Every change to a part or product is appended as a record to a memory-mapped journal file, so a change is in
+ * the operating system's page cache as soon as it is made and survives the application being closed or killed.
+ * Once the journal grows past its compaction size, the whole inventory is written to an InventorySnapshot and a new,
+ * empty journal is started. Opening the journal loads the snapshot, replays the journal on top of it and moves the
+ * ID sequences past every ID handed out before, so a restart with millions of parts only reads each part once or
+ * twice.</p>
+ * <p>Files in the directory: {@code snapshot.bin} holding the inventory at the last compaction, or a stream of
+ * records in files written before InventorySnapshot, and {@code journal-<generation>.bin} holding the changes made
+ * since. Each record is framed by its length and a CRC32 checksum; a record torn by a crash fails its checksum and
+ * ends the replay. {@link #sync()} forces the journal to the storage device for protection against power loss.</p>
+ */
+public class InventoryJournal implements InventoryListener, Closeable {
+    /**
+     * Journal size, in bytes, after which the inventory is compacted into a new snapshot unless another size is given.
+     */
+    public static final long DEFAULT_COMPACT_BYTES = 64L << 20;
+    /**
+     * Marks the start of a snapshot file.
+     */
+    private static final int SNAPSHOT_MAGIC = 0x494E5653;
+    /**
+     * Marks the start of a journal file.
+     */
+    private static final int JOURNAL_MAGIC = 0x494E564A;
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the journal file header: magic, version and generation.
+     */
+    private static final int JOURNAL_HEADER = 16;
+    /**
+     * Size of the part of the journal file mapped at once.
+     */
+    private static final int MAP_WINDOW = 16 << 20;
+    /**
+     * Number of snapshot records handed to Inventory at once while loading.
+     */
+    private static final int LOAD_BATCH = 10_000;
+    /**
+     * Record types.
+     */
+    private static final byte PART_PUT = 1, PART_DELETE = 2, PRODUCT_PUT = 3, PRODUCT_DELETE = 4, CLEAR = 5;
+    /**
+     * Part kinds within a PART_PUT record.
+     */
+    private static final byte IN_HOUSE = 0, OUTSOURCED = 1;
+    /**
+     * Directory holding the snapshot and journal files.
+     */
+    private final Path directory;
+    /**
+     * Journal size after which the inventory is compacted.
+     */
+    private final long compactBytes;
+    /**
+     * True if neither a snapshot nor a journal existed when the journal was opened.
+     */
+    private final boolean created;
+    /**
+     * Generation of the current snapshot, and of the journal that follows it.
+     */
+    private long generation;
+    /**
+     * Channel of the current journal file.
+     */
+    private FileChannel channel;
+    /**
+     * Mapped window of the journal file that records are appended to.
+     */
+    private MappedByteBuffer window;
+    /**
+     * Position in the journal file that the window starts at.
+     */
+    private long windowStart;
+    /**
+     * Position in the journal file where the next record goes.
+     */
+    private long position;
+    /**
+     * Body of the record being written.
+     */
+    private ByteBuffer body = ByteBuffer.allocate(4096);
+    /**
+     * Checksum of record bodies.
+     */
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Creates the journal for a directory. Use open to load the inventory.
+     */
+    private InventoryJournal(Path directory, long compactBytes, boolean created) {
+        this.directory = directory;
+        this.compactBytes = compactBytes;
+        this.created = created;
+    }
+    /**
+     * Gets the directory the application keeps its inventory in: the one named by the inventory.dir system
+     * property, by default .inventory in the user's home directory.
+     * @return the directory.
+     */
+    public static Path defaultDirectory() {
+        String dir = System.getProperty("inventory.dir");
+        return dir != null ? Paths.get(dir) : Paths.get(System.getProperty("user.home"), ".inventory");
+    }
+    /**
+     * Loads the inventory kept in a directory and starts journaling every change made to it.
+     * @param directory the directory, created if missing.
+     * @return the open journal.
+     * @throws IOException if the files cannot be read or written.
+     */
+    public static InventoryJournal open(Path directory) throws IOException {
+        return open(directory, DEFAULT_COMPACT_BYTES);
+    }
+    /**
+     * Loads the inventory kept in a directory and starts journaling every change made to it.
+     * @param directory the directory, created if missing.
+     * @param compactBytes journal size after which the inventory is compacted into a new snapshot.
+     * @return the open journal.
+     * @throws IOException if the files cannot be read or written.
+     * @throws IllegalStateException if the inventory is not empty.
+     */
+    public static InventoryJournal open(Path directory, long compactBytes) throws IOException {
+        if (compactBytes < 1 || compactBytes > Integer.MAX_VALUE / 2) {
+            throw new IllegalArgumentException("Compaction size must be between 1 byte and 1 GB.");
+        }
+        if (Inventory.getPartStore().size() > 0 || Inventory.getProductStore().size() > 0) {
+            throw new IllegalStateException("The journal can only be opened while the inventory is empty.");
+        }
+        Files.createDirectories(directory);
+        Path snapshot = directory.resolve("snapshot.bin");
+        long generation = 0;
+        boolean created = true;
+        if (Files.exists(snapshot)) {
+            generation = loadSnapshot(snapshot);
+            created = false;
+        }
+        InventoryJournal journal = new InventoryJournal(directory, compactBytes, created && !Files.exists(
+                directory.resolve(journalName(generation))));
+        journal.generation = generation;
+        journal.openJournal(true);
+        journal.deleteOldJournals();
+        Inventory.addListener(journal);
+        return journal;
+    }
+    /**
+     * Tells if the directory held no inventory when the journal was opened.
+     * @return true for a new directory.
+     */
+    public boolean isNew() {
+        return created;
+    }
+    /**
+     * Writes the whole inventory to a new snapshot and starts an empty journal. Changes to the inventory wait until
+     * it is done, so the snapshot's parts and products are read at the same moment.
+     * @throws IOException if the files cannot be written.
+     */
+    public void compact() throws IOException {
+        // Inventory's lock comes first, as writers hold it when they append to the journal.
+        Inventory.lockChanges();
+        try {
+            synchronized (this) {
+                long next = generation + 1;
+                Path temp = directory.resolve("snapshot.tmp");
+                InventorySnapshot.write(temp, next);
+                Files.move(temp, directory.resolve("snapshot.bin"), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+                closeChannel();
+                generation = next;
+                openJournal(false);
+                deleteOldJournals();
+            }
+        } finally {
+            Inventory.unlockChanges();
+        }
+    }
+    /**
+     * Forces the journal to the storage device.
+     */
+    public synchronized void sync() {
+        if (window != null) {
+            window.force();
+        }
+    }
+    /**
+     * Forces the journal to the storage device and stops journaling changes.
+     * @throws IOException if the journal cannot be closed.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        Inventory.removeListener(this);
+        if (channel != null) {
+            sync();
+            closeChannel();
+        }
+    }
+
+    @Override
+    public void partAdded(Part part) {
+        if (encodePart(part)) {
+            append();
+        }
+    }
+
+    @Override
+    public void partUpdated(Part old, Part part) {
+        if (old != part && old.getId() != part.getId()) {
+            encodeDelete(PART_DELETE, old.getId());
+            append();
+        }
+        partAdded(part);
+    }
+
+    @Override
+    public void partIdChanged(Part part, int oldId) {
+        encodeDelete(PART_DELETE, oldId);
+        append();
+        partAdded(part);
+    }
+
+    @Override
+    public void partRemoved(Part part) {
+        encodeDelete(PART_DELETE, part.getId());
+        append();
+    }
+
+    @Override
+    public void productAdded(Product product) {
+        encodeProduct(product);
+        append();
+    }
+
+    @Override
+    public void productUpdated(Product old, Product product) {
+        if (old != product && old.getId() != product.getId()) {
+            encodeDelete(PRODUCT_DELETE, old.getId());
+            append();
+        }
+        productAdded(product);
+    }
+
+    @Override
+    public void productIdChanged(Product product, int oldId) {
+        encodeDelete(PRODUCT_DELETE, oldId);
+        append();
+        productAdded(product);
+    }
+
+    @Override
+    public void productRemoved(Product product) {
+        encodeDelete(PRODUCT_DELETE, product.getId());
+        append();
+    }
+
+    @Override
+    public void cleared() {
+        body.clear();
+        body.put(CLEAR);
+        append();
+    }
+    /**
+     * Appends the encoded record body to the journal, compacting once the journal is large enough.
+     */
+    private synchronized void append() {
+        try {
+            int length = body.position();
+            if (window == null || window.remaining() < length + 8) {
+                windowStart = position;
+                window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, Math.max(MAP_WINDOW, length + 12));
+            }
+            crc.reset();
+            crc.update(body.array(), 0, length);
+            window.putInt(length).putInt((int) crc.getValue()).put(body.array(), 0, length);
+            position += length + 8;
+            if (position - JOURNAL_HEADER >= compactBytes) {
+                compact();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Inventory journal could not be written.", e);
+        }
+    }
+    /**
+     * Opens the journal file of the current generation, replaying its records first when asked to.
+     * @param replay true to replay the records already in the file.
+     */
+    private void openJournal(boolean replay) throws IOException {
+        Path file = directory.resolve(journalName(generation));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        position = 0;
+        if (replay && channel.size() >= JOURNAL_HEADER) {
+            RecordReader reader = new RecordReader(channel);
+            ByteBuffer header = reader.read(JOURNAL_HEADER);
+            if (header.getInt() != JOURNAL_MAGIC || header.getInt() != VERSION || header.getLong() != generation) {
+                throw new IOException(file + " is not an inventory journal of generation " + generation);
+            }
+            for (ByteBuffer record = reader.next(); record != null; record = reader.next()) {
+                apply(record);
+            }
+            position = reader.offset();
+        }
+        if (position == 0) {
+            channel.truncate(0);
+            ByteBuffer header = ByteBuffer.allocate(JOURNAL_HEADER);
+            header.putInt(JOURNAL_MAGIC).putInt(VERSION).putLong(generation).flip();
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            position = JOURNAL_HEADER;
+        } else {
+            // Drop a record torn by a crash, so the bytes after the last good record read as the end.
+            channel.truncate(position);
+        }
+        windowStart = position;
+        window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, MAP_WINDOW);
+    }
+    /**
+     * Closes the current journal file. The mapped window is released by the garbage collector.
+     */
+    private void closeChannel() throws IOException {
+        window = null;
+        channel.close();
+        channel = null;
+    }
+    /**
+     * Deletes journal files of earlier generations, left behind by a compaction.
+     */
+    private void deleteOldJournals() {
+        String current = journalName(generation);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "journal-*.bin")) {
+            for (Path file : files) {
+                if (!file.getFileName().toString().equals(current)) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException e) {
+                        // Still mapped on some platforms; deleted after the next compaction or restart.
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // Old journals are skipped when loading, so leaving them only costs disk space.
+        }
+    }
+    /**
+     * Name of the journal file following the snapshot of a generation.
+     */
+    private static String journalName(long generation) {
+        return "journal-" + generation + ".bin";
+    }
+    /**
+     * Loads a snapshot into Inventory and restores the ID sequences.
+     * @return the generation of the snapshot.
+     */
+    private static long loadSnapshot(Path file) throws IOException {
+        if (InventorySnapshot.isSnapshot(file)) {
+            InventorySnapshot snapshot = InventorySnapshot.open(file);
+            snapshot.load();
+            return snapshot.getGeneration();
+        }
+        // Snapshots written before InventorySnapshot are a stream of journal records.
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            RecordReader reader = new RecordReader(in);
+            ByteBuffer header = reader.read(24);
+            if (header.getInt() != SNAPSHOT_MAGIC || header.getInt() != VERSION) {
+                throw new IOException(file + " is not an inventory snapshot.");
+            }
+            long generation = header.getLong();
+            int lastPartId = header.getInt();
+            int lastProductId = header.getInt();
+            List<Part> parts = new ArrayList<>();
+            List<Product> products = new ArrayList<>();
+            // Components may come later in the snapshot, so they are linked once every product is in inventory.
+            List<Product> assemblies = new ArrayList<>();
+            List<int[]> componentIds = new ArrayList<>();
+            for (ByteBuffer record = reader.next(); record != null; record = reader.next()) {
+                byte type = record.get();
+                if (type == PART_PUT) {
+                    parts.add(decodePart(record));
+                    if (parts.size() == LOAD_BATCH) {
+                        Inventory.addAllParts(parts);
+                        parts.clear();
+                    }
+                } else if (type == PRODUCT_PUT) {
+                    // Parts come first in a snapshot; they must be in inventory before products look them up.
+                    Inventory.addAllParts(parts);
+                    parts.clear();
+                    Product product = decodeProduct(record);
+                    int[] ids = decodeComponents(record);
+                    if (ids.length > 0) {
+                        assemblies.add(product);
+                        componentIds.add(ids);
+                    }
+                    products.add(product);
+                    if (products.size() == LOAD_BATCH) {
+                        Inventory.addAllProducts(products);
+                        products.clear();
+                    }
+                } else {
+                    throw new IOException(file + " holds an unexpected record of type " + type);
+                }
+            }
+            if (!reader.ended()) {
+                throw new IOException(file + " is incomplete or damaged.");
+            }
+            Inventory.addAllParts(parts);
+            Inventory.addAllProducts(products);
+            for (int i = 0; i < assemblies.size(); i++) {
+                linkComponents(assemblies.get(i), componentIds.get(i));
+            }
+            Inventory.restoreIdSequences(lastPartId, lastProductId);
+            return generation;
+        }
+    }
+    /**
+     * Applies a journal record to Inventory.
+     */
+    private static void apply(ByteBuffer record) throws IOException {
+        byte type = record.get();
+        switch (type) {
+            case PART_PUT: {
+                Part part = decodePart(record);
+                Part existing = Inventory.lookupPart(part.getId());
+                if (existing != null && existing.getClass() == part.getClass()) {
+                    copyPart(part, existing);
+                } else if (!Inventory.updatePart(part)) {
+                    Inventory.addPart(part);
+                }
+                break;
+            }
+            case PART_DELETE: {
+                Part part = Inventory.lookupPart(record.getInt());
+                if (part != null) {
+                    Inventory.deletePart(part);
+                }
+                break;
+            }
+            case PRODUCT_PUT: {
+                Product product = decodeProduct(record);
+                linkComponents(product, decodeComponents(record));
+                Product existing = Inventory.lookupProduct(product.getId());
+                if (existing != null) {
+                    copyProduct(product, existing);
+                } else {
+                    Inventory.addProduct(product);
+                }
+                break;
+            }
+            case PRODUCT_DELETE: {
+                Product product = Inventory.lookupProduct(record.getInt());
+                if (product != null) {
+                    Inventory.deleteProduct(product);
+                }
+                break;
+            }
+            case CLEAR:
+                Inventory.clear();
+                break;
+            default:
+                throw new IOException("Inventory journal holds an unknown record of type " + type);
+        }
+    }
+    /**
+     * Copies a replayed part's fields onto the part of the same kind already in inventory, so products holding that
+     * part see the change, as they did when the part was changed through its setters.
+     */
+    private static void copyPart(Part from, Part to) {
+        to.setName(from.getName());
+        to.setPrice(from.getPrice());
+        to.setStock(from.getStock());
+        to.setMin(from.getMin());
+        to.setMax(from.getMax());
+        if (to instanceof InHouse) {
+            ((InHouse) to).setMachineId(((InHouse) from).getMachineId());
+        } else {
+            ((Outsourced) to).setCompanyName(((Outsourced) from).getCompanyName());
+        }
+    }
+    /**
+     * Copies a replayed product's fields, associated parts and components onto the product already in inventory,
+     * so assemblies built from it see the change.
+     */
+    private static void copyProduct(Product from, Product to) {
+        to.setName(from.getName());
+        to.setPrice(from.getPrice());
+        to.setStock(from.getStock());
+        to.setMin(from.getMin());
+        to.setMax(from.getMax());
+        to.setLinks(from.getAssociatedPartList(), from.getComponentList());
+    }
+    /**
+     * Encodes a part as a PART_PUT record body.
+     * @return false for parts that are neither InHouse nor Outsourced, which are not kept.
+     */
+    private boolean encodePart(Part part) {
+        byte kind;
+        if (part instanceof InHouse) {
+            kind = IN_HOUSE;
+        } else if (part instanceof Outsourced) {
+            kind = OUTSOURCED;
+        } else {
+            return false;
+        }
+        body.clear();
+        body.put(PART_PUT).put(kind).putInt(part.getId());
+        putString(part.getName());
+        ensure(24);
+        body.putDouble(part.getPrice()).putInt(part.getStock()).putInt(part.getMin()).putInt(part.getMax());
+        if (kind == IN_HOUSE) {
+            body.putInt(((InHouse) part).getMachineId());
+        } else {
+            putString(((Outsourced) part).getCompanyName());
+        }
+        return true;
+    }
+    /**
+     * Encodes a product, with the IDs of its associated parts and then of its components, as a PRODUCT_PUT record
+     * body.
+     */
+    private void encodeProduct(Product product) {
+        List<Part> parts = product.getAssociatedPartList();
+        List<Product> components = product.getComponentList();
+        body.clear();
+        body.put(PRODUCT_PUT).putInt(product.getId());
+        putString(product.getName());
+        ensure(28 + 4 * parts.size() + 4 * components.size());
+        body.putDouble(product.getPrice()).putInt(product.getStock()).putInt(product.getMin())
+                .putInt(product.getMax()).putInt(parts.size());
+        for (Part part : parts) {
+            body.putInt(part.getId());
+        }
+        body.putInt(components.size());
+        for (Product component : components) {
+            body.putInt(component.getId());
+        }
+    }
+    /**
+     * Encodes a delete record body.
+     */
+    private void encodeDelete(byte type, int id) {
+        body.clear();
+        body.put(type).putInt(id);
+    }
+    /**
+     * Writes a string as its UTF-8 length and bytes, with length -1 for null.
+     */
+    private void putString(String text) {
+        if (text == null) {
+            ensure(4);
+            body.putInt(-1);
+            return;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ensure(4 + bytes.length);
+        body.putInt(bytes.length).put(bytes);
+    }
+    /**
+     * Grows the record body buffer so it has room for more bytes.
+     */
+    private void ensure(int bytes) {
+        if (body.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(body.capacity() * 2, body.position() + bytes));
+            body.flip();
+            larger.put(body);
+            body = larger;
+        }
+    }
+    /**
+     * Reads a part from a PART_PUT record body, after its type.
+     */
+    private static Part decodePart(ByteBuffer record) {
+        byte kind = record.get();
+        int id = record.getInt();
+        String name = getString(record);
+        double price = record.getDouble();
+        int stock = record.getInt();
+        int min = record.getInt();
+        int max = record.getInt();
+        if (kind == IN_HOUSE) {
+            return new InHouse(id, name, price, stock, min, max, record.getInt());
+        }
+        return new Outsourced(id, name, price, stock, min, max, getString(record));
+    }
+    /**
+     * Reads a product from a PRODUCT_PUT record body, after its type. Associated parts are looked up by ID;
+     * parts no longer in inventory are left out.
+     */
+    private static Product decodeProduct(ByteBuffer record) {
+        int id = record.getInt();
+        String name = getString(record);
+        Product product = new Product(id, name, record.getDouble(), record.getInt(), record.getInt(), record.getInt());
+        for (int i = record.getInt(); i > 0; i--) {
+            Part part = Inventory.lookupPart(record.getInt());
+            if (part != null) {
+                product.addAssociatedPart(part);
+            }
+        }
+        return product;
+    }
+    /**
+     * Reads the component IDs that follow a product's associated parts. Records written before products had
+     * components end after the parts and have none.
+     */
+    private static int[] decodeComponents(ByteBuffer record) {
+        int[] ids = new int[record.hasRemaining() ? record.getInt() : 0];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = record.getInt();
+        }
+        return ids;
+    }
+    /**
+     * Adds components to a product by ID; components no longer in inventory are left out.
+     */
+    private static void linkComponents(Product product, int[] componentIds) {
+        for (int id : componentIds) {
+            Product component = Inventory.lookupProduct(id);
+            if (component != null) {
+                product.addComponent(component);
+            }
+        }
+    }
+    /**
+     * Reads a string written by putString.
+     */
+    private static String getString(ByteBuffer record) {
+        int length = record.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String text = new String(record.array(), record.arrayOffset() + record.position(), length,
+                StandardCharsets.UTF_8);
+        record.position(record.position() + length);
+        return text;
+    }
+
+    /**
+     * Reads framed records from a file channel through a buffer.
+     */
+    private static final class RecordReader {
+        private final FileChannel in;
+        private ByteBuffer buffer = ByteBuffer.allocate(1 << 20);
+        private final CRC32 crc = new CRC32();
+        /**
+         * Position in the file of the first byte not yet consumed.
+         */
+        private long offset;
+        /**
+         * True once the zero length marking the end of the records was read.
+         */
+        private boolean ended;
+
+        RecordReader(FileChannel in) {
+            this.in = in;
+            buffer.flip();
+        }
+
+        /**
+         * Reads a fixed number of bytes.
+         */
+        ByteBuffer read(int length) throws IOException {
+            if (!fill(length)) {
+                throw new IOException("Unexpected end of inventory file.");
+            }
+            ByteBuffer bytes = buffer.slice();
+            bytes.limit(length);
+            buffer.position(buffer.position() + length);
+            offset += length;
+            return bytes;
+        }
+
+        /**
+         * Reads the body of the next record.
+         * @return the body, or null at the end of the records or at a damaged record.
+         */
+        ByteBuffer next() throws IOException {
+            if (!fill(4)) {
+                return null;
+            }
+            int length = buffer.getInt(buffer.position());
+            if (length == 0) {
+                ended = true;
+                return null;
+            }
+            if (length < 0 || !fill(8 + length)) {
+                return null;
+            }
+            int checksum = buffer.getInt(buffer.position() + 4);
+            crc.reset();
+            crc.update(buffer.array(), buffer.arrayOffset() + buffer.position() + 8, length);
+            if ((int) crc.getValue() != checksum) {
+                return null;
+            }
+            buffer.position(buffer.position() + 8);
+            ByteBuffer record = ByteBuffer.wrap(buffer.array(), buffer.arrayOffset() + buffer.position(), length)
+                    .slice();
+            buffer.position(buffer.position() + length);
+            offset += 8 + length;
+            return record;
+        }
+
+        /**
+         * Position in the file after the last record read.
+         */
+        long offset() {
+            return offset;
+        }
+
+        /**
+         * Tells if the records ended with their end marker rather than at a damaged record or the end of the file.
+         */
+        boolean ended() {
+            return ended;
+        }
+
+        /**
+         * Makes sure the buffer holds at least the given number of unread bytes.
+         * @return false if the file ends first.
+         */
+        private boolean fill(int length) throws IOException {
+            if (buffer.remaining() >= length) {
+                return true;
+            }
+            if (length > buffer.capacity()) {
+                if (length > in.size()) {
+                    return false;
+                }
+                ByteBuffer larger = ByteBuffer.allocate(length);
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            while (buffer.position() < length) {
+                if (in.read(buffer) < 0) {
+                    buffer.flip();
+                    return false;
+                }
+            }
+            buffer.flip();
+            return true;
+        }
+    }
+}
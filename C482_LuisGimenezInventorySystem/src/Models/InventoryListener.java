@@ -0,0 +1,125 @@
+package Models;
+
+import java.util.Collection;
+
+/**
+ * Supplied class InventoryListener.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryListener Interface. Receives every change made to the parts and products in Inventory, called after the
+ * change is made. Changes to the fields of a part or product already in inventory arrive as an update of the item
+ * with itself. Every method does nothing by default, so listeners only implement the changes they follow.
+ */
+public interface InventoryListener {
+    /**
+     * A part was added.
+     * @param part the added part.
+     */
+    default void partAdded(Part part) {
+    }
+    /**
+     * Several parts were added at once. Calls partAdded for each part unless overridden.
+     * @param parts the added parts.
+     */
+    default void partsAdded(Collection<? extends Part> parts) {
+        for (Part part : parts) {
+            partAdded(part);
+        }
+    }
+    /**
+     * A part was replaced, or changed in place when both parts are the same object.
+     * @param old the replaced part.
+     * @param part the part now in inventory.
+     */
+    default void partUpdated(Part old, Part part) {
+    }
+    /**
+     * The stock of a part in inventory changed. Calls partUpdated with the part as both arguments unless
+     * overridden.
+     * @param part the changed part.
+     * @param oldStock the stock before the change.
+     */
+    default void partStockChanged(Part part, int oldStock) {
+        partUpdated(part, part);
+    }
+    /**
+     * The ID of a part in inventory changed.
+     * @param part the changed part.
+     * @param oldId the ID before the change.
+     */
+    default void partIdChanged(Part part, int oldId) {
+    }
+    /**
+     * A part was removed.
+     * @param part the removed part.
+     */
+    default void partRemoved(Part part) {
+    }
+    /**
+     * A product was added.
+     * @param product the added product.
+     */
+    default void productAdded(Product product) {
+    }
+    /**
+     * Several products were added at once. Calls productAdded for each product unless overridden.
+     * @param products the added products.
+     */
+    default void productsAdded(Collection<? extends Product> products) {
+        for (Product product : products) {
+            productAdded(product);
+        }
+    }
+    /**
+     * A product was replaced, or changed in place when both products are the same object.
+     * @param old the replaced product.
+     * @param product the product now in inventory.
+     */
+    default void productUpdated(Product old, Product product) {
+    }
+    /**
+     * The stock of a product in inventory changed. Calls productUpdated with the product as both arguments unless
+     * overridden.
+     * @param product the changed product.
+     * @param oldStock the stock before the change.
+     */
+    default void productStockChanged(Product product, int oldStock) {
+        productUpdated(product, product);
+    }
+    /**
+     * The associated parts or components of a product in inventory changed. Calls productUpdated with the product
+     * as both arguments unless overridden.
+     * @param product the changed product.
+     */
+    default void productPartsChanged(Product product) {
+        productUpdated(product, product);
+    }
+    /**
+     * The ID of a product in inventory changed.
+     * @param product the changed product.
+     * @param oldId the ID before the change.
+     */
+    default void productIdChanged(Product product, int oldId) {
+    }
+    /**
+     * A product was removed.
+     * @param product the removed product.
+     */
+    default void productRemoved(Product product) {
+    }
+    /**
+     * Every part and product was removed and the ID sequences restarted.
+     */
+    default void cleared() {
+    }
+    /**
+     * A batch of changes was committed. Each of its changes was reported on its own as it was made; listeners that
+     * only need to know that inventory changed can wait for this single call instead.
+     * @param batch the committed batch.
+     */
+    default void batchCommitted(InventoryBatch batch) {
+    }
+}
@@ -0,0 +1,451 @@
+package Models;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Supplied class InventoryLoader.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryLoader Class. Streams parts and products from a CSV or JSON file into Inventory.
+ * <p>Records are parsed one at a time and handed to Inventory in batches through addAllParts and addAllProducts,
+ * so the file is never held in memory as a whole and the screens get one change notification per batch.</p>
+ * <p>CSV files start with a header naming the columns: {@code type,id,name,price,stock,min,max,machineId,
+ * companyName,parts}. JSON files hold an array of records, or an object with "parts" and "products" arrays, using
+ * the same names as keys. The type is InHouse, Outsourced or Product; the parts of a product are the IDs of parts
+ * loaded before it, separated by ';' in CSV, and its optional "components" are the IDs of products it is built
+ * from, linked once the whole file is loaded. A record without an ID, or with ID 0, gets the next ID of the
+ * inventory. When a record is invalid, the batches loaded before it stay in inventory.</p>
+ */
+public class InventoryLoader {
+    /**
+     * Number of records handed to Inventory at once unless another size is given.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+    /**
+     * Number of records handed to Inventory at once.
+     */
+    private final int batchSize;
+    /**
+     * Parts waiting to be added.
+     */
+    private final List<Part> parts = new ArrayList<>();
+    /**
+     * Products waiting to be added.
+     */
+    private final List<Product> products = new ArrayList<>();
+    /**
+     * IDs of the associated parts of each waiting product.
+     */
+    private final List<int[]> productParts = new ArrayList<>();
+    /**
+     * Products loaded with components, linked once every product is in inventory.
+     */
+    private final List<Product> assemblies = new ArrayList<>();
+    /**
+     * IDs of the components of each product waiting to be linked.
+     */
+    private final List<int[]> componentIds = new ArrayList<>();
+    /**
+     * Number of records loaded so far.
+     */
+    private int loaded;
+    /**
+     * Record number used in error messages.
+     */
+    private long record;
+
+    /**
+     * Creates a loader using the default batch size.
+     */
+    public InventoryLoader() {
+        this(DEFAULT_BATCH_SIZE);
+    }
+    /**
+     * Creates a loader.
+     * @param batchSize number of records handed to Inventory at once.
+     */
+    public InventoryLoader(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        this.batchSize = batchSize;
+    }
+    /**
+     * Loads a file, as JSON if its name ends with .json and as CSV otherwise.
+     * @param file the file to load.
+     * @return the number of records loaded.
+     * @throws IOException if the file cannot be read or holds an invalid record.
+     */
+    public static int load(Path file) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            InventoryLoader loader = new InventoryLoader();
+            if (file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".json")) {
+                return loader.loadJson(reader);
+            }
+            return loader.loadCsv(reader);
+        }
+    }
+    /**
+     * Loads CSV records.
+     * @param reader the CSV text.
+     * @return the number of records loaded.
+     * @throws IOException if the text cannot be read or holds an invalid record.
+     */
+    public int loadCsv(Reader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return 0;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim(), i);
+        }
+        if (!columns.containsKey("type")) {
+            throw new IOException("CSV header must name a type column.");
+        }
+        Map<String, Object> fields = new HashMap<>();
+        for (List<String> row = csv.next(); row != null; row = csv.next()) {
+            if (row.size() == 1 && row.get(0).trim().isEmpty()) {
+                continue;
+            }
+            fields.clear();
+            for (Map.Entry<String, Integer> column : columns.entrySet()) {
+                if (column.getValue() < row.size() && !row.get(column.getValue()).isEmpty()) {
+                    fields.put(column.getKey(), row.get(column.getValue()));
+                }
+            }
+            addRecord(fields);
+        }
+        flush();
+        return loaded;
+    }
+    /**
+     * Loads JSON records.
+     * @param reader the JSON text.
+     * @return the number of records loaded.
+     * @throws IOException if the text cannot be read or holds an invalid record.
+     */
+    public int loadJson(Reader reader) throws IOException {
+        JsonReader json = new JsonReader(reader);
+        int c = json.peek();
+        if (c == '[') {
+            loadJsonArray(json);
+        } else if (c == '{') {
+            json.expect('{');
+            if (json.peek() != '}') {
+                do {
+                    String key = json.readString();
+                    json.expect(':');
+                    if (key.equals("parts") || key.equals("products")) {
+                        loadJsonArray(json);
+                    } else {
+                        json.readValue();
+                    }
+                } while (json.comma('}'));
+            }
+            json.expect('}');
+        } else {
+            throw new IOException("JSON must hold an array of records or an object of record arrays.");
+        }
+        flush();
+        return loaded;
+    }
+    /**
+     * Loads each object of a JSON array as a record.
+     */
+    private void loadJsonArray(JsonReader json) throws IOException {
+        json.expect('[');
+        if (json.peek() != ']') {
+            do {
+                addRecord(json.readObject());
+            } while (json.comma(']'));
+        }
+        json.expect(']');
+    }
+    /**
+     * Builds a part or product from the fields of a record and queues it.
+     */
+    private void addRecord(Map<String, ?> fields) throws IOException {
+        record++;
+        try {
+            if ("Product".equals(fields.get("type"))) {
+                Product product = toProduct(fields);
+                int[] components = componentIdsOf(fields);
+                if (components.length > 0) {
+                    assemblies.add(product);
+                    componentIds.add(components);
+                }
+                queueProduct(product, partIdsOf(fields));
+            } else {
+                queuePart(toPart(fields));
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Record " + record + ": " + e.getMessage(), e);
+        }
+    }
+    /**
+     * Builds a part from the fields of a record. A missing or zero ID is replaced by the next part ID.
+     * @param fields the fields, by column or key name.
+     * @return an InHouse or Outsourced part, following the type field.
+     * @throws IllegalArgumentException if a field is missing or invalid.
+     */
+    public static Part toPart(Map<String, ?> fields) {
+        String type = text(fields, "type");
+        int id = fields.get("id") != null ? integer(fields, "id") : 0;
+        String name = text(fields, "name");
+        double price = Double.parseDouble(text(fields, "price"));
+        int stock = integer(fields, "stock");
+        int min = integer(fields, "min");
+        int max = integer(fields, "max");
+        switch (type) {
+            case "InHouse":
+                return new InHouse(id == 0 ? Inventory.lookupPart() : id, name, price, stock, min, max,
+                        integer(fields, "machineId"));
+            case "Outsourced":
+                return new Outsourced(id == 0 ? Inventory.lookupPart() : id, name, price, stock, min, max,
+                        text(fields, "companyName"));
+            default:
+                throw new IllegalArgumentException("unknown part type " + type);
+        }
+    }
+    /**
+     * Builds a product, without its associated parts, from the fields of a record. A missing or zero ID is replaced
+     * by the next product ID.
+     * @param fields the fields, by column or key name.
+     * @return the product.
+     * @throws IllegalArgumentException if a field is missing or invalid.
+     */
+    public static Product toProduct(Map<String, ?> fields) {
+        int id = fields.get("id") != null ? integer(fields, "id") : 0;
+        return new Product(id == 0 ? Inventory.lookupProduct() : id, text(fields, "name"),
+                Double.parseDouble(text(fields, "price")), integer(fields, "stock"), integer(fields, "min"),
+                integer(fields, "max"));
+    }
+    /**
+     * Reads the IDs of the associated parts of a product record, from a JSON array or a ';' separated CSV field.
+     * @param fields the fields, by column or key name.
+     * @return the part IDs, empty if the record has none.
+     * @throws IllegalArgumentException if an ID is not a number.
+     */
+    public static int[] partIdsOf(Map<String, ?> fields) {
+        return partIds(fields.get("parts"));
+    }
+    /**
+     * Reads the IDs of the components of a product record, from a JSON array or a ';' separated CSV field.
+     * @param fields the fields, by column or key name.
+     * @return the product IDs, empty if the record has none.
+     * @throws IllegalArgumentException if an ID is not a number.
+     */
+    public static int[] componentIdsOf(Map<String, ?> fields) {
+        return partIds(fields.get("components"));
+    }
+    /**
+     * Queues a part, handing the batch to Inventory once it is full.
+     */
+    private void queuePart(Part part) {
+        parts.add(part);
+        if (parts.size() >= batchSize) {
+            flushParts();
+        }
+    }
+    /**
+     * Queues a product with the IDs of its parts, handing the batch to Inventory once it is full.
+     */
+    private void queueProduct(Product product, int[] partIds) throws IOException {
+        products.add(product);
+        productParts.add(partIds);
+        if (products.size() >= batchSize) {
+            flushProducts();
+        }
+    }
+    /**
+     * Hands every queued record to Inventory.
+     */
+    private void flush() throws IOException {
+        flushParts();
+        flushProducts();
+        linkComponents();
+    }
+    /**
+     * Hands the queued parts to Inventory as one batch.
+     */
+    private void flushParts() {
+        if (!parts.isEmpty()) {
+            Inventory.addAllParts(parts);
+            loaded += parts.size();
+            parts.clear();
+        }
+    }
+    /**
+     * Associates the queued products with their parts and hands them to Inventory as one batch.
+     */
+    private void flushProducts() throws IOException {
+        if (products.isEmpty()) {
+            return;
+        }
+        // Products may use parts still waiting in the part batch.
+        flushParts();
+        for (int i = 0; i < products.size(); i++) {
+            for (int partId : productParts.get(i)) {
+                Part part = Inventory.lookupPart(partId);
+                if (part == null) {
+                    throw new IOException("Product " + products.get(i).getId() + " uses unknown part " + partId);
+                }
+                products.get(i).addAssociatedPart(part);
+            }
+        }
+        Inventory.addAllProducts(products);
+        loaded += products.size();
+        products.clear();
+        productParts.clear();
+    }
+    /**
+     * Adds their components to the products loaded with some, now that every product is in inventory.
+     */
+    private void linkComponents() throws IOException {
+        for (int i = 0; i < assemblies.size(); i++) {
+            Product assembly = assemblies.get(i);
+            for (int productId : componentIds.get(i)) {
+                Product component = Inventory.lookupProduct(productId);
+                if (component == null) {
+                    throw new IOException("Product " + assembly.getId() + " uses unknown product " + productId);
+                }
+                try {
+                    assembly.addComponent(component);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(e.getMessage(), e);
+                }
+            }
+        }
+        assemblies.clear();
+        componentIds.clear();
+    }
+    /**
+     * Reads a required text field.
+     */
+    private static String text(Map<String, ?> fields, String name) {
+        Object value = fields.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+        return value.toString().trim();
+    }
+    /**
+     * Reads a required integer field.
+     */
+    private static int integer(Map<String, ?> fields, String name) {
+        return Integer.parseInt(text(fields, name));
+    }
+    /**
+     * Reads part IDs from a JSON array or a ';' separated CSV field.
+     */
+    private static int[] partIds(Object value) {
+        if (value == null) {
+            return new int[0];
+        }
+        List<?> items = value instanceof List ? (List<?>) value : splitIds(value.toString());
+        int[] ids = new int[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = Integer.parseInt(items.get(i).toString().trim());
+        }
+        return ids;
+    }
+    /**
+     * Splits a ';' separated list, ignoring empty entries.
+     */
+    private static List<String> splitIds(String text) {
+        List<String> ids = new ArrayList<>();
+        for (String id : text.split(";")) {
+            if (!id.trim().isEmpty()) {
+                ids.add(id);
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Reads CSV records one at a time, with quoted fields that may hold commas, quotes and line breaks.
+     */
+    private static final class CsvReader {
+        private final Reader reader;
+        private final StringBuilder field = new StringBuilder();
+        private int next = -2;
+
+        CsvReader(Reader reader) {
+            this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+        }
+
+        private int read() throws IOException {
+            if (next != -2) {
+                int c = next;
+                next = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        /**
+         * Reads the next record.
+         * @return the fields of the record, null at the end of the text.
+         */
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> row = new ArrayList<>();
+            field.setLength(0);
+            boolean quoted = false;
+            while (true) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted CSV field.");
+                    }
+                    if (c == '"') {
+                        int d = read();
+                        if (d == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            next = d;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.length() == 0) {
+                    quoted = true;
+                } else if (c == ',') {
+                    row.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    break;
+                } else if (c == '\r') {
+                    int d = read();
+                    if (d != '\n') {
+                        next = d;
+                    }
+                    break;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+            row.add(field.toString());
+            return row;
+        }
+    }
+}
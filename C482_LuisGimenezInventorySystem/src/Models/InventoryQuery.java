@@ -0,0 +1,747 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+
+/**
+ * Supplied class InventoryQuery.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryQuery Class. A query over the parts or products in inventory that combines any number of criteria, all of
+ * which an item must meet, with an order, an offset and a limit. PartQuery and ProductQuery add the criteria that
+ * only make sense for one of them.
+ * <p>Each run picks its plan by cost: criteria backed by an index (machine, vendor, part usage, price or stock
+ * range) know in constant or logarithmic time how many items they match, and the one matching the fewest is used to
+ * fetch candidates, which are then checked against the other criteria. When no index matches fewer items than the
+ * store holds, the store's snapshot is scanned instead, split into partitions checked in parallel on the common
+ * fork/join pool once it is large enough to be worth it. A partition keeps no more matches than the offset and
+ * limit can show, so a "top 10" over millions of items holds ten per partition.</p>
+ * <p>Results ordered by price or stock with orderByPrice or orderByStock can instead be read from the ordered
+ * index, starting at the bounds of any range on the same field and stopping once the offset and limit are filled,
+ * so nothing is sorted. That walk is chosen when it reads fewer items than the other plans would, assuming the
+ * other criteria match often enough to fill the limit.</p>
+ * <p>Results reflect the inventory as it was read during the run. A query may be run any number of times; each run
+ * plans again against the inventory of the time.</p>
+ * @param <T> the type of the items.
+ * @param <Q> the type of the query, returned by the builder methods.
+ */
+public abstract class InventoryQuery<T, Q extends InventoryQuery<T, Q>> {
+    /**
+     * Number of items from which a scan is split into partitions checked in parallel.
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    /**
+     * Fewest items in a partition of a parallel scan.
+     */
+    private static final int MIN_PARTITION = 1 << 13;
+    /**
+     * What the items are called in plans, such as "parts".
+     */
+    private final String items;
+    /**
+     * Reads an item's price.
+     */
+    private final ToDoubleFunction<T> price;
+    /**
+     * Reads an item's inventory level.
+     */
+    private final ToIntFunction<T> stock;
+    /**
+     * Reads an item's minimum level.
+     */
+    private final ToIntFunction<T> min;
+    /**
+     * Reads an item's maximum level.
+     */
+    private final ToIntFunction<T> max;
+    /**
+     * The criteria, in the order they were added.
+     */
+    private final List<Criterion<T>> criteria = new ArrayList<>();
+    /**
+     * Order of the results, null for store order.
+     */
+    private Comparator<? super T> order;
+    /**
+     * Index the order follows, null if it follows none.
+     */
+    private OrderedIndex<T> orderIndex;
+    /**
+     * True if the order is the index order reversed.
+     */
+    private boolean descending;
+    /**
+     * Number of results skipped.
+     */
+    private int offset;
+    /**
+     * Most results returned.
+     */
+    private int limit = Integer.MAX_VALUE;
+
+    /**
+     * Creates a query matching every item.
+     */
+    InventoryQuery(String items, ToDoubleFunction<T> price, ToIntFunction<T> stock, ToIntFunction<T> min,
+                   ToIntFunction<T> max) {
+        this.items = items;
+        this.price = price;
+        this.stock = stock;
+        this.min = min;
+        this.max = max;
+    }
+    /**
+     * Keeps items priced between two prices.
+     * @param low the lowest price, inclusive.
+     * @param high the highest price, inclusive.
+     * @return this query.
+     */
+    public Q priceBetween(double low, double high) {
+        return add(range("price " + low + " to " + high, item -> {
+            double value = price.applyAsDouble(item);
+            return value >= low && value <= high;
+        }, priceIndex(), OrderedIndex.priceKey(low), OrderedIndex.priceKey(high)));
+    }
+    /**
+     * Keeps items whose inventory level is between two levels.
+     * @param low the lowest level, inclusive.
+     * @param high the highest level, inclusive.
+     * @return this query.
+     */
+    public Q stockBetween(int low, int high) {
+        return add(range("stock " + low + " to " + high, item -> {
+            int value = stock.applyAsInt(item);
+            return value >= low && value <= high;
+        }, stockIndex(), low, high));
+    }
+    /**
+     * Keeps items whose inventory level is below their minimum.
+     * @return this query.
+     */
+    public Q belowMin() {
+        return add(new Criterion<>("stock below min", item -> stock.applyAsInt(item) < min.applyAsInt(item)));
+    }
+    /**
+     * Keeps items whose inventory level is above their maximum.
+     * @return this query.
+     */
+    public Q aboveMax() {
+        return add(new Criterion<>("stock above max", item -> stock.applyAsInt(item) > max.applyAsInt(item)));
+    }
+    /**
+     * Keeps items whose inventory level is outside their minimum and maximum.
+     * @return this query.
+     */
+    public Q outsideMinMax() {
+        return add(new Criterion<>("stock outside min to max", item -> {
+            int value = stock.applyAsInt(item);
+            return value < min.applyAsInt(item) || value > max.applyAsInt(item);
+        }));
+    }
+    /**
+     * Keeps items meeting any other condition. The condition may be checked on several threads at once.
+     * @param description how the condition reads in plans.
+     * @param condition the condition.
+     * @return this query.
+     */
+    public Q where(String description, Predicate<? super T> condition) {
+        return add(new Criterion<>(description, condition));
+    }
+    /**
+     * Orders the results.
+     * @param comparator the order, such as Comparator.comparingDouble(Part::getPrice); null for no particular
+     * order, which is store order when the store is scanned.
+     * @return this query.
+     */
+    public Q orderBy(Comparator<? super T> comparator) {
+        order = comparator;
+        orderIndex = null;
+        return self();
+    }
+    /**
+     * Orders the results by price, ties by ID, through the price index.
+     * @param descending true for the most expensive first.
+     * @return this query.
+     */
+    public Q orderByPrice(boolean descending) {
+        return orderBy(priceIndex(), descending);
+    }
+    /**
+     * Orders the results by inventory level, ties by ID, through the stock index.
+     * @param descending true for the highest stock first.
+     * @return this query.
+     */
+    public Q orderByStock(boolean descending) {
+        return orderBy(stockIndex(), descending);
+    }
+    /**
+     * Skips the first results.
+     * @param count the number of results skipped.
+     * @return this query.
+     */
+    public Q offset(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Offset must not be negative.");
+        }
+        offset = count;
+        return self();
+    }
+    /**
+     * Returns at most a number of results.
+     * @param count the most results returned.
+     * @return this query.
+     */
+    public Q limit(int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Limit must not be negative.");
+        }
+        limit = count;
+        return self();
+    }
+    /**
+     * Runs the query.
+     * @return the results after the offset, at most the limit, in order.
+     */
+    public List<T> list() {
+        Plan plan = plan(true);
+        int wanted = wanted();
+        List<T> found;
+        if (plan.walk != null) {
+            found = walk(plan, wanted);
+        } else if (plan.index != null) {
+            List<T> candidates = plan.index.candidates.get();
+            found = filter(candidates, 0, candidates.size(), wanted);
+        } else if (plan.partitions > 1) {
+            found = ForkJoinPool.commonPool().invoke(new Scan(plan.source, 0, plan.rows, partitionSize(plan), wanted));
+        } else {
+            found = filter(plan.source, 0, plan.rows, wanted);
+        }
+        if (offset >= found.size()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(found.subList(offset, Math.min(found.size(), wanted)));
+    }
+    /**
+     * Runs the query as a stream. Without an order, results are read from inventory as the stream is consumed, so
+     * taking the first few stops the run early; with an order, the query is run in full first.
+     * @return the results after the offset, at most the limit, in order.
+     */
+    public Stream<T> stream() {
+        if (order != null) {
+            return list().stream();
+        }
+        Plan plan = plan(false);
+        List<T> source = plan.index != null ? plan.index.candidates.get() : plan.source;
+        return source.stream().filter(this::matches).skip(offset).limit(limit);
+    }
+    /**
+     * Hands each result to a consumer as it is found, as stream does.
+     * @param consumer receives the results.
+     */
+    public void forEach(Consumer<? super T> consumer) {
+        stream().forEach(consumer);
+    }
+    /**
+     * Counts the items meeting every criterion, ignoring the order, offset and limit.
+     * @return the number of matching items.
+     */
+    public int count() {
+        Plan plan = plan(false);
+        if (plan.index != null) {
+            List<T> candidates = plan.index.candidates.get();
+            return count(candidates, 0, candidates.size());
+        }
+        if (plan.partitions > 1) {
+            return ForkJoinPool.commonPool().invoke(new Count(plan.source, 0, plan.rows, partitionSize(plan)));
+        }
+        return count(plan.source, 0, plan.rows);
+    }
+    /**
+     * Describes how the query would run now.
+     * @return the plan, such as "index machine 7 (~120 of 5000 parts), then filter price 1.0 to 2.0".
+     */
+    public String explain() {
+        Plan plan = plan(true);
+        StringBuilder text = new StringBuilder();
+        if (plan.walk != null) {
+            text.append("walk of index ").append(plan.walk.name()).append(descending ? " descending" : " ascending")
+                    .append(" (~").append(plan.rows).append(" of ").append(plan.total).append(' ').append(items)
+                    .append(')');
+        } else if (plan.index != null) {
+            text.append("index ").append(plan.index.description).append(" (~").append(plan.rows).append(" of ")
+                    .append(plan.total).append(' ').append(items).append(')');
+        } else if (plan.partitions > 1) {
+            text.append("parallel scan of ").append(plan.rows).append(' ').append(items).append(" in ")
+                    .append(plan.partitions).append(" partitions");
+        } else {
+            text.append("scan of ").append(plan.rows).append(' ').append(items);
+        }
+        String separator = ", then filter ";
+        for (Criterion<T> criterion : criteria) {
+            if (criterion != plan.index) {
+                text.append(separator).append(criterion.description);
+                separator = ", ";
+            }
+        }
+        if (order != null && plan.walk == null) {
+            text.append(", then sort");
+        }
+        if (offset > 0 || limit < Integer.MAX_VALUE) {
+            text.append(", offset ").append(offset).append(" limit ").append(limit);
+        }
+        return text.toString();
+    }
+    /**
+     * Gets the store the items are read from.
+     */
+    abstract InventoryStore<T> store();
+    /**
+     * Gets the index ordering the items by price.
+     */
+    abstract OrderedIndex<T> priceIndex();
+    /**
+     * Gets the index ordering the items by inventory level.
+     */
+    abstract OrderedIndex<T> stockIndex();
+    /**
+     * Returns this query as its own type.
+     */
+    abstract Q self();
+    /**
+     * Adds a criterion.
+     */
+    Q add(Criterion<T> criterion) {
+        criteria.add(criterion);
+        return self();
+    }
+    /**
+     * Creates a criterion on a range of keys of an ordered index, which counts the items in the range and lists
+     * them in O(log n + k).
+     */
+    private Criterion<T> range(String description, Predicate<? super T> condition, OrderedIndex<T> index, long low,
+                               long high) {
+        return new Criterion<>(description, condition, index, low, high, () -> {
+            InventoryStore<T> store = store();
+            int[] ids = index.idsBetween(low, high);
+            List<T> found = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                T item = store.findById(id);
+                if (item != null) {
+                    found.add(item);
+                }
+            }
+            return found;
+        });
+    }
+    /**
+     * Orders the results by an ordered index.
+     */
+    private Q orderBy(OrderedIndex<T> index, boolean descending) {
+        order = descending ? index.comparator().reversed() : index.comparator();
+        orderIndex = index;
+        this.descending = descending;
+        return self();
+    }
+    /**
+     * Chooses between the indexed criterion matching the fewest items and a scan of the store, or, when the
+     * results are wanted in the order of an index, a walk of that index if it reads fewer items.
+     */
+    private Plan plan(boolean ordered) {
+        List<T> source = store().snapshot();
+        int total = source.size();
+        Criterion<T> best = null;
+        int rows = total;
+        for (Criterion<T> criterion : criteria) {
+            if (criterion.estimate != null) {
+                int estimate = criterion.estimate.getAsInt();
+                if (estimate < rows) {
+                    best = criterion;
+                    rows = estimate;
+                }
+            }
+        }
+        if (ordered && orderIndex != null) {
+            long low = Long.MIN_VALUE;
+            long high = Long.MAX_VALUE;
+            for (Criterion<T> criterion : criteria) {
+                if (criterion.range == orderIndex) {
+                    low = Math.max(low, criterion.low);
+                    high = Math.min(high, criterion.high);
+                }
+            }
+            int walked = low == Long.MIN_VALUE && high == Long.MAX_VALUE ? total : orderIndex.count(low, high);
+            int wanted = wanted();
+            if (walked <= rows || wanted < rows) {
+                return new Plan(orderIndex, low, high, source, Math.min(walked, wanted), total);
+            }
+        }
+        int partitions = 1;
+        if (best == null && total >= PARALLEL_THRESHOLD) {
+            partitions = Math.max(2, Math.min(total / MIN_PARTITION, ForkJoinPool.getCommonPoolParallelism() * 4));
+        }
+        return new Plan(best, source, rows, total, partitions);
+    }
+    /**
+     * Collects the first wanted matching items in the order of the plan's index, reading it a chunk at a time from
+     * the bounds of the plan. An item moved by a change between two chunks is only kept once.
+     */
+    private List<T> walk(Plan plan, int wanted) {
+        InventoryStore<T> store = store();
+        int chunk = Math.max(64, Math.min(wanted, 4096));
+        long[] keys = new long[chunk];
+        int[] ids = new int[chunk];
+        long key = descending ? plan.high : plan.low;
+        int id = descending ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+        long end = descending ? plan.low : plan.high;
+        List<T> found = new ArrayList<>();
+        IdSet seen = new IdSet();
+        while (found.size() < wanted) {
+            int read = plan.walk.read(key, id, end, descending, keys, ids);
+            for (int i = 0; i < read && found.size() < wanted; i++) {
+                T item = store.findById(ids[i]);
+                if (item != null && !seen.contains(ids[i]) && matches(item)) {
+                    seen.add(ids[i]);
+                    found.add(item);
+                }
+            }
+            if (read < chunk) {
+                break;
+            }
+            // Continues just past the last entry read.
+            key = keys[read - 1];
+            id = ids[read - 1];
+            if (id != (descending ? Integer.MIN_VALUE : Integer.MAX_VALUE)) {
+                id += descending ? -1 : 1;
+            } else if (key != end) {
+                key += descending ? -1 : 1;
+                id = descending ? Integer.MAX_VALUE : Integer.MIN_VALUE;
+            } else {
+                break;
+            }
+        }
+        return found;
+    }
+    /**
+     * Size of the partitions a parallel scan is split into.
+     */
+    private int partitionSize(Plan plan) {
+        return (plan.rows + plan.partitions - 1) / plan.partitions;
+    }
+    /**
+     * Number of results to find before the offset is applied.
+     */
+    private int wanted() {
+        return (int) Math.min(Integer.MAX_VALUE, (long) offset + limit);
+    }
+    /**
+     * Tells if an item meets every criterion.
+     */
+    private boolean matches(T item) {
+        for (Criterion<T> criterion : criteria) {
+            if (!criterion.condition.test(item)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Collects the matching items of a range. Without an order it stops once it has as many as wanted; with one it
+     * keeps the first wanted in that order.
+     */
+    private List<T> filter(List<T> source, int from, int to, int wanted) {
+        List<T> found = new ArrayList<>();
+        to = Math.min(to, source.size());
+        for (int i = from; i < to; i++) {
+            T item = source.get(i);
+            if (item != null && matches(item)) {
+                found.add(item);
+                if (order == null && found.size() >= wanted) {
+                    break;
+                }
+            }
+        }
+        if (order != null) {
+            top(found, wanted);
+        }
+        return found;
+    }
+    /**
+     * Counts the matching items of a range.
+     */
+    private int count(List<T> source, int from, int to) {
+        int count = 0;
+        to = Math.min(to, source.size());
+        for (int i = from; i < to; i++) {
+            T item = source.get(i);
+            if (item != null && matches(item)) {
+                count++;
+            }
+        }
+        return count;
+    }
+    /**
+     * Sorts items in the query's order and drops all but the first wanted.
+     */
+    private void top(List<T> found, int wanted) {
+        found.sort(order);
+        if (found.size() > wanted) {
+            found.subList(wanted, found.size()).clear();
+        }
+    }
+
+    /**
+     * A criterion of a query, optionally backed by an index that finds the items meeting it.
+     * @param <T> the type of the items.
+     */
+    static final class Criterion<T> {
+        /**
+         * How the criterion reads in plans.
+         */
+        final String description;
+        /**
+         * Tells if an item meets the criterion.
+         */
+        final Predicate<? super T> condition;
+        /**
+         * Counts the items meeting the criterion in constant or logarithmic time; null if it has no index.
+         */
+        final IntSupplier estimate;
+        /**
+         * Finds the items meeting the criterion through the index; null if it has none.
+         */
+        final Supplier<List<T>> candidates;
+        /**
+         * Ordered index holding the range of keys the criterion keeps; null if it is not a range.
+         */
+        final OrderedIndex<T> range;
+        /**
+         * Lowest key of the range, inclusive.
+         */
+        final long low;
+        /**
+         * Highest key of the range, inclusive.
+         */
+        final long high;
+
+        /**
+         * Creates a criterion that can only be checked item by item.
+         */
+        Criterion(String description, Predicate<? super T> condition) {
+            this(description, condition, null, null);
+        }
+        /**
+         * Creates a criterion backed by an index. The candidates are still checked against the condition, so they
+         * may include items the inventory changed since they were indexed.
+         */
+        Criterion(String description, Predicate<? super T> condition, IntSupplier estimate,
+                  Supplier<List<T>> candidates) {
+            this.description = description;
+            this.condition = condition;
+            this.estimate = estimate;
+            this.candidates = candidates;
+            this.range = null;
+            this.low = Long.MIN_VALUE;
+            this.high = Long.MAX_VALUE;
+        }
+        /**
+         * Creates a criterion keeping a range of keys of an ordered index, which counts the items in it.
+         */
+        Criterion(String description, Predicate<? super T> condition, OrderedIndex<T> range, long low, long high,
+                  Supplier<List<T>> candidates) {
+            this.description = description;
+            this.condition = condition;
+            this.estimate = () -> range.count(low, high);
+            this.candidates = candidates;
+            this.range = range;
+            this.low = low;
+            this.high = high;
+        }
+    }
+
+    /**
+     * How a run reads the items.
+     */
+    private final class Plan {
+        /**
+         * The criterion whose index supplies the candidates, null to scan the store or walk an ordered index.
+         */
+        final Criterion<T> index;
+        /**
+         * The ordered index walked in the query's order, null to fetch candidates or scan the store.
+         */
+        final OrderedIndex<T> walk;
+        /**
+         * Lowest key walked, inclusive.
+         */
+        final long low;
+        /**
+         * Highest key walked, inclusive.
+         */
+        final long high;
+        /**
+         * The store's snapshot.
+         */
+        final List<T> source;
+        /**
+         * Number of items read: the index's estimate, at most the wanted results of a walk, or the whole snapshot.
+         */
+        final int rows;
+        /**
+         * Number of items in the store.
+         */
+        final int total;
+        /**
+         * Number of partitions a scan is split into.
+         */
+        final int partitions;
+
+        /**
+         * Creates a plan.
+         */
+        Plan(Criterion<T> index, List<T> source, int rows, int total, int partitions) {
+            this.index = index;
+            this.walk = null;
+            this.low = Long.MIN_VALUE;
+            this.high = Long.MAX_VALUE;
+            this.source = source;
+            this.rows = rows;
+            this.total = total;
+            this.partitions = partitions;
+        }
+        /**
+         * Creates a plan walking an ordered index between two keys.
+         */
+        Plan(OrderedIndex<T> walk, long low, long high, List<T> source, int rows, int total) {
+            this.index = null;
+            this.walk = walk;
+            this.low = low;
+            this.high = high;
+            this.source = source;
+            this.rows = rows;
+            this.total = total;
+            this.partitions = 1;
+        }
+    }
+
+    /**
+     * Collects the matching items of a range of the snapshot, splitting it in halves down to the partition size.
+     */
+    private final class Scan extends RecursiveTask<List<T>> {
+        /**
+         * Version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The snapshot.
+         */
+        private final List<T> source;
+        /**
+         * First position of the range.
+         */
+        private final int from;
+        /**
+         * Position after the range.
+         */
+        private final int to;
+        /**
+         * Largest range checked without splitting.
+         */
+        private final int partition;
+        /**
+         * Number of results needed from the range.
+         */
+        private final int wanted;
+
+        /**
+         * Creates the task of a range.
+         */
+        Scan(List<T> source, int from, int to, int partition, int wanted) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.partition = partition;
+            this.wanted = wanted;
+        }
+        @Override
+        protected List<T> compute() {
+            if (to - from <= partition) {
+                return filter(source, from, to, wanted);
+            }
+            int middle = (from + to) >>> 1;
+            Scan right = new Scan(source, middle, to, partition, wanted);
+            right.fork();
+            List<T> found = new Scan(source, from, middle, partition, wanted).compute();
+            List<T> rightFound = right.join();
+            if (order == null && found.size() >= wanted) {
+                // The left half comes first in store order and already has enough.
+                return found;
+            }
+            found.addAll(rightFound);
+            if (order != null) {
+                top(found, wanted);
+            } else if (found.size() > wanted) {
+                found.subList(wanted, found.size()).clear();
+            }
+            return found;
+        }
+    }
+
+    /**
+     * Counts the matching items of a range of the snapshot, like Scan.
+     */
+    private final class Count extends RecursiveTask<Integer> {
+        /**
+         * Version of the serialized form.
+         */
+        private static final long serialVersionUID = 1L;
+        /**
+         * The snapshot.
+         */
+        private final List<T> source;
+        /**
+         * First position of the range.
+         */
+        private final int from;
+        /**
+         * Position after the range.
+         */
+        private final int to;
+        /**
+         * Largest range counted without splitting.
+         */
+        private final int partition;
+
+        /**
+         * Creates the task of a range.
+         */
+        Count(List<T> source, int from, int to, int partition) {
+            this.source = source;
+            this.from = from;
+            this.to = to;
+            this.partition = partition;
+        }
+        @Override
+        protected Integer compute() {
+            if (to - from <= partition) {
+                return count(source, from, to);
+            }
+            int middle = (from + to) >>> 1;
+            Count right = new Count(source, middle, to, partition);
+            right.fork();
+            return new Count(source, from, middle, partition).compute() + right.join();
+        }
+    }
+}
@@ -0,0 +1,556 @@
+package Models;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supplied class InventorySnapshot.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventorySnapshot Class. A compact binary image of the whole inventory that opens by memory-mapping the file and
+ * builds parts and products only when they are asked for, so a catalog of millions of parts loads without parsing.
+ * <p>The file is little-endian and made of fixed-size records: after a 64-byte header come the parts, 40 bytes
+ * each, the products, 48 bytes each, the IDs of every product's associated parts and then components, and a string
+ * table holding each distinct part, product and company name once. Records refer to names by their index in the
+ * table, so a record is read at a computed position without decoding anything before it. The header holds the
+ * format version, so later versions can still tell older files apart.</p>
+ * <p>Layout of the header: magic, version, generation, last part ID, last product ID, part count, product count,
+ * string count, a reserved int, link count and size of the string data. A part record holds price, ID, name index,
+ * stock, min, max, machine ID or company name index and the kind. A product record holds price, ID, name index,
+ * stock, min, max, number of associated parts, number of components and the position of its IDs in the links.</p>
+ */
+public class InventorySnapshot {
+    /**
+     * Marks the start of a snapshot file: "INVC" read as a little-endian int.
+     */
+    private static final int MAGIC = 0x43564E49;
+    /**
+     * Version of the file format.
+     */
+    private static final int VERSION = 1;
+    /**
+     * Size of the header.
+     */
+    private static final int HEADER_BYTES = 64;
+    /**
+     * Size of a part record.
+     */
+    private static final int PART_BYTES = 40;
+    /**
+     * Size of a product record.
+     */
+    private static final int PRODUCT_BYTES = 48;
+    /**
+     * Part kinds within a part record.
+     */
+    private static final byte IN_HOUSE = 0, OUTSOURCED = 1;
+    /**
+     * String index standing for a null name.
+     */
+    private static final int NULL_STRING = -1;
+    /**
+     * Number of items handed to Inventory at once while loading.
+     */
+    private static final int LOAD_BATCH = 10_000;
+    /**
+     * Size of the buffer records are written through.
+     */
+    private static final int WRITE_BUFFER = 1 << 20;
+    /**
+     * The file the snapshot was opened from.
+     */
+    private final Path file;
+    /**
+     * Generation of the journal the snapshot was written for.
+     */
+    private final long generation;
+    /**
+     * Part ID sequence when the snapshot was written.
+     */
+    private final int lastPartId;
+    /**
+     * Product ID sequence when the snapshot was written.
+     */
+    private final int lastProductId;
+    /**
+     * Number of parts.
+     */
+    private final int partCount;
+    /**
+     * Number of products.
+     */
+    private final int productCount;
+    /**
+     * Mapped part records.
+     */
+    private final ByteBuffer parts;
+    /**
+     * Mapped product records.
+     */
+    private final ByteBuffer products;
+    /**
+     * Mapped part and component IDs of the products.
+     */
+    private final ByteBuffer links;
+    /**
+     * Mapped offsets of the strings in the string data, one more than there are strings.
+     */
+    private final ByteBuffer stringOffsets;
+    /**
+     * Mapped UTF-8 bytes of the strings.
+     */
+    private final ByteBuffer stringData;
+    /**
+     * Strings decoded so far, so names shared by many parts are decoded and kept once.
+     */
+    private final String[] strings;
+
+    /**
+     * Creates a snapshot over the mapped sections of a file.
+     */
+    private InventorySnapshot(Path file, ByteBuffer header, FileChannel in) throws IOException {
+        this.file = file;
+        generation = header.getLong(8);
+        lastPartId = header.getInt(16);
+        lastProductId = header.getInt(20);
+        partCount = header.getInt(24);
+        productCount = header.getInt(28);
+        int stringCount = header.getInt(32);
+        long linkCount = header.getLong(40);
+        long stringBytes = header.getLong(48);
+        if (partCount < 0 || productCount < 0 || stringCount < 0 || linkCount < 0 || stringBytes < 0) {
+            throw new IOException(file + " is damaged.");
+        }
+        long partsAt = HEADER_BYTES;
+        long productsAt = partsAt + (long) PART_BYTES * partCount;
+        long linksAt = productsAt + (long) PRODUCT_BYTES * productCount;
+        long offsetsAt = align(linksAt + 4 * linkCount);
+        long dataAt = offsetsAt + 4L * (stringCount + 1);
+        if (in.size() != dataAt + stringBytes) {
+            throw new IOException(file + " is incomplete or damaged.");
+        }
+        parts = map(in, partsAt, productsAt - partsAt);
+        products = map(in, productsAt, linksAt - productsAt);
+        links = map(in, linksAt, 4 * linkCount);
+        stringOffsets = map(in, offsetsAt, dataAt - offsetsAt);
+        stringData = map(in, dataAt, stringBytes);
+        strings = new String[stringCount];
+    }
+    /**
+     * Tells if a file is a snapshot in this format.
+     * @param file the file.
+     * @return true if the file starts with the snapshot's magic number.
+     * @throws IOException if the file cannot be read.
+     */
+    public static boolean isSnapshot(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            while (magic.hasRemaining() && in.read(magic) >= 0) {
+                // Reads until the buffer is full or the file ends.
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+    /**
+     * Opens a snapshot by memory-mapping it. Nothing is decoded until parts or products are asked for.
+     * @param file the snapshot file.
+     * @return the snapshot.
+     * @throws IOException if the file cannot be read or is not a snapshot of this version.
+     */
+    public static InventorySnapshot open(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (in.size() < HEADER_BYTES) {
+                throw new IOException(file + " is not an inventory snapshot.");
+            }
+            ByteBuffer header = map(in, 0, HEADER_BYTES);
+            if (header.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not an inventory snapshot.");
+            }
+            if (header.getInt(4) != VERSION) {
+                throw new IOException(file + " is a snapshot of unknown version " + header.getInt(4) + ".");
+            }
+            // The mappings stay valid after the channel is closed.
+            return new InventorySnapshot(file, header, in);
+        }
+    }
+    /**
+     * Writes the whole inventory to a snapshot file, replacing the file. Changes to the inventory wait until the file
+     * is written, so every product is written with links to parts and products that are in the snapshot.
+     * @param file the file.
+     * @param generation the generation to record in the snapshot.
+     * @throws IOException if the file cannot be written.
+     */
+    public static void write(Path file, long generation) throws IOException {
+        Inventory.lockChanges();
+        try {
+            writeInventory(file, generation);
+        } finally {
+            Inventory.unlockChanges();
+        }
+    }
+    /**
+     * Writes the inventory to a snapshot file while changes are held off.
+     */
+    private static void writeInventory(Path file, long generation) throws IOException {
+        List<Part> partList = Inventory.getPartStore().snapshot();
+        List<Product> productList = Inventory.getProductStore().snapshot();
+        StringTable table = new StringTable();
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER).order(ByteOrder.LITTLE_ENDIAN);
+            out.position(HEADER_BYTES);
+            int partCount = 0;
+            for (Part part : partList) {
+                byte kind;
+                int extra;
+                if (part instanceof InHouse) {
+                    kind = IN_HOUSE;
+                    extra = ((InHouse) part).getMachineId();
+                } else if (part instanceof Outsourced) {
+                    kind = OUTSOURCED;
+                    extra = table.indexOf(((Outsourced) part).getCompanyName());
+                } else {
+                    // Only the two kinds of part the application creates are kept.
+                    continue;
+                }
+                room(buffer, PART_BYTES, out);
+                buffer.putDouble(part.getPrice()).putInt(part.getId()).putInt(table.indexOf(part.getName()))
+                        .putInt(part.getStock()).putInt(part.getMin()).putInt(part.getMax()).putInt(extra)
+                        .put(kind).put((byte) 0).putShort((short) 0).putInt(0);
+                partCount++;
+            }
+            // The IDs of the products' parts and components are collected here and written after the products.
+            List<int[]> productLinks = new ArrayList<>(productList.size());
+            long linkCount = 0;
+            for (Product product : productList) {
+                List<Part> associated = product.getAssociatedPartList();
+                List<Product> components = product.getComponentList();
+                int[] ids = new int[associated.size() + components.size()];
+                for (int i = 0; i < associated.size(); i++) {
+                    ids[i] = associated.get(i).getId();
+                }
+                for (int i = 0; i < components.size(); i++) {
+                    ids[associated.size() + i] = components.get(i).getId();
+                }
+                room(buffer, PRODUCT_BYTES, out);
+                buffer.putDouble(product.getPrice()).putInt(product.getId()).putInt(table.indexOf(product.getName()))
+                        .putInt(product.getStock()).putInt(product.getMin()).putInt(product.getMax())
+                        .putInt(associated.size()).putInt(components.size()).putInt(0).putLong(linkCount);
+                productLinks.add(ids);
+                linkCount += ids.length;
+            }
+            for (int[] ids : productLinks) {
+                for (int id : ids) {
+                    room(buffer, 4, out);
+                    buffer.putInt(id);
+                }
+            }
+            long end = HEADER_BYTES + (long) PART_BYTES * partCount + (long) PRODUCT_BYTES * productList.size()
+                    + 4 * linkCount;
+            room(buffer, 8, out);
+            buffer.put(new byte[(int) (align(end) - end)]);
+            long stringBytes = 0;
+            for (byte[] bytes : table.encoded) {
+                room(buffer, 4, out);
+                buffer.putInt((int) stringBytes);
+                stringBytes += bytes.length;
+            }
+            if (stringBytes > Integer.MAX_VALUE) {
+                throw new IOException("The inventory holds more than 2 GB of names.");
+            }
+            room(buffer, 4, out);
+            buffer.putInt((int) stringBytes);
+            for (byte[] bytes : table.encoded) {
+                for (int at = 0; at < bytes.length; ) {
+                    room(buffer, 1, out);
+                    int length = Math.min(buffer.remaining(), bytes.length - at);
+                    buffer.put(bytes, at, length);
+                    at += length;
+                }
+            }
+            drain(buffer, out);
+            buffer.putInt(MAGIC).putInt(VERSION).putLong(generation).putInt(Inventory.getPartIdSequence())
+                    .putInt(Inventory.getProductIdSequence()).putInt(partCount).putInt(productList.size())
+                    .putInt(table.encoded.size()).putInt(0).putLong(linkCount).putLong(stringBytes)
+                    .put(new byte[HEADER_BYTES - 56]);
+            buffer.flip();
+            for (long at = 0; buffer.hasRemaining(); ) {
+                at += out.write(buffer, at);
+            }
+            out.force(true);
+        }
+    }
+    /**
+     * Loads every part and product of the snapshot into Inventory and moves the ID sequences past the IDs handed
+     * out before the snapshot was written.
+     * @throws IllegalStateException if the inventory is not empty.
+     */
+    public void load() {
+        if (Inventory.getPartStore().size() > 0 || Inventory.getProductStore().size() > 0) {
+            throw new IllegalStateException("A snapshot can only be loaded while the inventory is empty.");
+        }
+        List<Part> batch = new ArrayList<>(Math.min(partCount, LOAD_BATCH));
+        for (int i = 0; i < partCount; i++) {
+            batch.add(getPart(i));
+            if (batch.size() == LOAD_BATCH) {
+                Inventory.addAllParts(batch);
+                batch.clear();
+            }
+        }
+        Inventory.addAllParts(batch);
+        // Components may come later in the snapshot, so they are linked once every product is in inventory.
+        List<Product> loaded = new ArrayList<>(productCount);
+        List<Product> products = new ArrayList<>(Math.min(productCount, LOAD_BATCH));
+        for (int i = 0; i < productCount; i++) {
+            Product product = getProduct(i);
+            products.add(product);
+            loaded.add(product);
+            if (products.size() == LOAD_BATCH) {
+                Inventory.addAllProducts(products);
+                products.clear();
+            }
+        }
+        Inventory.addAllProducts(products);
+        for (int i = 0; i < productCount; i++) {
+            for (int id : getComponentIds(i)) {
+                Product component = Inventory.lookupProduct(id);
+                if (component != null) {
+                    loaded.get(i).addComponent(component);
+                }
+            }
+        }
+        Inventory.restoreIdSequences(lastPartId, lastProductId);
+    }
+    /**
+     * Gets the generation recorded in the snapshot.
+     * @return the generation.
+     */
+    public long getGeneration() {
+        return generation;
+    }
+    /**
+     * Number of parts in the snapshot.
+     * @return the part count.
+     */
+    public int getPartCount() {
+        return partCount;
+    }
+    /**
+     * Number of products in the snapshot.
+     * @return the product count.
+     */
+    public int getProductCount() {
+        return productCount;
+    }
+    /**
+     * Builds a part from its record. Every call builds a new object.
+     * @param index the position of the part in the snapshot.
+     * @return an InHouse or Outsourced part.
+     */
+    public Part getPart(int index) {
+        int at = record(index, partCount, PART_BYTES);
+        double price = parts.getDouble(at);
+        int id = parts.getInt(at + 8);
+        String name = string(parts.getInt(at + 12));
+        int stock = parts.getInt(at + 16);
+        int min = parts.getInt(at + 20);
+        int max = parts.getInt(at + 24);
+        int extra = parts.getInt(at + 28);
+        if (parts.get(at + 32) == IN_HOUSE) {
+            return new InHouse(id, name, price, stock, min, max, extra);
+        }
+        return new Outsourced(id, name, price, stock, min, max, string(extra));
+    }
+    /**
+     * Gets the ID of a part without building it.
+     * @param index the position of the part in the snapshot.
+     * @return the part ID.
+     */
+    public int getPartId(int index) {
+        return parts.getInt(record(index, partCount, PART_BYTES) + 8);
+    }
+    /**
+     * Gets a read-only list of the snapshot's parts that builds each part when it is read.
+     * @return the parts, in the order they were written.
+     */
+    public List<Part> parts() {
+        return new AbstractList<Part>() {
+            @Override
+            public Part get(int index) {
+                return getPart(index);
+            }
+            @Override
+            public int size() {
+                return partCount;
+            }
+        };
+    }
+    /**
+     * Builds a product from its record. Its associated parts are looked up in Inventory by ID; parts not in
+     * inventory are left out, as are the components, which getComponentIds lists.
+     * @param index the position of the product in the snapshot.
+     * @return a new product.
+     */
+    public Product getProduct(int index) {
+        int at = record(index, productCount, PRODUCT_BYTES);
+        Product product = new Product(products.getInt(at + 8), string(products.getInt(at + 12)),
+                products.getDouble(at), products.getInt(at + 16), products.getInt(at + 20), products.getInt(at + 24));
+        for (int id : getPartIds(index)) {
+            Part part = Inventory.lookupPart(id);
+            if (part != null) {
+                product.addAssociatedPart(part);
+            }
+        }
+        return product;
+    }
+    /**
+     * Gets the IDs of a product's associated parts, one per listing.
+     * @param index the position of the product in the snapshot.
+     * @return the part IDs.
+     */
+    public int[] getPartIds(int index) {
+        int at = record(index, productCount, PRODUCT_BYTES);
+        return linkedIds(products.getLong(at + 40), products.getInt(at + 28));
+    }
+    /**
+     * Gets the IDs of a product's components, one per listing.
+     * @param index the position of the product in the snapshot.
+     * @return the product IDs.
+     */
+    public int[] getComponentIds(int index) {
+        int at = record(index, productCount, PRODUCT_BYTES);
+        return linkedIds(products.getLong(at + 40) + products.getInt(at + 28), products.getInt(at + 32));
+    }
+    /**
+     * Gets a read-only list of the snapshot's products that builds each product when it is read.
+     * @return the products, in the order they were written.
+     */
+    public List<Product> products() {
+        return new AbstractList<Product>() {
+            @Override
+            public Product get(int index) {
+                return getProduct(index);
+            }
+            @Override
+            public int size() {
+                return productCount;
+            }
+        };
+    }
+    /**
+     * Finds the position of a record in its section.
+     */
+    private int record(int index, int count, int size) {
+        if (index < 0 || index >= count) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of " + count);
+        }
+        return index * size;
+    }
+    /**
+     * Reads IDs out of the links.
+     */
+    private int[] linkedIds(long start, int count) {
+        if (start < 0 || count < 0 || 4 * (start + count) > links.capacity()) {
+            throw new IllegalStateException(file + " is damaged.");
+        }
+        int[] ids = new int[count];
+        for (int i = 0; i < count; i++) {
+            ids[i] = links.getInt((int) (4 * (start + i)));
+        }
+        return ids;
+    }
+    /**
+     * Decodes a string of the string table, or returns it if it was decoded before.
+     */
+    private String string(int index) {
+        if (index == NULL_STRING) {
+            return null;
+        }
+        String text = strings[index];
+        if (text == null) {
+            int start = stringOffsets.getInt(4 * index);
+            byte[] bytes = new byte[stringOffsets.getInt(4 * index + 4) - start];
+            stringData.duplicate().position(start).get(bytes);
+            text = new String(bytes, StandardCharsets.UTF_8);
+            // Strings are immutable, so threads racing here at worst decode the same string twice.
+            strings[index] = text;
+        }
+        return text;
+    }
+    /**
+     * Maps a section of a file read-only, in the snapshot's byte order.
+     */
+    private static ByteBuffer map(FileChannel in, long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("A section of the snapshot is larger than 2 GB.");
+        }
+        return in.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+    }
+    /**
+     * Rounds a file position up to a multiple of 8.
+     */
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+    /**
+     * Makes room for more bytes in the write buffer, writing it out if needed.
+     */
+    private static void room(ByteBuffer buffer, int bytes, FileChannel out) throws IOException {
+        if (buffer.remaining() < bytes) {
+            drain(buffer, out);
+        }
+    }
+    /**
+     * Writes out and empties the write buffer.
+     */
+    private static void drain(ByteBuffer buffer, FileChannel out) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * The distinct strings of a snapshot being written, in the order they were first met.
+     */
+    private static final class StringTable {
+        /**
+         * Index of each string met.
+         */
+        final Map<String, Integer> indexes = new HashMap<>();
+        /**
+         * UTF-8 bytes of the strings, by index.
+         */
+        final List<byte[]> encoded = new ArrayList<>();
+
+        /**
+         * Gets the index of a string, adding it to the table when first met.
+         */
+        int indexOf(String text) {
+            if (text == null) {
+                return NULL_STRING;
+            }
+            Integer index = indexes.get(text);
+            if (index == null) {
+                index = encoded.size();
+                indexes.put(text, index);
+                encoded.add(text.getBytes(StandardCharsets.UTF_8));
+            }
+            return index;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package Models;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Supplied class InventoryStore.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryStore Interface. The storage engine behind the static Inventory API, holding the parts or the products
+ * in list order together with their ID index. Implementations do not depend on JavaFX; observable views for the
+ * screens are layered on top through {@link StoreListener}.
+ * @param <T> the type of the stored items.
+ */
+public interface InventoryStore<T> extends Iterable<T> {
+    /**
+     * Adds an item at the end of the store.
+     * @param item the item to add.
+     */
+    void add(T item);
+    /**
+     * Adds several items at the end of the store, notifying listeners once.
+     * @param items the items to add.
+     */
+    void addAll(Collection<? extends T> items);
+    /**
+     * Gets the item at a position.
+     * @param index the position.
+     * @return the item.
+     */
+    T get(int index);
+    /**
+     * Replaces the item at a position.
+     * @param index the position.
+     * @param item the replacement.
+     * @return the replaced item.
+     */
+    T set(int index, T item);
+    /**
+     * Replaces the stored item that has the same ID as the given item, keeping its position.
+     * @param item the replacement.
+     * @return the replaced item, null if no stored item has that ID.
+     */
+    T replace(T item);
+    /**
+     * Removes an item, compared by identity. The last item may be moved into the freed position.
+     * @param item the item to remove.
+     * @return true if the item was in the store.
+     */
+    boolean remove(T item);
+    /**
+     * Finds the position of an item, compared by identity.
+     * @param item the item.
+     * @return the position, -1 if the item is not in the store.
+     */
+    int indexOf(T item);
+    /**
+     * Checks if an item is in the store and is the one its ID maps to, compared by identity.
+     * @param item the item.
+     * @return true if stored.
+     */
+    boolean contains(T item);
+    /**
+     * Finds an item by ID.
+     * @param id the ID.
+     * @return the item, null if none has that ID.
+     */
+    T findById(int id);
+    /**
+     * Moves a stored item to its new ID in the ID index after its ID changed.
+     * @param item the changed item.
+     * @param oldId the ID before the change.
+     * @return true if the item is in the store.
+     */
+    boolean rekey(T item, int oldId);
+    /**
+     * Number of items in the store.
+     * @return the size.
+     */
+    int size();
+    /**
+     * Removes every item.
+     */
+    void clear();
+    /**
+     * Gets a read-only list of the items that later changes do not affect, for readers on other threads. Stores
+     * that are not thread-safe, like ArrayStore, may return a live view instead, since they are only used from
+     * one thread.
+     * @return the items.
+     */
+    List<T> snapshot();
+    /**
+     * Tells whether the store copies items in and hands out its own objects for them, so the items given to it
+     * are not the ones read back. Inventory keeps no search index over such a store.
+     * @return true if items are stored by value, false by default.
+     */
+    default boolean storesByValue() {
+        return false;
+    }
+    /**
+     * Registers a listener for changes to the store.
+     * @param listener the listener.
+     */
+    void addListener(StoreListener<? super T> listener);
+    /**
+     * Unregisters a listener.
+     * @param listener the listener.
+     */
+    void removeListener(StoreListener<? super T> listener);
+}
@@ -0,0 +1,93 @@
+package Models;
+
+/**
+ * Supplied class InventoryTotals.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryTotals Class. The parts or the products in inventory, summed up: how many there are, their total
+ * inventory level, the value of that stock, and how many are below their minimum level. Totals are immutable;
+ * Inventory keeps the current totals up to date as items change and hands them out in constant time.
+ */
+public class InventoryTotals {
+    /**
+     * Totals of no items.
+     */
+    static final InventoryTotals NONE = new InventoryTotals(0, 0, 0, 0);
+    /**
+     * Number of items.
+     */
+    private final int count;
+    /**
+     * Sum of the items' inventory levels.
+     */
+    private final long totalStock;
+    /**
+     * Sum of each item's inventory level times its price, in cents.
+     */
+    private final long stockValueCents;
+    /**
+     * Number of items whose inventory level is below their minimum.
+     */
+    private final int belowMinCount;
+
+    /**
+     * Creates totals.
+     * @param count the number of items.
+     * @param totalStock the sum of the inventory levels.
+     * @param stockValueCents the stock value in cents.
+     * @param belowMinCount the number of items below their minimum.
+     */
+    InventoryTotals(int count, long totalStock, long stockValueCents, int belowMinCount) {
+        this.count = count;
+        this.totalStock = totalStock;
+        this.stockValueCents = stockValueCents;
+        this.belowMinCount = belowMinCount;
+    }
+    /**
+     * Gets the number of items.
+     * @return the item count.
+     */
+    public int getCount() {
+        return count;
+    }
+    /**
+     * Gets the total inventory level.
+     * @return the sum of the items' stock.
+     */
+    public long getTotalStock() {
+        return totalStock;
+    }
+    /**
+     * Gets the value of the stock, each item's price rounded to the cent.
+     * @return the sum of stock times price.
+     */
+    public double getStockValue() {
+        return stockValueCents / 100.0;
+    }
+    /**
+     * Gets the value of the stock in cents, exact however many changes were summed up.
+     * @return the sum of stock times price in cents.
+     */
+    public long getStockValueCents() {
+        return stockValueCents;
+    }
+    /**
+     * Gets the number of items whose inventory level is below their minimum.
+     * @return the count of items with stock less than min.
+     */
+    public int getBelowMinCount() {
+        return belowMinCount;
+    }
+    /**
+     * Adds two totals, for example the parts' and the products'.
+     * @param other the other totals.
+     * @return the combined totals.
+     */
+    public InventoryTotals plus(InventoryTotals other) {
+        return new InventoryTotals(count + other.count, totalStock + other.totalStock,
+                stockValueCents + other.stockValueCents, belowMinCount + other.belowMinCount);
+    }
+}
@@ -0,0 +1,189 @@
+package Models;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supplied class JsonReader.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * JsonReader Class. Reads JSON values one token at a time from a Reader, so large documents are never held in
+ * memory as a whole. Objects are read into maps whose values are strings, number literals kept as strings, lists,
+ * nested maps or null.
+ */
+public class JsonReader {
+    /**
+     * The JSON text.
+     */
+    private final Reader reader;
+    /**
+     * Characters of the string or literal being read.
+     */
+    private final StringBuilder text = new StringBuilder();
+    /**
+     * Character read ahead, -2 if none.
+     */
+    private int next = -2;
+
+    /**
+     * Creates a reader of JSON text.
+     * @param reader the text.
+     */
+    public JsonReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader ? reader : new BufferedReader(reader);
+    }
+
+    /**
+     * Returns the next character that is not white space, without consuming it.
+     * @return the character, -1 at the end of the text.
+     * @throws IOException if the text cannot be read.
+     */
+    public int peek() throws IOException {
+        if (next == -2 || Character.isWhitespace(next)) {
+            int c = next == -2 ? reader.read() : next;
+            while (c != -1 && Character.isWhitespace(c)) {
+                c = reader.read();
+            }
+            next = c;
+        }
+        return next;
+    }
+
+    private int read() throws IOException {
+        int c = peek();
+        next = -2;
+        return c;
+    }
+
+    /**
+     * Consumes a character, skipping white space before it.
+     * @param expected the character.
+     * @throws IOException if another character or the end of the text comes first.
+     */
+    public void expect(char expected) throws IOException {
+        int c = read();
+        if (c != expected) {
+            throw new IOException("Expected '" + expected + "' in JSON but found "
+                    + (c == -1 ? "end of text" : "'" + (char) c + "'"));
+        }
+    }
+
+    /**
+     * Consumes a comma between elements.
+     * @param close the character closing the array or object.
+     * @return true if another element follows, false if the closing character is next.
+     * @throws IOException if neither comes next.
+     */
+    public boolean comma(char close) throws IOException {
+        int c = peek();
+        if (c == ',') {
+            read();
+            return true;
+        }
+        if (c != close) {
+            throw new IOException("Expected ',' or '" + close + "' in JSON.");
+        }
+        return false;
+    }
+
+    /**
+     * Reads an object.
+     * @return the fields of the object.
+     * @throws IOException if the text is not a JSON object.
+     */
+    public Map<String, Object> readObject() throws IOException {
+        Map<String, Object> object = new HashMap<>();
+        expect('{');
+        if (peek() != '}') {
+            do {
+                String key = readString();
+                expect(':');
+                object.put(key, readValue());
+            } while (comma('}'));
+        }
+        expect('}');
+        return object;
+    }
+
+    /**
+     * Reads any value.
+     * @return a string, number literal, list, map or null.
+     * @throws IOException if the text is not a JSON value.
+     */
+    public Object readValue() throws IOException {
+        int c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        if (c == '{') {
+            return readObject();
+        }
+        if (c == '[') {
+            List<Object> list = new ArrayList<>();
+            read();
+            if (peek() != ']') {
+                do {
+                    list.add(readValue());
+                } while (comma(']'));
+            }
+            expect(']');
+            return list;
+        }
+        text.setLength(0);
+        next = -2;
+        while (c != -1 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+            text.append((char) c);
+            c = reader.read();
+        }
+        next = c;
+        String literal = text.toString();
+        if (literal.isEmpty()) {
+            throw new IOException("Expected a JSON value.");
+        }
+        return literal.equals("null") ? null : literal;
+    }
+
+    /**
+     * Reads a string.
+     * @return the string, unescaped.
+     * @throws IOException if the text is not a JSON string.
+     */
+    public String readString() throws IOException {
+        expect('"');
+        text.setLength(0);
+        for (int c = reader.read(); c != '"'; c = reader.read()) {
+            if (c == -1) {
+                throw new IOException("Unterminated JSON string.");
+            }
+            if (c == '\\') {
+                c = reader.read();
+                switch (c) {
+                    case 'n': text.append('\n'); break;
+                    case 't': text.append('\t'); break;
+                    case 'r': text.append('\r'); break;
+                    case 'b': text.append('\b'); break;
+                    case 'f': text.append('\f'); break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            hex[i] = (char) reader.read();
+                        }
+                        text.append((char) Integer.parseInt(new String(hex), 16));
+                        break;
+                    default: text.append((char) c);
+                }
+            } else {
+                text.append((char) c);
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,262 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Supplied class LiveSearch.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * LiveSearch Class. Runs the "ID or name contains the text" search while the user types, on a background thread.
+ * <p>A query only starts once the text has stopped changing for the debounce delay, and every new query makes the
+ * ones before it stale: a stale query stops filtering as soon as it notices and its results are never delivered.
+ * When the new text contains the text of the last completed query and inventory has not changed since, every match
+ * of the new text is among the last results, so those are filtered instead of searching the whole inventory
+ * again.</p>
+ * <p>Results are handed to the delivery executor, for the screens Platform::runLater, and delivered only if no
+ * newer query was made in the meantime. LiveSearch has no JavaFX dependency itself.</p>
+ * <p>A live search watches Inventory and keeps its worker thread until it is closed.</p>
+ * @param <T> the type of the searched items.
+ */
+public class LiveSearch<T> implements AutoCloseable {
+    /**
+     * Milliseconds the text must stay unchanged before a query starts, unless another delay is given.
+     */
+    public static final long DEFAULT_DELAY_MILLIS = 200;
+    /**
+     * Number of items filtered between checks for a newer query.
+     */
+    private static final int CHECK_INTERVAL = 1024;
+    /**
+     * Searches the whole inventory.
+     */
+    private final Function<String, List<T>> search;
+    /**
+     * Reads the ID of an item.
+     */
+    private final ToIntFunction<T> idOf;
+    /**
+     * Reads the name of an item.
+     */
+    private final Function<T, String> nameOf;
+    /**
+     * Runs the result callbacks.
+     */
+    private final Executor delivery;
+    /**
+     * Milliseconds the text must stay unchanged before a query starts.
+     */
+    private final long delayMillis;
+    /**
+     * Runs the queries, one at a time.
+     */
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "live-search");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Number of the latest query; a query with a lower number is stale.
+     */
+    private final AtomicLong generation = new AtomicLong();
+    /**
+     * Number of changes made to inventory, so results from before a change are not narrowed.
+     */
+    private final AtomicLong inventoryVersion = new AtomicLong();
+    /**
+     * Counts inventory changes while the live search is open.
+     */
+    private final InventoryListener inventoryListener;
+    /**
+     * The query waiting for its debounce delay, if any.
+     */
+    private ScheduledFuture<?> pending;
+    /**
+     * Text, results and inventory version of the last completed query, replaced as a whole.
+     */
+    private volatile Completed<T> last;
+
+    /**
+     * Creates a live search with the default debounce delay.
+     * @param search searches the whole inventory, such as Inventory::searchParts.
+     * @param idOf reads the ID of an item.
+     * @param nameOf reads the name of an item.
+     * @param delivery runs the result callbacks, such as Platform::runLater.
+     */
+    public LiveSearch(Function<String, List<T>> search, ToIntFunction<T> idOf, Function<T, String> nameOf,
+                      Executor delivery) {
+        this(search, idOf, nameOf, delivery, DEFAULT_DELAY_MILLIS);
+    }
+    /**
+     * Creates a live search.
+     * @param search searches the whole inventory, such as Inventory::searchParts.
+     * @param idOf reads the ID of an item.
+     * @param nameOf reads the name of an item.
+     * @param delivery runs the result callbacks, such as Platform::runLater.
+     * @param delayMillis milliseconds the text must stay unchanged before a query starts.
+     */
+    public LiveSearch(Function<String, List<T>> search, ToIntFunction<T> idOf, Function<T, String> nameOf,
+                      Executor delivery, long delayMillis) {
+        this.search = search;
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+        this.delivery = delivery;
+        this.delayMillis = delayMillis;
+        inventoryListener = new InventoryListener() {
+            @Override
+            public void partAdded(Part part) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void partsAdded(Collection<? extends Part> parts) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void partUpdated(Part old, Part part) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void partIdChanged(Part part, int oldId) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void partRemoved(Part part) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void productAdded(Product product) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void productsAdded(Collection<? extends Product> products) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void productUpdated(Product old, Product product) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void productIdChanged(Product product, int oldId) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void productRemoved(Product product) {
+                inventoryVersion.incrementAndGet();
+            }
+            @Override
+            public void cleared() {
+                inventoryVersion.incrementAndGet();
+            }
+        };
+        Inventory.addListener(inventoryListener);
+    }
+    /**
+     * Starts a query once the debounce delay has passed without another query, making every earlier query stale.
+     * Does nothing once the live search is closed.
+     * @param text the text to search for.
+     * @param onResults receives the matching items, through the delivery executor, unless the query goes stale.
+     */
+    public synchronized void query(String text, Consumer<List<T>> onResults) {
+        long query = generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+        }
+        if (worker.isShutdown()) {
+            return;
+        }
+        pending = worker.schedule(() -> run(query, text, onResults), delayMillis, TimeUnit.MILLISECONDS);
+    }
+    /**
+     * Makes every query made so far stale, so none of them delivers results.
+     */
+    public synchronized void cancel() {
+        generation.incrementAndGet();
+        if (pending != null) {
+            pending.cancel(false);
+            pending = null;
+        }
+    }
+    /**
+     * Stops watching Inventory and stops the worker thread. Queries not yet delivered never are.
+     */
+    @Override
+    public synchronized void close() {
+        cancel();
+        Inventory.removeListener(inventoryListener);
+        worker.shutdownNow();
+    }
+    /**
+     * Runs a query on the worker thread and hands its results to the delivery executor.
+     */
+    private void run(long query, String text, Consumer<List<T>> onResults) {
+        if (generation.get() != query) {
+            return;
+        }
+        long version = inventoryVersion.get();
+        Completed<T> previous = last;
+        List<T> results;
+        if (previous != null && previous.version == version && text.contains(previous.text)) {
+            results = narrow(previous.results, text, query);
+        } else {
+            results = search.apply(text);
+        }
+        if (results == null || generation.get() != query) {
+            return;
+        }
+        last = new Completed<>(text, results, version);
+        delivery.execute(() -> {
+            if (generation.get() == query) {
+                onResults.accept(results);
+            }
+        });
+    }
+    /**
+     * Filters the results of an earlier query down to the items matching a longer text.
+     * @return the matching items, or null if the query went stale while filtering.
+     */
+    private List<T> narrow(List<T> candidates, String text, long query) {
+        List<T> results = new ArrayList<>();
+        for (int i = 0; i < candidates.size(); i++) {
+            if (i % CHECK_INTERVAL == 0 && generation.get() != query) {
+                return null;
+            }
+            T item = candidates.get(i);
+            String name = nameOf.apply(item);
+            if (String.valueOf(idOf.applyAsInt(item)).contains(text) || (name != null && name.contains(text))) {
+                results.add(item);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * A completed query.
+     */
+    private static final class Completed<T> {
+        final String text;
+        final List<T> results;
+        /**
+         * Inventory version the query ran against.
+         */
+        final long version;
+
+        Completed(String text, List<T> results, long version) {
+            this.text = text;
+            this.results = results;
+            this.version = version;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supplied class MachineIndex.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * MachineIndex Class. An index from machine ID to the in-house parts in inventory made on that machine, with the
+ * machine's part count, total stock and stock value kept up to date as parts are added, changed and removed.
+ * <p>Parts are indexed by ID, like VendorIndex. The machine, stock and price each part was last indexed with are
+ * kept, so a change only subtracts the part's old contribution from its machine's totals and adds the new one;
+ * prices are summed in whole cents so the totals never drift. Totals are immutable and published in a concurrent
+ * map, so reading them never waits and costs the same however many parts a machine has.</p>
+ * <p>Changes are made by Inventory under its lock; listing a machine's parts copies their IDs under the index's
+ * own monitor.</p>
+ */
+class MachineIndex {
+    /**
+     * Current totals of each machine with parts in inventory.
+     */
+    private final ConcurrentHashMap<Integer, MachineTotals> totals = new ConcurrentHashMap<>();
+    /**
+     * Part IDs made on each machine.
+     */
+    private final IntHashMap<IdSet> partsByMachine = new IntHashMap<>();
+    /**
+     * Slot holding what each indexed part ID was last indexed with.
+     */
+    private final IntIntHashMap slotOf = new IntIntHashMap();
+    /**
+     * Machine of each slot.
+     */
+    private int[] machineOf = new int[64];
+    /**
+     * Inventory level of each slot.
+     */
+    private int[] stockOf = new int[64];
+    /**
+     * Price in cents of each slot.
+     */
+    private long[] centsOf = new long[64];
+    /**
+     * Slots freed by removed parts, reused before new ones.
+     */
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    /**
+     * Next slot never used.
+     */
+    private int nextSlot;
+
+    /**
+     * Indexes a part's current machine, stock and price, replacing what it was indexed with before. Parts that are
+     * not in-house are not indexed.
+     * @param part the part, added to inventory or changed.
+     */
+    synchronized void update(Part part) {
+        if (!(part instanceof InHouse)) {
+            remove(part.getId());
+            return;
+        }
+        int id = part.getId();
+        int machine = ((InHouse) part).getMachineId();
+        int stock = part.getStock();
+        long cents = Math.round(part.getPrice() * 100);
+        int slot = slotOf.get(id);
+        if (slot == IntIntHashMap.MISSING) {
+            slot = allocate();
+            slotOf.put(id, slot);
+            partsOf(machine).add(id);
+            add(machine, 1, stock, stock * cents);
+        } else if (machineOf[slot] == machine) {
+            if (stockOf[slot] == stock && centsOf[slot] == cents) {
+                return;
+            }
+            add(machine, 0, stock - stockOf[slot], stock * cents - stockOf[slot] * centsOf[slot]);
+        } else {
+            subtract(slot);
+            partsByMachine.get(machineOf[slot]).remove(id);
+            dropIfEmpty(machineOf[slot]);
+            partsOf(machine).add(id);
+            add(machine, 1, stock, stock * cents);
+        }
+        machineOf[slot] = machine;
+        stockOf[slot] = stock;
+        centsOf[slot] = cents;
+    }
+    /**
+     * Removes a part ID from the index.
+     * @param partId the ID of the part leaving inventory, or the ID a part had before it changed.
+     */
+    synchronized void remove(int partId) {
+        int slot = slotOf.remove(partId);
+        if (slot == IntIntHashMap.MISSING) {
+            return;
+        }
+        subtract(slot);
+        partsByMachine.get(machineOf[slot]).remove(partId);
+        dropIfEmpty(machineOf[slot]);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    /**
+     * Removes every part.
+     */
+    synchronized void clear() {
+        totals.clear();
+        partsByMachine.clear();
+        slotOf.clear();
+        freeCount = 0;
+        nextSlot = 0;
+    }
+    /**
+     * Gets the totals of a machine.
+     * @param machineId the machine ID.
+     * @return the totals, all zero if no part in inventory is made on the machine.
+     */
+    MachineTotals totals(int machineId) {
+        return totals.getOrDefault(machineId, MachineTotals.NONE);
+    }
+    /**
+     * Gets the machines with parts in inventory.
+     * @return a live view of the machine IDs.
+     */
+    Set<Integer> machines() {
+        return totals.keySet();
+    }
+    /**
+     * Gets the IDs of the parts made on a machine.
+     * @param machineId the machine ID.
+     * @return the part IDs, in no particular order.
+     */
+    synchronized int[] partIds(int machineId) {
+        IdSet ids = partsByMachine.get(machineId);
+        return ids == null ? new int[0] : ids.toArray();
+    }
+    /**
+     * Takes a slot's part out of its machine's totals.
+     */
+    private void subtract(int slot) {
+        add(machineOf[slot], -1, -stockOf[slot], -stockOf[slot] * centsOf[slot]);
+    }
+    /**
+     * Publishes a machine's totals changed by the given amounts, in one step so readers never see half a change.
+     */
+    private void add(int machine, int count, long stock, long cents) {
+        MachineTotals current = totals.getOrDefault(machine, MachineTotals.NONE);
+        totals.put(machine, new MachineTotals(current.getCount() + count, current.getTotalStock() + stock,
+                current.getStockValueCents() + cents));
+    }
+    /**
+     * Forgets a machine once its last part is gone.
+     */
+    private void dropIfEmpty(int machine) {
+        if (partsByMachine.get(machine).size() == 0) {
+            partsByMachine.remove(machine);
+            totals.remove(machine);
+        }
+    }
+    /**
+     * Gets the part IDs of a machine, creating the set for a new machine.
+     */
+    private IdSet partsOf(int machine) {
+        IdSet ids = partsByMachine.get(machine);
+        if (ids == null) {
+            ids = new IdSet();
+            partsByMachine.put(machine, ids);
+        }
+        return ids;
+    }
+    /**
+     * Hands out a free slot, growing the arrays when none is left.
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == machineOf.length) {
+            machineOf = Arrays.copyOf(machineOf, nextSlot * 2);
+            stockOf = Arrays.copyOf(stockOf, nextSlot * 2);
+            centsOf = Arrays.copyOf(centsOf, nextSlot * 2);
+        }
+        return nextSlot++;
+    }
+}
@@ -0,0 +1,71 @@
+package Models;
+
+/**
+ * Supplied class MachineTotals.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * MachineTotals Class. The in-house parts in inventory made on one machine, summed up: how many parts there are,
+ * their total inventory level, and the value of that stock. Totals are immutable; Inventory hands out the current
+ * totals of a machine in constant time and replaces them whenever one of its parts changes.
+ */
+public class MachineTotals {
+    /**
+     * Totals of a machine without parts.
+     */
+    static final MachineTotals NONE = new MachineTotals(0, 0, 0);
+    /**
+     * Number of parts made on the machine.
+     */
+    private final int count;
+    /**
+     * Sum of the parts' inventory levels.
+     */
+    private final long totalStock;
+    /**
+     * Sum of each part's inventory level times its price, in cents.
+     */
+    private final long stockValueCents;
+
+    /**
+     * Creates the totals of a machine.
+     * @param count the number of parts.
+     * @param totalStock the sum of the inventory levels.
+     * @param stockValueCents the stock value in cents.
+     */
+    MachineTotals(int count, long totalStock, long stockValueCents) {
+        this.count = count;
+        this.totalStock = totalStock;
+        this.stockValueCents = stockValueCents;
+    }
+    /**
+     * Gets the number of parts made on the machine.
+     * @return the part count.
+     */
+    public int getCount() {
+        return count;
+    }
+    /**
+     * Gets the total inventory level of the parts made on the machine.
+     * @return the sum of the parts' stock.
+     */
+    public long getTotalStock() {
+        return totalStock;
+    }
+    /**
+     * Gets the value of the stock of the parts made on the machine, each part's price rounded to the cent.
+     * @return the sum of stock times price.
+     */
+    public double getStockValue() {
+        return stockValueCents / 100.0;
+    }
+    /**
+     * Gets the value of the stock in cents, exact however many changes were summed up.
+     * @return the sum of stock times price in cents.
+     */
+    public long getStockValueCents() {
+        return stockValueCents;
+    }
+}
@@ -0,0 +1,158 @@
+package Models;
+
+import javafx.application.Platform;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Supplied class ObservableStoreList.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ObservableStoreList Class. A read-only ObservableList view of an InventoryStore for the screens' table views.
+ * It reads from a snapshot of the store a page at a time and turns each store change into one JavaFX list change, so
+ * the store only pays for JavaFX events while a view is attached.
+ * <p>JavaFX lists may only change on the JavaFX application thread. Changes made there are reported one by one;
+ * changes made on other threads are gathered into a single refresh of the whole list, run later on the JavaFX
+ * thread. Until then the view keeps showing the snapshot it last reported.</p>
+ * <p>While suspended, for a batch of changes committed together, the view reports nothing and then reports the whole
+ * batch as one refresh when resumed.</p>
+ * @param <T> the type of the stored items.
+ */
+public class ObservableStoreList<T> extends PagedList<T> implements StoreListener<T> {
+    /**
+     * The store being viewed.
+     */
+    private final InventoryStore<T> store;
+    /**
+     * True while a refresh for changes made on other threads waits for the JavaFX thread.
+     */
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    /**
+     * Number of batches in progress; changes are only reported once it is back to zero.
+     */
+    private int suspended;
+    /**
+     * True if the store changed while the view was suspended.
+     */
+    private boolean changedWhileSuspended;
+
+    /**
+     * Creates a view and attaches it to the store.
+     * @param store the store to view.
+     * @param <T> the type of the stored items.
+     * @return the view.
+     */
+    public static <T> ObservableStoreList<T> of(InventoryStore<T> store) {
+        ObservableStoreList<T> view = new ObservableStoreList<>(store);
+        store.addListener(view);
+        return view;
+    }
+    /**
+     * Creates a view of a store.
+     * @param store the store to view.
+     */
+    private ObservableStoreList(InventoryStore<T> store) {
+        super(store.snapshot());
+        this.store = store;
+    }
+    @Override
+    public void added(int from, int to) {
+        if (!isSuspended() && reportNow()) {
+            reset(store.snapshot());
+            beginChange();
+            nextAdd(from, to);
+            endChange();
+        }
+    }
+    @Override
+    public void removed(int index, T item) {
+        if (!isSuspended() && reportNow()) {
+            reset(store.snapshot());
+            beginChange();
+            if (index < size()) {
+                // The last item was moved into the freed position.
+                nextSet(index, item);
+                nextRemove(size(), get(index));
+            } else {
+                nextRemove(index, item);
+            }
+            endChange();
+        }
+    }
+    @Override
+    public void replaced(int index, T old) {
+        if (!isSuspended() && reportNow()) {
+            reset(store.snapshot());
+            beginChange();
+            nextSet(index, old);
+            endChange();
+        }
+    }
+    @Override
+    public void cleared(List<? extends T> items) {
+        if (!isSuspended() && reportNow()) {
+            reset(store.snapshot());
+            beginChange();
+            nextRemove(0, items);
+            endChange();
+        }
+    }
+    /**
+     * Stops reporting changes until resume is called as many times as suspend. Called with the store's writers
+     * locked out, like the store's own notifications.
+     */
+    void suspend() {
+        suspended++;
+    }
+    /**
+     * Ends a suspension, reporting every change made during it as one refresh of the whole list.
+     */
+    void resume() {
+        if (--suspended == 0 && changedWhileSuspended) {
+            changedWhileSuspended = false;
+            if (reportNow()) {
+                setSource(store.snapshot());
+            }
+        }
+    }
+    /**
+     * Tells whether the view is suspended, remembering that a change was held back if so.
+     */
+    private boolean isSuspended() {
+        if (suspended > 0) {
+            changedWhileSuspended = true;
+            return true;
+        }
+        return false;
+    }
+    /**
+     * Decides if a store change can be reported right away, scheduling a refresh on the JavaFX thread if not.
+     * @return true on the JavaFX thread with no refresh waiting, or when JavaFX is not running at all.
+     */
+    private boolean reportNow() {
+        if (Platform.isFxApplicationThread() && !refreshPending.get()) {
+            return true;
+        }
+        if (refreshPending.compareAndSet(false, true)) {
+            try {
+                Platform.runLater(this::refresh);
+            } catch (IllegalStateException e) {
+                // JavaFX was never started, so no screen shows this list.
+                refreshPending.set(false);
+                return true;
+            }
+        }
+        return false;
+    }
+    /**
+     * Reports every change made since the last report as a replacement of the whole list.
+     */
+    private void refresh() {
+        refreshPending.set(false);
+        setSource(store.snapshot());
+    }
+}
@@ -0,0 +1,878 @@
+package Models;
+
+import java.nio.ByteBuffer;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Supplied class OffHeapPartStore.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * OffHeapPartStore Class. An InventoryStore for parts that keeps the parts' fields in columns outside the Java
+ * heap instead of as one object per part, for inventories of many millions of parts.
+ * <p>Each part is a record of int and double columns in direct memory blocks of 65,536 records, with its name and
+ * company name stored as codes into OffHeapStrings dictionaries. A record takes 37 bytes plus its name; the store
+ * creates no object per part, so the garbage collector has a few large arrays to trace however many parts there
+ * are. The heap holds only the position-to-record pages and the ID index, both primitive arrays.</p>
+ * <p>Parts are stored by value. The part passed to add is copied into a new record, and get, findById and
+ * iteration hand out flyweight views: small InHouse or Outsourced objects that read and write their record. Two
+ * views of the same record are equal, and only views count as being in the store. Replacing a part overwrites its
+ * record, so views of it show the new values, and the part returned as replaced is a plain copy of the old
+ * values.</p>
+ * <p>The record of a removed part goes on a free list and the next add reuses it, so direct memory stays at the
+ * most parts the store has held at once however many are deleted and added. Each record carries a generation that
+ * a reuse increments and each view remembers: a view of a removed part keeps its last values until the record is
+ * reused, and after that reading or writing through it throws IllegalStateException instead of showing the new
+ * part. A snapshot taken before the removal lists the new part in its place.</p>
+ * <p>Like ConcurrentStore, writers are serialized by a lock and publish an immutable snapshot of the positions, so
+ * readers never wait; lookups by ID read the ID index optimistically. Because Inventory's search index would hold
+ * an object per part, Inventory does not keep one for this store and answers part searches by scanning.</p>
+ */
+public class OffHeapPartStore implements InventoryStore<Part> {
+    /**
+     * Records per column block, as a power of two.
+     */
+    private static final int BLOCK_BITS = 16;
+    private static final int BLOCK = 1 << BLOCK_BITS;
+    /**
+     * Start of each column within a block, and the block size.
+     */
+    private static final int ID = 0, PRICE = 4 * BLOCK, STOCK = 12 * BLOCK, MIN = 16 * BLOCK, MAX = 20 * BLOCK,
+            MACHINE_OR_COMPANY = 24 * BLOCK, NAME = 28 * BLOCK, KIND = 32 * BLOCK, GENERATION = 33 * BLOCK,
+            BLOCK_BYTES = 37 * BLOCK;
+    /**
+     * Part kinds in the KIND column.
+     */
+    private static final byte IN_HOUSE = 0, OUTSOURCED = 1;
+    /**
+     * Positions per page of the position-to-record map, as a power of two.
+     */
+    private static final int PAGE_BITS = 11;
+    private static final int PAGE = 1 << PAGE_BITS;
+    /**
+     * The records since the store was created or last cleared.
+     */
+    private volatile Columns columns = new Columns();
+    /**
+     * The positions as of the last complete write.
+     */
+    private volatile Snapshot snapshot = new Snapshot(columns, new int[0][], 0);
+    /**
+     * Pages of the position-to-record map being written; pages not stamped with the current write are shared with
+     * a published snapshot and copied before they change.
+     */
+    private int[][] pages = new int[0][];
+    /**
+     * Write number that last copied or created each page.
+     */
+    private int[] pageStamps = new int[0];
+    /**
+     * Number of the write in progress.
+     */
+    private int stamp;
+    /**
+     * Number of parts.
+     */
+    private int size;
+    /**
+     * Position of each record, -1 once removed.
+     */
+    private int[] positionOf = new int[1024];
+    /**
+     * Primary-key index from part ID to record.
+     */
+    private final IntIntHashMap recordById = new IntIntHashMap();
+    /**
+     * Guards the ID index, which readers use without locking while no write is made.
+     */
+    private final StampedLock idLock = new StampedLock();
+    /**
+     * Serializes writers.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+    /**
+     * Registered listeners.
+     */
+    private final List<StoreListener<? super Part>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void add(Part item) {
+        lock.lock();
+        try {
+            stamp++;
+            append(item);
+            publish();
+            for (StoreListener<? super Part> listener : listeners) {
+                listener.added(size - 1, size);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public void addAll(Collection<? extends Part> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        lock.lock();
+        try {
+            stamp++;
+            int from = size;
+            for (Part item : items) {
+                append(item);
+            }
+            publish();
+            for (StoreListener<? super Part> listener : listeners) {
+                listener.added(from, size);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public Part get(int index) {
+        return snapshot.get(index);
+    }
+    @Override
+    public Part set(int index, Part item) {
+        lock.lock();
+        try {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            int record = pages[index >>> PAGE_BITS][index & (PAGE - 1)];
+            Part old = columns.copy(record);
+            long write = idLock.writeLock();
+            try {
+                if (recordById.get(old.getId()) == record) {
+                    recordById.remove(old.getId());
+                }
+                columns.write(record, item);
+                recordById.put(item.getId(), record);
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            for (StoreListener<? super Part> listener : listeners) {
+                listener.replaced(index, old);
+            }
+            return old;
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public Part replace(Part item) {
+        lock.lock();
+        try {
+            int record = recordOf(item.getId());
+            return record == IntIntHashMap.MISSING ? null : set(positionOf[record], item);
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public boolean remove(Part item) {
+        lock.lock();
+        try {
+            int index = indexOf(item);
+            if (index < 0) {
+                return false;
+            }
+            stamp++;
+            int record = ((View) item).record();
+            long write = idLock.writeLock();
+            try {
+                if (recordById.get(item.getId()) == record) {
+                    recordById.remove(item.getId());
+                }
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            int last = size - 1;
+            if (index != last) {
+                int moved = pages[last >>> PAGE_BITS][last & (PAGE - 1)];
+                writablePage(index)[index & (PAGE - 1)] = moved;
+                positionOf[moved] = index;
+            }
+            positionOf[record] = -1;
+            columns.free(record);
+            size = last;
+            publish();
+            for (StoreListener<? super Part> listener : listeners) {
+                listener.removed(index, item);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public int indexOf(Part item) {
+        if (!isLive(item)) {
+            return -1;
+        }
+        int record = ((View) item).record();
+        Snapshot current = snapshot;
+        int index = record < positionOf.length ? positionOf[record] : -1;
+        if (index >= 0 && index < current.size && current.record(index) == record) {
+            return index;
+        }
+        // Only a view read while a concurrent write moved its record gets here.
+        for (int i = 0; i < current.size; i++) {
+            if (current.record(i) == record) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    @Override
+    public boolean contains(Part item) {
+        return isLive(item) && recordOf(item.getId()) == ((View) item).record();
+    }
+    @Override
+    public Part findById(int id) {
+        Columns current = columns;
+        int record = recordOf(id);
+        return record == IntIntHashMap.MISSING ? null : current.view(record);
+    }
+    @Override
+    public boolean rekey(Part item, int oldId) {
+        if (!isLive(item)) {
+            return false;
+        }
+        lock.lock();
+        try {
+            long write = idLock.writeLock();
+            try {
+                if (recordById.get(oldId) != ((View) item).record()) {
+                    return false;
+                }
+                recordById.remove(oldId);
+                recordById.put(item.getId(), ((View) item).record());
+                return true;
+            } finally {
+                idLock.unlockWrite(write);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    @Override
+    public int size() {
+        return snapshot.size;
+    }
+    /**
+     * Removes every part and frees the records. Views handed out before keep reading the old records, which stay
+     * in memory until the last such view is gone.
+     */
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            List<Part> removed = snapshot;
+            long write = idLock.writeLock();
+            try {
+                recordById.clear();
+            } finally {
+                idLock.unlockWrite(write);
+            }
+            columns = new Columns();
+            pages = new int[0][];
+            pageStamps = new int[0];
+            positionOf = new int[1024];
+            size = 0;
+            publish();
+            for (StoreListener<? super Part> listener : listeners) {
+                listener.cleared(removed);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    /**
+     * Gets the parts as of the last complete write, in constant time.
+     * @return an immutable list of views that later writes do not reorder.
+     */
+    @Override
+    public List<Part> snapshot() {
+        return snapshot;
+    }
+    /**
+     * Always true: parts are copied into records and handed out as views.
+     */
+    @Override
+    public boolean storesByValue() {
+        return true;
+    }
+    @Override
+    public void addListener(StoreListener<? super Part> listener) {
+        listeners.add(listener);
+    }
+    @Override
+    public void removeListener(StoreListener<? super Part> listener) {
+        listeners.remove(listener);
+    }
+    @Override
+    public Iterator<Part> iterator() {
+        return snapshot.iterator();
+    }
+    /**
+     * Gets the bytes of direct memory used by the records and name dictionaries.
+     * @return the bytes allocated outside the heap.
+     */
+    public long offHeapBytes() {
+        return columns.offHeapBytes();
+    }
+    /**
+     * Checks that a part is a view of a record of this store that was not reused since the view was made.
+     */
+    private boolean isLive(Part item) {
+        if (!(item instanceof View)) {
+            return false;
+        }
+        View view = (View) item;
+        return view.columns() == columns && columns.getInt(view.record(), GENERATION) == view.generation();
+    }
+    /**
+     * Copies a part into a free or new record at the end of the list.
+     */
+    private void append(Part item) {
+        int record = columns.add(item);
+        if (record >= positionOf.length) {
+            positionOf = Arrays.copyOf(positionOf, Math.max(record + 1, positionOf.length * 2));
+        }
+        positionOf[record] = size;
+        writablePage(size)[size & (PAGE - 1)] = record;
+        size++;
+        long write = idLock.writeLock();
+        try {
+            recordById.put(item.getId(), record);
+        } finally {
+            idLock.unlockWrite(write);
+        }
+    }
+    /**
+     * Gets the page holding a position, copying it first if a published snapshot shares it.
+     */
+    private int[] writablePage(int index) {
+        int page = index >>> PAGE_BITS;
+        if (page >= pages.length) {
+            pages = Arrays.copyOf(pages, Math.max(page + 1, pages.length * 2));
+            pageStamps = Arrays.copyOf(pageStamps, pages.length);
+        }
+        if (pages[page] == null) {
+            pages[page] = new int[PAGE];
+            pageStamps[page] = stamp;
+        } else if (pageStamps[page] != stamp) {
+            pages[page] = pages[page].clone();
+            pageStamps[page] = stamp;
+        }
+        return pages[page];
+    }
+    /**
+     * Makes a write visible to readers.
+     */
+    private void publish() {
+        snapshot = new Snapshot(columns, Arrays.copyOf(pages, (size + PAGE - 1) >>> PAGE_BITS), size);
+    }
+    /**
+     * Looks up the record of a part ID without waiting for a writer.
+     */
+    private int recordOf(int id) {
+        long read = idLock.tryOptimisticRead();
+        if (read != 0) {
+            try {
+                int record = recordById.get(id);
+                if (idLock.validate(read)) {
+                    return record;
+                }
+            } catch (RuntimeException e) {
+                // The index was resized while it was read; read it again under the lock.
+            }
+        }
+        read = idLock.readLock();
+        try {
+            return recordById.get(id);
+        } finally {
+            idLock.unlockRead(read);
+        }
+    }
+
+    /**
+     * The column blocks and name dictionary of the records. Writes that may add to the dictionary are synchronized,
+     * since views write names without the store's lock.
+     */
+    private static final class Columns {
+        /**
+         * Column blocks, each holding BLOCK records.
+         */
+        private volatile ByteBuffer[] blocks = new ByteBuffer[0];
+        /**
+         * Number of records written.
+         */
+        private int records;
+        /**
+         * Records of removed parts, in the first freeCount slots, reused before new records are made.
+         */
+        private int[] free = new int[16];
+        private int freeCount;
+        /**
+         * Part names.
+         */
+        private final OffHeapStrings names = new OffHeapStrings();
+
+        /**
+         * Writes a part into a free record, moving it to the next generation, or else into a new record.
+         */
+        synchronized int add(Part part) {
+            if (freeCount > 0) {
+                int record = free[--freeCount];
+                putInt(record, GENERATION, getInt(record, GENERATION) + 1);
+                write(record, part);
+                return record;
+            }
+            int record = records;
+            if (record >>> BLOCK_BITS >= blocks.length) {
+                ByteBuffer[] grown = Arrays.copyOf(blocks, blocks.length + 1);
+                grown[blocks.length] = ByteBuffer.allocateDirect(BLOCK_BYTES);
+                blocks = grown;
+            }
+            write(record, part);
+            records++;
+            return record;
+        }
+        /**
+         * Puts the record of a removed part on the free list.
+         */
+        synchronized void free(int record) {
+            if (freeCount == free.length) {
+                free = Arrays.copyOf(free, freeCount * 2);
+            }
+            free[freeCount++] = record;
+        }
+        /**
+         * Overwrites a record with the fields of a part.
+         */
+        synchronized void write(int record, Part part) {
+            ByteBuffer block = blocks[record >>> BLOCK_BITS];
+            int slot = record & (BLOCK - 1);
+            block.putInt(ID + slot * 4, part.getId());
+            block.putDouble(PRICE + slot * 8, part.getPrice());
+            block.putInt(STOCK + slot * 4, part.getStock());
+            block.putInt(MIN + slot * 4, part.getMin());
+            block.putInt(MAX + slot * 4, part.getMax());
+            block.putInt(NAME + slot * 4, names.encode(part.getName()));
+            if (part instanceof Outsourced) {
+                block.putInt(MACHINE_OR_COMPANY + slot * 4, ((Outsourced) part).getCompanyCode());
+                block.put(KIND + slot, OUTSOURCED);
+            } else {
+                block.putInt(MACHINE_OR_COMPANY + slot * 4,
+                        part instanceof InHouse ? ((InHouse) part).getMachineId() : 0);
+                block.put(KIND + slot, IN_HOUSE);
+            }
+        }
+        /**
+         * Creates a view of a record.
+         */
+        Part view(int record) {
+            int generation = getInt(record, GENERATION);
+            return kind(record) == OUTSOURCED ? new OutsourcedView(this, record, generation)
+                    : new InHouseView(this, record, generation);
+        }
+        /**
+         * Copies a record into a plain part.
+         */
+        Part copy(int record) {
+            if (kind(record) == OUTSOURCED) {
+                return new Outsourced(getInt(record, ID), getName(record), getPrice(record), getInt(record, STOCK),
+                        getInt(record, MIN), getInt(record, MAX), getCompanyName(record));
+            }
+            return new InHouse(getInt(record, ID), getName(record), getPrice(record), getInt(record, STOCK),
+                    getInt(record, MIN), getInt(record, MAX), getInt(record, MACHINE_OR_COMPANY));
+        }
+        byte kind(int record) {
+            return blocks[record >>> BLOCK_BITS].get(KIND + (record & (BLOCK - 1)));
+        }
+        int getInt(int record, int column) {
+            return blocks[record >>> BLOCK_BITS].getInt(column + (record & (BLOCK - 1)) * 4);
+        }
+        void putInt(int record, int column, int value) {
+            blocks[record >>> BLOCK_BITS].putInt(column + (record & (BLOCK - 1)) * 4, value);
+        }
+        double getPrice(int record) {
+            return blocks[record >>> BLOCK_BITS].getDouble(PRICE + (record & (BLOCK - 1)) * 8);
+        }
+        void putPrice(int record, double price) {
+            blocks[record >>> BLOCK_BITS].putDouble(PRICE + (record & (BLOCK - 1)) * 8, price);
+        }
+        String getName(int record) {
+            return names.decode(getInt(record, NAME));
+        }
+        synchronized void putName(int record, String name) {
+            putInt(record, NAME, names.encode(name));
+        }
+        String getCompanyName(int record) {
+            return VendorDictionary.name(getInt(record, MACHINE_OR_COMPANY));
+        }
+        /**
+         * Checks that a record is still in the generation a view was made for.
+         * @throws IllegalStateException if the record was reused.
+         */
+        void check(int record, int generation) {
+            if (getInt(record, GENERATION) != generation) {
+                throw new IllegalStateException("The part was removed and its record reused by another part.");
+            }
+        }
+        int getInt(int record, int generation, int column) {
+            int value = getInt(record, column);
+            check(record, generation);
+            return value;
+        }
+        void putInt(int record, int generation, int column, int value) {
+            check(record, generation);
+            putInt(record, column, value);
+        }
+        double getPrice(int record, int generation) {
+            double price = getPrice(record);
+            check(record, generation);
+            return price;
+        }
+        void putPrice(int record, int generation, double price) {
+            check(record, generation);
+            putPrice(record, price);
+        }
+        String getName(int record, int generation) {
+            String name = getName(record);
+            check(record, generation);
+            return name;
+        }
+        void putName(int record, int generation, String name) {
+            check(record, generation);
+            putName(record, name);
+        }
+        String getCompanyName(int record, int generation) {
+            return VendorDictionary.name(getInt(record, generation, MACHINE_OR_COMPANY));
+        }
+        long offHeapBytes() {
+            return (long) blocks.length * BLOCK_BYTES + names.offHeapBytes();
+        }
+    }
+
+    /**
+     * The positions of the parts at one moment.
+     */
+    private static final class Snapshot extends AbstractList<Part> {
+        final Columns columns;
+        final int[][] pages;
+        final int size;
+
+        Snapshot(Columns columns, int[][] pages, int size) {
+            this.columns = columns;
+            this.pages = pages;
+            this.size = size;
+        }
+
+        @Override
+        public Part get(int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+            }
+            return columns.view(record(index));
+        }
+
+        int record(int index) {
+            return pages[index >>> PAGE_BITS][index & (PAGE - 1)];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<Part> iterator() {
+            return new Iterator<Part>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public Part next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(next++);
+                }
+            };
+        }
+    }
+
+    /**
+     * A view of a record.
+     */
+    private interface View {
+        Columns columns();
+        int record();
+        int generation();
+    }
+
+    /**
+     * A view of an in-house part's record.
+     */
+    private static final class InHouseView extends InHouse implements View {
+        private final Columns columns;
+        private final int record;
+        private final int generation;
+
+        InHouseView(Columns columns, int record, int generation) {
+            super(0, null, 0, 0, 0, 0, 0);
+            this.columns = columns;
+            this.record = record;
+            this.generation = generation;
+        }
+
+        @Override
+        public Columns columns() {
+            return columns;
+        }
+
+        @Override
+        public int record() {
+            return record;
+        }
+
+        @Override
+        public int generation() {
+            return generation;
+        }
+
+        @Override
+        public int getId() {
+            return columns.getInt(record, generation, ID);
+        }
+
+        @Override
+        public void setId(int id) {
+            int oldId = getId();
+            columns.putInt(record, generation, ID, id);
+            Inventory.partIdChanged(this, oldId);
+        }
+
+        @Override
+        public String getName() {
+            return columns.getName(record, generation);
+        }
+
+        @Override
+        public void setName(String name) {
+            columns.putName(record, generation, name);
+            Inventory.partNameChanged(this);
+        }
+
+        @Override
+        public double getPrice() {
+            return columns.getPrice(record, generation);
+        }
+
+        @Override
+        public void setPrice(double price) {
+            columns.putPrice(record, generation, price);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public int getStock() {
+            return columns.getInt(record, generation, STOCK);
+        }
+
+        @Override
+        public void setStock(int stock) {
+            int oldStock = columns.getInt(record, generation, STOCK);
+            columns.putInt(record, generation, STOCK, stock);
+            Inventory.partStockChanged(this, oldStock);
+        }
+
+        @Override
+        public int getMin() {
+            return columns.getInt(record, generation, MIN);
+        }
+
+        @Override
+        public void setMin(int min) {
+            columns.putInt(record, generation, MIN, min);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public int getMax() {
+            return columns.getInt(record, generation, MAX);
+        }
+
+        @Override
+        public void setMax(int max) {
+            columns.putInt(record, generation, MAX, max);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public int getMachineId() {
+            return columns.getInt(record, generation, MACHINE_OR_COMPANY);
+        }
+
+        @Override
+        public void setMachineId(int machineId) {
+            columns.putInt(record, generation, MACHINE_OR_COMPANY, machineId);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof InHouseView && ((InHouseView) other).columns == columns
+                    && ((InHouseView) other).record == record && ((InHouseView) other).generation == generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return record;
+        }
+    }
+
+    /**
+     * A view of an outsourced part's record.
+     */
+    private static final class OutsourcedView extends Outsourced implements View {
+        private final Columns columns;
+        private final int record;
+        private final int generation;
+
+        OutsourcedView(Columns columns, int record, int generation) {
+            super(0, null, 0, 0, 0, 0, null);
+            this.columns = columns;
+            this.record = record;
+            this.generation = generation;
+        }
+
+        @Override
+        public Columns columns() {
+            return columns;
+        }
+
+        @Override
+        public int record() {
+            return record;
+        }
+
+        @Override
+        public int generation() {
+            return generation;
+        }
+
+        @Override
+        public int getId() {
+            return columns.getInt(record, generation, ID);
+        }
+
+        @Override
+        public void setId(int id) {
+            int oldId = getId();
+            columns.putInt(record, generation, ID, id);
+            Inventory.partIdChanged(this, oldId);
+        }
+
+        @Override
+        public String getName() {
+            return columns.getName(record, generation);
+        }
+
+        @Override
+        public void setName(String name) {
+            columns.putName(record, generation, name);
+            Inventory.partNameChanged(this);
+        }
+
+        @Override
+        public double getPrice() {
+            return columns.getPrice(record, generation);
+        }
+
+        @Override
+        public void setPrice(double price) {
+            columns.putPrice(record, generation, price);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public int getStock() {
+            return columns.getInt(record, generation, STOCK);
+        }
+
+        @Override
+        public void setStock(int stock) {
+            int oldStock = columns.getInt(record, generation, STOCK);
+            columns.putInt(record, generation, STOCK, stock);
+            Inventory.partStockChanged(this, oldStock);
+        }
+
+        @Override
+        public int getMin() {
+            return columns.getInt(record, generation, MIN);
+        }
+
+        @Override
+        public void setMin(int min) {
+            columns.putInt(record, generation, MIN, min);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public int getMax() {
+            return columns.getInt(record, generation, MAX);
+        }
+
+        @Override
+        public void setMax(int max) {
+            columns.putInt(record, generation, MAX, max);
+            Inventory.partChanged(this);
+        }
+
+        @Override
+        public String getCompanyName() {
+            return columns.getCompanyName(record, generation);
+        }
+
+        @Override
+        public void setCompanyName(String companyName) {
+            columns.putInt(record, generation, MACHINE_OR_COMPANY, VendorDictionary.code(companyName));
+            Inventory.partVendorChanged(this);
+        }
+
+        @Override
+        public int getCompanyCode() {
+            return columns.getInt(record, generation, MACHINE_OR_COMPANY);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OutsourcedView && ((OutsourcedView) other).columns == columns
+                    && ((OutsourcedView) other).record == record && ((OutsourcedView) other).generation == generation;
+        }
+
+        @Override
+        public int hashCode() {
+            return record;
+        }
+    }
+}
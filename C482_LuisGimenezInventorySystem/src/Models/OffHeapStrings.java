@@ -0,0 +1,198 @@
+package Models;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Supplied class OffHeapStrings.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * OffHeapStrings Class. A dictionary of strings kept outside the Java heap, used by OffHeapPartStore to store part
+ * and company names as int codes. Each distinct string is stored once as UTF-8 bytes, so a name shared by many parts
+ * costs four bytes per part, and no String object exists until a name is read.
+ * <p>Strings are appended to direct memory blocks and never removed; a hash table of codes, also in direct memory,
+ * finds the code of a string already stored. Codes are assigned from zero in the order strings are first added.</p>
+ * <p>Adding is done by one thread at a time, under the owning store's lock. Reading a code obtained from a record
+ * written before is safe from any thread.</p>
+ */
+class OffHeapStrings {
+    /**
+     * Code standing for null.
+     */
+    static final int NULL = -1;
+    /**
+     * Size of each block of string bytes.
+     */
+    private static final int BLOCK_SIZE = 1 << 22;
+    /**
+     * Blocks holding the bytes of the strings, each string preceded by its length.
+     */
+    private volatile ByteBuffer[] blocks = new ByteBuffer[0];
+    /**
+     * Bytes used in the last block.
+     */
+    private int blockUsed;
+    /**
+     * Location of each string by code: block number in the high half, offset in the low half.
+     */
+    private volatile ByteBuffer locations = ByteBuffer.allocateDirect(1024 * Long.BYTES);
+    /**
+     * Number of strings stored.
+     */
+    private volatile int size;
+    /**
+     * Open-addressing hash table of code + 1 and hash pairs, zero when the slot is empty.
+     */
+    private ByteBuffer table = ByteBuffer.allocateDirect(2048 * 2 * Integer.BYTES);
+    /**
+     * Number of slots in the table, a power of two.
+     */
+    private int slots = 2048;
+
+    /**
+     * Gets the code of a string, storing it first if it is new.
+     * @param text the string, may be null.
+     * @return the code, NULL for null.
+     */
+    int encode(String text) {
+        if (text == null) {
+            return NULL;
+        }
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        int hash = Arrays.hashCode(bytes);
+        int mask = slots - 1;
+        for (int slot = mix(hash) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table.getInt(slot * 8);
+            if (entry == 0) {
+                int code = append(bytes);
+                table.putInt(slot * 8, code + 1);
+                table.putInt(slot * 8 + 4, hash);
+                if (size * 2 > slots) {
+                    rehash();
+                }
+                return code;
+            }
+            if (table.getInt(slot * 8 + 4) == hash && equals(entry - 1, bytes)) {
+                return entry - 1;
+            }
+        }
+    }
+    /**
+     * Reads a string by code.
+     * @param code the code, NULL for null.
+     * @return the string.
+     */
+    String decode(int code) {
+        if (code == NULL) {
+            return null;
+        }
+        long location = locations.getLong(code * Long.BYTES);
+        ByteBuffer block = blocks[(int) (location >>> 32)];
+        int offset = (int) location;
+        int length = block.getInt(offset);
+        byte[] bytes = new byte[length];
+        for (int i = 0; i < length; i++) {
+            bytes[i] = block.get(offset + 4 + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    /**
+     * Gets the number of distinct strings stored.
+     * @return the number of codes handed out.
+     */
+    int size() {
+        return size;
+    }
+    /**
+     * Gets the bytes of direct memory allocated for the strings, their locations and the hash table.
+     * @return the bytes allocated outside the heap.
+     */
+    long offHeapBytes() {
+        long bytes = (long) locations.capacity() + table.capacity();
+        for (ByteBuffer block : blocks) {
+            bytes += block.capacity();
+        }
+        return bytes;
+    }
+    /**
+     * Stores the bytes of a new string and hands out its code.
+     */
+    private int append(byte[] bytes) {
+        int needed = 4 + bytes.length;
+        ByteBuffer[] current = blocks;
+        if (current.length == 0 || blockUsed + needed > current[current.length - 1].capacity()) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = ByteBuffer.allocateDirect(Math.max(BLOCK_SIZE, needed));
+            blocks = current;
+            blockUsed = 0;
+        }
+        int blockIndex = current.length - 1;
+        ByteBuffer block = current[blockIndex];
+        block.putInt(blockUsed, bytes.length);
+        for (int i = 0; i < bytes.length; i++) {
+            block.put(blockUsed + 4 + i, bytes[i]);
+        }
+        int code = size;
+        if ((code + 1) * Long.BYTES > locations.capacity()) {
+            ByteBuffer grown = ByteBuffer.allocateDirect(locations.capacity() * 2);
+            ByteBuffer old = locations.duplicate();
+            old.clear();
+            grown.put(old);
+            locations = grown;
+        }
+        locations.putLong(code * Long.BYTES, ((long) blockIndex << 32) | blockUsed);
+        blockUsed += needed;
+        size = code + 1;
+        return code;
+    }
+    /**
+     * Compares a stored string with the bytes of another.
+     */
+    private boolean equals(int code, byte[] bytes) {
+        long location = locations.getLong(code * Long.BYTES);
+        ByteBuffer block = blocks[(int) (location >>> 32)];
+        int offset = (int) location;
+        if (block.getInt(offset) != bytes.length) {
+            return false;
+        }
+        for (int i = 0; i < bytes.length; i++) {
+            if (block.get(offset + 4 + i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+    /**
+     * Doubles the hash table.
+     */
+    private void rehash() {
+        ByteBuffer old = table;
+        int oldSlots = slots;
+        slots *= 2;
+        table = ByteBuffer.allocateDirect(slots * 8);
+        int mask = slots - 1;
+        for (int i = 0; i < oldSlots; i++) {
+            int entry = old.getInt(i * 8);
+            if (entry != 0) {
+                int hash = old.getInt(i * 8 + 4);
+                int slot = mix(hash) & mask;
+                while (table.getInt(slot * 8) != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                table.putInt(slot * 8, entry);
+                table.putInt(slot * 8 + 4, hash);
+            }
+        }
+    }
+    /**
+     * Spreads the bits of a hash code over the table.
+     */
+    private static int mix(int hash) {
+        hash *= 0x9E3779B9;
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,923 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Supplied class OrderedIndex.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * OrderedIndex Class. A secondary index keeping the IDs of the parts or products in inventory sorted by one of their
+ * fields, such as price or stock, for range lookups, top-N lists and sorted table views that never sort the items.
+ * <p>Entries are ordered by key, then by ID, and kept in blocks of at most BLOCK_SIZE sorted entries. The blocks sit
+ * in order in an array of places, some of them left empty as gaps, and each place has a lower bound, so an entry is
+ * found by a binary search over the places' bounds and then one inside a block. A change moves at most one block's
+ * entries. A Fenwick tree over the places' sizes tells how many entries come before a place, so the number of items
+ * in a range and the item at a position are found in O(log n), and a range of k items or the first k in either
+ * direction are read in O(log n + k).</p>
+ * <p>A full block is split into the gap after it, or into a gap at most SHIFT_LIMIT places away once the blocks in
+ * between are moved up one place, and a merge leaves a gap, so both update the Fenwick tree in O(log n) instead of
+ * rebuilding it. When no gap is near, the blocks are spread out again with a gap after each, in O(n / BLOCK_SIZE);
+ * that is needed only after about as many splits as there are blocks.</p>
+ * <p>The key each ID was last indexed with is kept, so a changed item is found and moved without scanning.</p>
+ * <p>Changes are serialized by the index's monitor and made under the write lock of a StampedLock. Reads never take
+ * the monitor: like SearchIndex they read optimistically without locking and are only retried when a change was
+ * made while they ran, so a reader only waits once a change interrupted it twice. A batch merged in one pass is
+ * built beside the index and swapped in at the end, so readers do not wait for it.</p>
+ * @param <T> the type of the items.
+ */
+class OrderedIndex<T> {
+    /**
+     * Most entries in a block; a full block is split in two.
+     */
+    static final int BLOCK_SIZE = 512;
+    /**
+     * Most blocks moved up one place to reach a gap for a split before the blocks are spread out again.
+     */
+    private static final int SHIFT_LIMIT = 32;
+    /**
+     * What the key is called in plans, such as "price".
+     */
+    private final String name;
+    /**
+     * Reads the ID of an item.
+     */
+    private final ToIntFunction<T> idOf;
+    /**
+     * Reads the key of an item.
+     */
+    private final ToLongFunction<T> keyOf;
+    /**
+     * Slot holding the key each indexed ID was last indexed with. Only read by writers.
+     */
+    private final IntIntHashMap slotOf = new IntIntHashMap();
+    /**
+     * Key of each slot.
+     */
+    private long[] slotKeys = new long[64];
+    /**
+     * Slots freed by removed items, reused before new ones.
+     */
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    /**
+     * Next slot never used.
+     */
+    private int nextSlot;
+    /**
+     * Guards the blocks against readers; writers also hold the index's monitor.
+     */
+    private final StampedLock lock = new StampedLock();
+    /**
+     * Keys of the entries of the block at each place, sorted with the IDs; null for a gap.
+     */
+    private long[][] keys = new long[8][];
+    /**
+     * IDs of the entries of the block at each place; null for a gap.
+     */
+    private int[][] ids = new int[8][];
+    /**
+     * Number of entries at each place, zero for a gap.
+     */
+    private int[] sizes = new int[8];
+    /**
+     * Lowest key and ID each place holds: the entries at a place come before the bound of the next place. A gap's
+     * bound may equal the next place's, leaving it no entries to hold.
+     */
+    private long[] lowKeys = new long[8];
+    private int[] lowIds = new int[8];
+    /**
+     * Number of places in use, from the first; the capacity of the arrays is a power of two.
+     */
+    private int placeCount;
+    /**
+     * Number of places holding a block.
+     */
+    private int blockCount;
+    /**
+     * Fenwick tree over the sizes of the places, one-based.
+     */
+    private int[] counts = new int[9];
+    /**
+     * Number of entries.
+     */
+    private int size;
+    /**
+     * Counts changes, so a reader can tell whether what it read before is still current.
+     */
+    private volatile int version;
+
+    /**
+     * Creates an empty index.
+     * @param name what the key is called, such as "price".
+     * @param idOf reads the ID of an item.
+     * @param keyOf reads the key of an item; items are ordered by it.
+     */
+    OrderedIndex(String name, ToIntFunction<T> idOf, ToLongFunction<T> keyOf) {
+        this.name = name;
+        this.idOf = idOf;
+        this.keyOf = keyOf;
+    }
+    /**
+     * Turns a price into a key ordered like the prices, so -0.0 and 0.0 are the same price.
+     * @param price the price.
+     * @return the key.
+     */
+    static long priceKey(double price) {
+        long bits = Double.doubleToLongBits(price + 0.0);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+    /**
+     * Gets what the key is called.
+     * @return the name, such as "price".
+     */
+    String name() {
+        return name;
+    }
+    /**
+     * Gets the order of the index: by key, then by ID.
+     * @return a comparator of items in index order.
+     */
+    Comparator<T> comparator() {
+        return Comparator.<T>comparingLong(keyOf).thenComparingInt(idOf);
+    }
+    /**
+     * Indexes an item's current key, moving it if it was indexed with another one.
+     * @param item the item, added to inventory or changed.
+     */
+    synchronized void update(T item) {
+        int id = idOf.applyAsInt(item);
+        long key = keyOf.applyAsLong(item);
+        int slot = slotOf.get(id);
+        boolean moved = slot != IntIntHashMap.MISSING;
+        if (!moved) {
+            slot = allocate();
+            slotOf.put(id, slot);
+        } else if (slotKeys[slot] == key) {
+            return;
+        }
+        long write = lock.writeLock();
+        try {
+            if (moved) {
+                delete(slotKeys[slot], id);
+            }
+            insert(key, id);
+        } finally {
+            lock.unlockWrite(write);
+        }
+        slotKeys[slot] = key;
+    }
+    /**
+     * Indexes several items, as update does for each. A batch of at least an eighth of the index, such as a load,
+     * is sorted on its own and merged with the index in one pass, filling the blocks three quarters full, instead of
+     * being inserted one item at a time; the merged blocks are built beside the index and swapped in at the end.
+     * @param items the items, added to inventory or changed.
+     */
+    synchronized void updateAll(Collection<? extends T> items) {
+        if (items.size() < Math.max(BLOCK_SIZE, size / 8)) {
+            for (T item : items) {
+                update(item);
+            }
+            return;
+        }
+        // Collects the new entries, once per ID with the last key given; entries of moved items are taken out.
+        long[] newKeys = new long[items.size()];
+        int[] newIds = new int[items.size()];
+        IntIntHashMap entryOf = new IntIntHashMap();
+        int count = 0;
+        for (T item : items) {
+            int id = idOf.applyAsInt(item);
+            long key = keyOf.applyAsLong(item);
+            int entry = entryOf.get(id);
+            if (entry != IntIntHashMap.MISSING) {
+                newKeys[entry] = key;
+                slotKeys[slotOf.get(id)] = key;
+                continue;
+            }
+            int slot = slotOf.get(id);
+            if (slot == IntIntHashMap.MISSING) {
+                slot = allocate();
+                slotOf.put(id, slot);
+            } else if (slotKeys[slot] == key) {
+                continue;
+            } else {
+                long write = lock.writeLock();
+                try {
+                    delete(slotKeys[slot], id);
+                } finally {
+                    lock.unlockWrite(write);
+                }
+            }
+            slotKeys[slot] = key;
+            entryOf.put(id, count);
+            newKeys[count] = key;
+            newIds[count++] = id;
+        }
+        if (count == 0) {
+            return;
+        }
+        sort(newKeys, newIds, 0, count, new long[count], new int[count]);
+        // Only this writer changes the blocks, so they are read without the lock while the merge is built.
+        Layout merged = rebuild(newKeys, newIds, count);
+        long write = lock.writeLock();
+        try {
+            install(merged);
+        } finally {
+            lock.unlockWrite(write);
+        }
+    }
+    /**
+     * Removes an item ID from the index.
+     * @param id the ID of the item leaving inventory, or the ID an item had before it changed.
+     */
+    synchronized void remove(int id) {
+        int slot = slotOf.remove(id);
+        if (slot == IntIntHashMap.MISSING) {
+            return;
+        }
+        long write = lock.writeLock();
+        try {
+            delete(slotKeys[slot], id);
+        } finally {
+            lock.unlockWrite(write);
+        }
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    /**
+     * Removes every item.
+     */
+    synchronized void clear() {
+        slotOf.clear();
+        freeCount = 0;
+        nextSlot = 0;
+        long write = lock.writeLock();
+        try {
+            install(new Layout(8));
+        } finally {
+            lock.unlockWrite(write);
+        }
+    }
+    /**
+     * Gets the number of indexed items.
+     * @return the number of items.
+     */
+    int size() {
+        return readInt(() -> size);
+    }
+    /**
+     * Gets the number of changes made so far, so a reader can tell whether what it read before is still current.
+     * @return the number of changes.
+     */
+    int version() {
+        return version;
+    }
+    /**
+     * Counts the items whose key is in a range, in O(log n).
+     * @param low the lowest key, inclusive.
+     * @param high the highest key, inclusive.
+     * @return the number of items in the range.
+     */
+    int count(long low, long high) {
+        return low > high ? 0 : readInt(() -> countBetween(low, high));
+    }
+    /**
+     * Lists the IDs of the items whose key is in a range, in index order.
+     * @param low the lowest key, inclusive.
+     * @param high the highest key, inclusive.
+     * @return the IDs, lowest key first.
+     */
+    int[] idsBetween(long low, long high) {
+        if (low > high) {
+            return new int[0];
+        }
+        return read(() -> {
+            int[] found = new int[Math.min(countBetween(low, high), size)];
+            int read = readEntries(low, Integer.MIN_VALUE, high, false, null, found);
+            return read == found.length ? found : Arrays.copyOf(found, read);
+        });
+    }
+    /**
+     * Lists the IDs of every item in index order, all read at one moment.
+     * @param descending true to list the highest key first.
+     * @return the IDs.
+     */
+    int[] ids(boolean descending) {
+        return read(() -> {
+            int[] found = new int[size];
+            int read = readPositions(0, descending, found);
+            return read == found.length ? found : Arrays.copyOf(found, read);
+        });
+    }
+    /**
+     * Reads entries in index order or in reverse, starting at a key and ID, so a long walk can be read a chunk at a
+     * time: the next chunk starts just past the last entry read.
+     * @param fromKey the key to start at.
+     * @param fromId the ID to start at, within fromKey; entries before it (after it when descending) are skipped.
+     * @param toKey the key to stop after, inclusive.
+     * @param descending true to read towards lower keys.
+     * @param keysRead receives the keys read; null if not needed.
+     * @param idsRead receives the IDs read; its length is the most entries read.
+     * @return the number of entries read.
+     */
+    int read(long fromKey, int fromId, long toKey, boolean descending, long[] keysRead, int[] idsRead) {
+        return readInt(() -> readEntries(fromKey, fromId, toKey, descending, keysRead, idsRead));
+    }
+    /**
+     * Reads the IDs of consecutive positions in index order or in reverse, in O(log n + k) for k IDs.
+     * @param position the first position, from zero, counted from the highest key when descending.
+     * @param descending true to read towards lower keys.
+     * @param idsRead receives the IDs read; its length is the most entries read.
+     * @return the number of IDs read, zero if there is no item at the position.
+     */
+    int readAt(int position, boolean descending, int[] idsRead) {
+        return readInt(() -> readPositions(position, descending, idsRead));
+    }
+    /**
+     * Runs a read without locking, and again if a change was made meanwhile, under the read lock the second time
+     * it was interrupted.
+     */
+    private <R> R read(Supplier<R> reader) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                continue;
+            }
+            try {
+                R result = reader.get();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // A change made during the read left the arrays it read out of step with each other.
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return reader.get();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    /**
+     * Runs a read giving an int, as read does.
+     */
+    private int readInt(IntSupplier reader) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            long stamp = lock.tryOptimisticRead();
+            if (stamp == 0) {
+                continue;
+            }
+            try {
+                int result = reader.getAsInt();
+                if (lock.validate(stamp)) {
+                    return result;
+                }
+            } catch (RuntimeException e) {
+                // A change made during the read left the arrays it read out of step with each other.
+            }
+        }
+        long stamp = lock.readLock();
+        try {
+            return reader.getAsInt();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+    /**
+     * Counts the entries with a key in a range; called by a reader.
+     */
+    private int countBetween(long low, long high) {
+        return atMost(high) - rank(low, Integer.MIN_VALUE);
+    }
+    /**
+     * Reads entries from a key and ID towards a key; called by a reader.
+     */
+    private int readEntries(long fromKey, int fromId, long toKey, boolean descending, long[] keysRead,
+                            int[] idsRead) {
+        if (placeCount == 0 || idsRead.length == 0) {
+            return 0;
+        }
+        int place = findPlace(fromKey, fromId);
+        int offset;
+        if (descending) {
+            offset = search(place, fromKey, fromId, true) - 1;
+        } else {
+            offset = search(place, fromKey, fromId, false);
+        }
+        int read = 0;
+        while (read < idsRead.length && place >= 0 && place < placeCount) {
+            if (offset < 0) {
+                if (--place >= 0) {
+                    offset = sizes[place] - 1;
+                }
+                continue;
+            }
+            if (offset >= sizes[place]) {
+                place++;
+                offset = 0;
+                continue;
+            }
+            long key = keys[place][offset];
+            if (descending ? key < toKey : key > toKey) {
+                break;
+            }
+            if (keysRead != null) {
+                keysRead[read] = key;
+            }
+            idsRead[read++] = ids[place][offset];
+            offset += descending ? -1 : 1;
+        }
+        return read;
+    }
+    /**
+     * Reads the IDs of consecutive positions; called by a reader.
+     */
+    private int readPositions(int position, boolean descending, int[] idsRead) {
+        if (position < 0 || position >= size) {
+            return 0;
+        }
+        int from = descending ? size - 1 - position : position;
+        // Walks down the Fenwick tree to the place holding the position.
+        int place = 0;
+        int before = 0;
+        for (int step = Integer.highestOneBit(counts.length - 1); step > 0; step >>= 1) {
+            int next = place + step;
+            if (next < counts.length && before + counts[next] <= from) {
+                place = next;
+                before += counts[next];
+            }
+        }
+        int offset = from - before;
+        int read = 0;
+        while (read < idsRead.length && place >= 0 && place < placeCount) {
+            if (offset < 0) {
+                if (--place >= 0) {
+                    offset = sizes[place] - 1;
+                }
+                continue;
+            }
+            if (offset >= sizes[place]) {
+                place++;
+                offset = 0;
+                continue;
+            }
+            idsRead[read++] = ids[place][offset];
+            offset += descending ? -1 : 1;
+        }
+        return read;
+    }
+    /**
+     * Adds an entry in its place, splitting its block if it is full. Called under the write lock.
+     */
+    private void insert(long key, int id) {
+        version++;
+        size++;
+        if (placeCount == 0) {
+            placeCount = 1;
+            lowKeys[0] = Long.MIN_VALUE;
+            lowIds[0] = Integer.MIN_VALUE;
+        }
+        int place = findPlace(key, id);
+        if (keys[place] == null) {
+            keys[place] = new long[BLOCK_SIZE];
+            ids[place] = new int[BLOCK_SIZE];
+            blockCount++;
+        }
+        int offset = search(place, key, id, false);
+        int length = sizes[place];
+        System.arraycopy(keys[place], offset, keys[place], offset + 1, length - offset);
+        System.arraycopy(ids[place], offset, ids[place], offset + 1, length - offset);
+        keys[place][offset] = key;
+        ids[place][offset] = id;
+        sizes[place] = length + 1;
+        addCount(place, 1);
+        if (sizes[place] == BLOCK_SIZE) {
+            split(place);
+        }
+    }
+    /**
+     * Moves the upper half of a full block into the place after it, first making that place a gap.
+     */
+    private void split(int place) {
+        int gap = gapAfter(place);
+        if (gap < 0) {
+            place = spread(place);
+            gap = gapAfter(place);
+        }
+        // Moves the blocks between the full block and the gap up one place, so the gap comes right after it.
+        for (int i = gap; i > place + 1; i--) {
+            keys[i] = keys[i - 1];
+            ids[i] = ids[i - 1];
+            lowKeys[i] = lowKeys[i - 1];
+            lowIds[i] = lowIds[i - 1];
+            int moved = sizes[i - 1];
+            sizes[i] = moved;
+            addCount(i, moved);
+            addCount(i - 1, -moved);
+        }
+        int next = place + 1;
+        int half = BLOCK_SIZE / 2;
+        keys[next] = new long[BLOCK_SIZE];
+        ids[next] = new int[BLOCK_SIZE];
+        System.arraycopy(keys[place], half, keys[next], 0, BLOCK_SIZE - half);
+        System.arraycopy(ids[place], half, ids[next], 0, BLOCK_SIZE - half);
+        lowKeys[next] = keys[next][0];
+        lowIds[next] = ids[next][0];
+        sizes[place] = half;
+        sizes[next] = BLOCK_SIZE - half;
+        addCount(place, -(BLOCK_SIZE - half));
+        addCount(next, BLOCK_SIZE - half);
+        blockCount++;
+    }
+    /**
+     * Finds a gap at most SHIFT_LIMIT places after a place, adding a place at the end if that is near enough.
+     * @return the gap, -1 if there is none near enough.
+     */
+    private int gapAfter(int place) {
+        int limit = Math.min(placeCount, place + 1 + SHIFT_LIMIT);
+        for (int i = place + 1; i < limit; i++) {
+            if (sizes[i] == 0) {
+                return i;
+            }
+        }
+        if (limit < placeCount) {
+            return -1;
+        }
+        if (placeCount == sizes.length) {
+            grow();
+        }
+        return placeCount++;
+    }
+    /**
+     * Removes an entry, merging its block into a neighbour once both fit in half a block. Called under the write
+     * lock.
+     */
+    private void delete(long key, int id) {
+        if (placeCount == 0) {
+            return;
+        }
+        int place = findPlace(key, id);
+        int offset = search(place, key, id, false);
+        if (offset >= sizes[place] || keys[place][offset] != key || ids[place][offset] != id) {
+            return;
+        }
+        version++;
+        size--;
+        int length = sizes[place] - 1;
+        System.arraycopy(keys[place], offset + 1, keys[place], offset, length - offset);
+        System.arraycopy(ids[place], offset + 1, ids[place], offset, length - offset);
+        sizes[place] = length;
+        addCount(place, -1);
+        if (length == 0) {
+            keys[place] = null;
+            ids[place] = null;
+            blockCount--;
+            trimGaps();
+        } else if (place + 1 < placeCount && sizes[place + 1] > 0 && length + sizes[place + 1] <= BLOCK_SIZE / 2) {
+            merge(place);
+        } else if (place > 0 && sizes[place - 1] > 0 && length + sizes[place - 1] <= BLOCK_SIZE / 2) {
+            merge(place - 1);
+        }
+        if (blockCount > 8 && size < blockCount * (BLOCK_SIZE / 8)) {
+            // Most blocks are nearly empty: they are filled again, in O(n), after at least n deletes.
+            install(rebuild(new long[0], new int[0], 0));
+        } else if (placeCount > 4 * blockCount + SHIFT_LIMIT) {
+            install(spreadLayout(-1));
+        }
+    }
+    /**
+     * Moves the entries of the block after a block to its end, leaving a gap with no entries to hold.
+     */
+    private void merge(int place) {
+        int next = place + 1;
+        int length = sizes[place];
+        int moved = sizes[next];
+        System.arraycopy(keys[next], 0, keys[place], length, moved);
+        System.arraycopy(ids[next], 0, ids[place], length, moved);
+        sizes[place] = length + moved;
+        sizes[next] = 0;
+        keys[next] = null;
+        ids[next] = null;
+        addCount(place, moved);
+        addCount(next, -moved);
+        blockCount--;
+        if (next + 1 < placeCount) {
+            lowKeys[next] = lowKeys[next + 1];
+            lowIds[next] = lowIds[next + 1];
+        } else {
+            trimGaps();
+        }
+    }
+    /**
+     * Drops the gaps at the end of the places, whose ranges the last block then takes over.
+     */
+    private void trimGaps() {
+        while (placeCount > 1 && sizes[placeCount - 1] == 0) {
+            placeCount--;
+        }
+        if (blockCount == 0) {
+            placeCount = 0;
+        }
+    }
+    /**
+     * Doubles the number of places, rebuilding the Fenwick tree; that is needed after as many splits as there were
+     * places.
+     */
+    private void grow() {
+        int capacity = sizes.length * 2;
+        keys = Arrays.copyOf(keys, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+        sizes = Arrays.copyOf(sizes, capacity);
+        lowKeys = Arrays.copyOf(lowKeys, capacity);
+        lowIds = Arrays.copyOf(lowIds, capacity);
+        counts = buildCounts(sizes);
+    }
+    /**
+     * Spreads the blocks out with a gap after each, in O(n / BLOCK_SIZE).
+     * @param place a place to follow.
+     * @return where the block at that place is now.
+     */
+    private int spread(int place) {
+        int blocksBefore = 0;
+        for (int i = 0; i < place; i++) {
+            if (sizes[i] > 0) {
+                blocksBefore++;
+            }
+        }
+        install(spreadLayout(place));
+        return 2 * blocksBefore;
+    }
+    /**
+     * Lays the blocks out with a gap after each. A block keeps its bound, which covers the gaps dropped before it;
+     * the first block's bound is lowered to the lowest key.
+     */
+    private Layout spreadLayout(int keep) {
+        Layout layout = new Layout(capacityFor(2 * blockCount));
+        int at = 0;
+        for (int i = 0; i < placeCount; i++) {
+            if (sizes[i] == 0) {
+                continue;
+            }
+            if (at > 0) {
+                // The gap before this block holds no entries.
+                layout.lowKeys[at - 1] = lowKeys[i];
+                layout.lowIds[at - 1] = lowIds[i];
+            }
+            layout.keys[at] = keys[i];
+            layout.ids[at] = ids[i];
+            layout.sizes[at] = sizes[i];
+            layout.lowKeys[at] = at == 0 ? Long.MIN_VALUE : lowKeys[i];
+            layout.lowIds[at] = at == 0 ? Integer.MIN_VALUE : lowIds[i];
+            at += 2;
+        }
+        layout.finish(Math.max(0, at - 1), blockCount, size);
+        return layout;
+    }
+    /**
+     * Builds blocks three quarters full from the current entries and sorted new ones, with a gap after each block.
+     */
+    private Layout rebuild(long[] newKeys, int[] newIds, int count) {
+        int total = size + count;
+        int fill = BLOCK_SIZE * 3 / 4;
+        int blocks = (total + fill - 1) / fill;
+        Layout layout = new Layout(capacityFor(2 * blocks));
+        int place = 0;
+        int offset = 0;
+        int next = 0;
+        for (int i = 0; i < total; i++) {
+            int at = 2 * (i / fill);
+            if (i % fill == 0) {
+                layout.keys[at] = new long[BLOCK_SIZE];
+                layout.ids[at] = new int[BLOCK_SIZE];
+            }
+            while (place < placeCount && offset == sizes[place]) {
+                place++;
+                offset = 0;
+            }
+            long key;
+            int id;
+            if (place < placeCount && (next == count
+                    || compare(keys[place][offset], ids[place][offset], newKeys[next], newIds[next]) < 0)) {
+                key = keys[place][offset];
+                id = ids[place][offset++];
+            } else {
+                key = newKeys[next];
+                id = newIds[next++];
+            }
+            if (i % fill == 0) {
+                layout.lowKeys[at] = i == 0 ? Long.MIN_VALUE : key;
+                layout.lowIds[at] = i == 0 ? Integer.MIN_VALUE : id;
+                if (at > 0) {
+                    layout.lowKeys[at - 1] = key;
+                    layout.lowIds[at - 1] = id;
+                }
+            }
+            layout.keys[at][layout.sizes[at]] = key;
+            layout.ids[at][layout.sizes[at]++] = id;
+        }
+        layout.finish(Math.max(0, 2 * blocks - 1), blocks, total);
+        return layout;
+    }
+    /**
+     * Makes a layout the index's blocks. Called under the write lock.
+     */
+    private void install(Layout layout) {
+        keys = layout.keys;
+        ids = layout.ids;
+        sizes = layout.sizes;
+        lowKeys = layout.lowKeys;
+        lowIds = layout.lowIds;
+        counts = layout.counts;
+        placeCount = layout.placeCount;
+        blockCount = layout.blockCount;
+        size = layout.size;
+        version++;
+    }
+    /**
+     * Gets the smallest power of two, at least 8, holding a number of places.
+     */
+    private static int capacityFor(int places) {
+        return Math.max(8, Integer.highestOneBit(Math.max(1, places - 1)) * 2);
+    }
+    /**
+     * Builds a Fenwick tree over sizes in O(places).
+     */
+    private static int[] buildCounts(int[] sizes) {
+        int[] tree = new int[sizes.length + 1];
+        for (int i = 1; i < tree.length; i++) {
+            tree[i] += sizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+        return tree;
+    }
+    /**
+     * Sorts entries by key, then by ID, with a merge sort using the given scratch arrays.
+     */
+    private static void sort(long[] keys, int[] ids, int from, int to, long[] keysScratch, int[] idsScratch) {
+        if (to - from < 2) {
+            return;
+        }
+        int middle = (from + to) >>> 1;
+        sort(keys, ids, from, middle, keysScratch, idsScratch);
+        sort(keys, ids, middle, to, keysScratch, idsScratch);
+        if (compare(keys[middle - 1], ids[middle - 1], keys[middle], ids[middle]) <= 0) {
+            return;
+        }
+        System.arraycopy(keys, from, keysScratch, from, to - from);
+        System.arraycopy(ids, from, idsScratch, from, to - from);
+        int left = from;
+        int right = middle;
+        for (int i = from; i < to; i++) {
+            if (right == to || left < middle
+                    && compare(keysScratch[left], idsScratch[left], keysScratch[right], idsScratch[right]) <= 0) {
+                keys[i] = keysScratch[left];
+                ids[i] = idsScratch[left++];
+            } else {
+                keys[i] = keysScratch[right];
+                ids[i] = idsScratch[right++];
+            }
+        }
+    }
+    /**
+     * Finds the last place whose bound is not after a key and ID: the place the entry belongs in. The first place's
+     * bound is the lowest key, so there always is one while any place is in use.
+     */
+    private int findPlace(long key, int id) {
+        int low = 0;
+        int high = placeCount - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (compare(lowKeys[middle], lowIds[middle], key, id) <= 0) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+    /**
+     * Finds the place of a key and ID in a block: the first entry not before it, or with after set the first entry
+     * after it. Gives zero for a gap.
+     */
+    private int search(int place, long key, int id, boolean after) {
+        long[] blockKeys = keys[place];
+        int[] blockIds = ids[place];
+        int low = 0;
+        int high = sizes[place];
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            int comparison = compare(blockKeys[middle], blockIds[middle], key, id);
+            if (comparison < 0 || after && comparison == 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    /**
+     * Counts the entries before a key and ID.
+     */
+    private int rank(long key, int id) {
+        if (placeCount == 0) {
+            return 0;
+        }
+        int place = findPlace(key, id);
+        return before(place) + search(place, key, id, false);
+    }
+    /**
+     * Counts the entries whose key is at most a key.
+     */
+    private int atMost(long key) {
+        return key == Long.MAX_VALUE ? size : rank(key + 1, Integer.MIN_VALUE);
+    }
+    /**
+     * Counts the entries in the places before a place.
+     */
+    private int before(int place) {
+        int sum = 0;
+        for (int i = place; i > 0; i -= i & -i) {
+            sum += counts[i];
+        }
+        return sum;
+    }
+    /**
+     * Changes the size of a place in the Fenwick tree.
+     */
+    private void addCount(int place, int delta) {
+        for (int i = place + 1; i < counts.length; i += i & -i) {
+            counts[i] += delta;
+        }
+    }
+    /**
+     * Hands out a free slot, growing the keys when none is left.
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == slotKeys.length) {
+            slotKeys = Arrays.copyOf(slotKeys, nextSlot * 2);
+        }
+        return nextSlot++;
+    }
+    /**
+     * Compares two entries by key, then by ID.
+     */
+    private static int compare(long key, int id, long otherKey, int otherId) {
+        int comparison = Long.compare(key, otherKey);
+        return comparison != 0 ? comparison : Integer.compare(id, otherId);
+    }
+
+    /**
+     * Blocks laid out beside the index, to be installed at once.
+     */
+    private static final class Layout {
+        final long[][] keys;
+        final int[][] ids;
+        final int[] sizes;
+        final long[] lowKeys;
+        final int[] lowIds;
+        int[] counts;
+        int placeCount;
+        int blockCount;
+        int size;
+
+        /**
+         * Creates an empty layout of a number of places, a power of two.
+         */
+        Layout(int capacity) {
+            keys = new long[capacity][];
+            ids = new int[capacity][];
+            sizes = new int[capacity];
+            lowKeys = new long[capacity];
+            lowIds = new int[capacity];
+            counts = new int[capacity + 1];
+        }
+
+        /**
+         * Records the places in use and builds the Fenwick tree.
+         */
+        void finish(int places, int blocks, int entries) {
+            placeCount = places;
+            blockCount = blocks;
+            size = entries;
+            counts = buildCounts(sizes);
+        }
+    }
+}
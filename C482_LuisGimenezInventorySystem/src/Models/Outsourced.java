@@ -8,12 +8,13 @@ package Models;
 
 /**
  * Outsourced Subclass. Subclass of abstract class Part but the difference is one additional field, companyName.
+ * The company name is kept as its VendorDictionary code, so parts from the same vendor share one name string.
  */
 public class Outsourced extends Part {
     /**
-     * the name of the company outsourcing the part
+     * the vendor code of the company outsourcing the part
      */
-    private String companyName;
+    private int companyCode;
     /**
      * Constructor for a new outsourced part.
      * @param id the ID for part
@@ -26,18 +27,26 @@ public class Outsourced extends Part {
      */
     public Outsourced(int id, String name, double price, int stock, int min, int max, String companyName) {
         super(id, name, price, stock, min, max);
-        this.companyName = companyName;
+        this.companyCode = VendorDictionary.code(companyName);
     }
     /**
      * companyName setter
      */
     public void setCompanyName(String companyName) {
-        this.companyName = companyName;
+        this.companyCode = VendorDictionary.code(companyName);
+        Inventory.partVendorChanged(this);
     }
     /**
      * companyName getter
      */
     public String getCompanyName() {
-        return companyName;
+        return VendorDictionary.name(companyCode);
+    }
+    /**
+     * Gets the vendor code of the company name.
+     * @return the VendorDictionary code, VendorDictionary.NONE if there is no company name.
+     */
+    public int getCompanyCode() {
+        return companyCode;
     }
 }
\ No newline at end of file
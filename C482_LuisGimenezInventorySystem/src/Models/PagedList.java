@@ -0,0 +1,106 @@
+package Models;
+
+import javafx.collections.ObservableListBase;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supplied class PagedList.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * PagedList Class. A read-only ObservableList for the screens' table views that reads its rows from a source list
+ * a page at a time. A TableView only asks for the rows it shows, so only the pages around the visible window are
+ * ever read from the source; the last few pages read are kept, so scrolling back and forth and redrawing the same
+ * cells does not read the source again.
+ * <p>Search results and store snapshots are wrapped as they are, without copying them into a new list, so showing
+ * a million matching rows costs the same as showing ten. When the source creates its rows as they are read, only
+ * the cached pages exist as objects at any time.</p>
+ * @param <T> the type of the rows.
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+    /**
+     * Rows per page.
+     */
+    static final int PAGE_SIZE = 128;
+    /**
+     * Pages kept once read; enough for a full-screen table and the rows just scrolled past.
+     */
+    private static final int CACHED_PAGES = 16;
+    /**
+     * The rows.
+     */
+    private List<T> source;
+    /**
+     * Pages read from the source by page number, least recently used first.
+     */
+    private final Map<Integer, Object[]> pages = new LinkedHashMap<Integer, Object[]>(CACHED_PAGES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, Object[]> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    /**
+     * Creates a paged list over a source list, for example search results.
+     * @param source the rows, not copied and not to be changed while shown.
+     */
+    public PagedList(List<T> source) {
+        this.source = source;
+    }
+    /**
+     * Creates an empty paged list.
+     */
+    public PagedList() {
+        this(Collections.emptyList());
+    }
+    @Override
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        if (index < 0 || index >= source.size()) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + source.size());
+        }
+        Object[] page = pages.get(index / PAGE_SIZE);
+        if (page == null) {
+            int from = index - index % PAGE_SIZE;
+            page = source.subList(from, Math.min(from + PAGE_SIZE, source.size())).toArray();
+            pages.put(index / PAGE_SIZE, page);
+        }
+        return (T) page[index % PAGE_SIZE];
+    }
+    @Override
+    public int size() {
+        return source.size();
+    }
+    /**
+     * Shows other rows, reported to the table as a replacement of every row.
+     * @param rows the new rows, not copied and not to be changed while shown.
+     */
+    public void setSource(List<T> rows) {
+        List<T> old = source;
+        reset(rows);
+        beginChange();
+        nextReplace(0, rows.size(), old);
+        endChange();
+    }
+    /**
+     * Switches to another source without reporting a change, dropping every cached page.
+     * @param rows the new rows.
+     */
+    protected void reset(List<T> rows) {
+        source = rows;
+        pages.clear();
+    }
+    /**
+     * Gets the current source.
+     * @return the rows as last set.
+     */
+    protected List<T> source() {
+        return source;
+    }
+}
@@ -31,7 +31,9 @@ public abstract class Part {
      * @param id the id to set
      */
     public void setId(int id) {
+        int oldId = this.id;
         this.id = id;
+        Inventory.partIdChanged(this, oldId);
     }
 
     /**
@@ -46,6 +48,7 @@ public abstract class Part {
      */
     public void setName(String name) {
         this.name = name;
+        Inventory.partNameChanged(this);
     }
 
     /**
@@ -60,6 +63,7 @@ public abstract class Part {
      */
     public void setPrice(double price) {
         this.price = price;
+        Inventory.partChanged(this);
     }
 
     /**
@@ -73,7 +77,9 @@ public abstract class Part {
      * @param stock the stock to set
      */
     public void setStock(int stock) {
+        int oldStock = this.stock;
         this.stock = stock;
+        Inventory.partStockChanged(this, oldStock);
     }
 
     /**
@@ -88,6 +94,7 @@ public abstract class Part {
      */
     public void setMin(int min) {
         this.min = min;
+        Inventory.partChanged(this);
     }
 
     /**
@@ -102,6 +109,7 @@ public abstract class Part {
      */
     public void setMax(int max) {
         this.max = max;
+        Inventory.partChanged(this);
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,135 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Supplied class PartQuery.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * PartQuery Class. An InventoryQuery over the parts, adding criteria on the kind of part, its machine or vendor and
+ * the products using it. Start one with Inventory.queryParts().
+ * <p>Machine and vendor criteria are answered through Inventory's machine and vendor indexes, and "used by a
+ * product" through its part usage index, whenever they match fewer parts than a scan would read.</p>
+ */
+public class PartQuery extends InventoryQuery<Part, PartQuery> {
+    /**
+     * Creates a query matching every part.
+     */
+    PartQuery() {
+        super("parts", Part::getPrice, Part::getStock, Part::getMin, Part::getMax);
+    }
+    /**
+     * Keeps in-house parts.
+     * @return this query.
+     */
+    public PartQuery inHouse() {
+        return add(new Criterion<>("in-house", part -> part instanceof InHouse));
+    }
+    /**
+     * Keeps outsourced parts.
+     * @return this query.
+     */
+    public PartQuery outsourced() {
+        return add(new Criterion<>("outsourced", part -> part instanceof Outsourced));
+    }
+    /**
+     * Keeps in-house parts made on a machine, through the machine index.
+     * @param machineId the machine ID.
+     * @return this query.
+     */
+    public PartQuery machine(int machineId) {
+        return add(new Criterion<>("machine " + machineId,
+                part -> part instanceof InHouse && ((InHouse) part).getMachineId() == machineId,
+                () -> Inventory.getMachineTotals(machineId).getCount(),
+                () -> Inventory.lookupPartsByMachine(machineId)));
+    }
+    /**
+     * Keeps outsourced parts from a company, through the vendor index.
+     * @param companyName the company name, compared after trimming.
+     * @return this query.
+     */
+    public PartQuery company(String companyName) {
+        // Codes are never reused, so the code is kept once the company has one. Until then no part can match, and
+        // the code is looked up again, as the company can be given its first part after the query was built; the
+        // vendor index then finds no candidates, so the lookup is not made for every part.
+        AtomicInteger code = new AtomicInteger(VendorDictionary.find(companyName));
+        return add(new Criterion<>("company " + companyName, part -> {
+            if (!(part instanceof Outsourced)) {
+                return false;
+            }
+            int known = code.get();
+            if (known == VendorDictionary.NONE) {
+                known = VendorDictionary.find(companyName);
+                if (known == VendorDictionary.NONE) {
+                    return false;
+                }
+                code.set(known);
+            }
+            return ((Outsourced) part).getCompanyCode() == known;
+        },
+                () -> Inventory.countPartsByVendor(companyName),
+                () -> Inventory.lookupPartsByVendor(companyName)));
+    }
+    /**
+     * Keeps the associated parts of a product, through the part usage index.
+     * @param productId the product's ID.
+     * @return this query.
+     */
+    public PartQuery usedBy(int productId) {
+        return add(new Criterion<>("used by product " + productId, part -> {
+            Product product = Inventory.lookupProduct(productId);
+            return product != null && Inventory.isPartUsedBy(part.getId(), product);
+        }, () -> {
+            Product product = Inventory.lookupProduct(productId);
+            return product == null ? 0 : product.associatedPartIds().length;
+        }, () -> partsOf(productId)));
+    }
+    /**
+     * Keeps the parts that some product uses, or that none uses.
+     * @param used true for parts in use, false for unused parts.
+     * @return this query.
+     */
+    public PartQuery used(boolean used) {
+        return add(new Criterion<>(used ? "used" : "unused", part -> Inventory.isPartUsed(part.getId()) == used));
+    }
+    @Override
+    InventoryStore<Part> store() {
+        return Inventory.getPartStore();
+    }
+    @Override
+    OrderedIndex<Part> priceIndex() {
+        return Inventory.partPriceIndex();
+    }
+    @Override
+    OrderedIndex<Part> stockIndex() {
+        return Inventory.partStockIndex();
+    }
+    @Override
+    PartQuery self() {
+        return this;
+    }
+    /**
+     * Gets the parts in inventory that a product lists, each once.
+     */
+    private static List<Part> partsOf(int productId) {
+        Product product = Inventory.lookupProduct(productId);
+        if (product == null) {
+            return new ArrayList<>();
+        }
+        IdSet seen = new IdSet();
+        List<Part> parts = new ArrayList<>();
+        for (int id : product.associatedPartIds()) {
+            Part part = Inventory.lookupPart(id);
+            if (part != null && !seen.contains(id)) {
+                seen.add(id);
+                parts.add(part);
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,165 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Supplied class PartUsageIndex.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * PartUsageIndex Class. A reverse index from part ID to the products in inventory that list a part with that ID
+ * among their associated parts, so "which products use this part" costs as much as the number of such products
+ * instead of a scan of every product's parts.
+ * <p>Parts are indexed by ID rather than by object, because a part updated from the Modify Part screen is replaced
+ * by a new object with the same ID while products keep the object they were given. A product that lists the same
+ * part more than once is counted once per listing and reported once.</p>
+ * <p>The same index, given the IDs of a product's sub-assemblies instead of its parts, maps product IDs to the
+ * assemblies built from them.</p>
+ * <p>Changes are made by Inventory under its lock. Lookups read concurrent maps and never wait for a change.</p>
+ */
+class PartUsageIndex {
+    /**
+     * Products using each part ID, with the number of times each lists it.
+     */
+    private final ConcurrentHashMap<Integer, Map<Product, Integer>> productsByPart = new ConcurrentHashMap<>();
+    /**
+     * Part IDs each indexed product was last indexed with.
+     */
+    private final IdentityHashMap<Product, int[]> indexed = new IdentityHashMap<>();
+    /**
+     * Reads the IDs a product lists, one per listing.
+     */
+    private final Function<Product, int[]> listedIds;
+
+    /**
+     * Creates an index of the parts products list.
+     */
+    PartUsageIndex() {
+        this(Product::associatedPartIds);
+    }
+    /**
+     * Creates an index of the IDs products list.
+     * @param listedIds reads the IDs a product lists, one per listing.
+     */
+    PartUsageIndex(Function<Product, int[]> listedIds) {
+        this.listedIds = listedIds;
+    }
+
+    /**
+     * Indexes the current associated parts of a product, replacing what it was indexed with before. Costs as much
+     * as the number of parts the product lists now and listed before.
+     * @param product the product, added to inventory or changed.
+     */
+    void update(Product product) {
+        int[] partIds = listedIds.apply(product);
+        int[] old = partIds.length == 0 ? indexed.remove(product) : indexed.put(product, partIds);
+        // Net change per part ID, so parts the product still uses never disappear from a concurrent lookup.
+        Map<Integer, Integer> delta = new HashMap<>();
+        if (old != null) {
+            for (int id : old) {
+                delta.merge(id, -1, Integer::sum);
+            }
+        }
+        for (int id : partIds) {
+            delta.merge(id, 1, Integer::sum);
+        }
+        delta.forEach((id, change) -> {
+            if (change > 0) {
+                productsByPart.computeIfAbsent(id, key -> new ConcurrentHashMap<>())
+                        .merge(product, change, Integer::sum);
+            } else if (change < 0) {
+                decrement(id, product, -change);
+            }
+        });
+    }
+    /**
+     * Removes a product from the index.
+     * @param product the product leaving inventory.
+     */
+    void remove(Product product) {
+        int[] old = indexed.remove(product);
+        if (old != null) {
+            for (int id : old) {
+                decrement(id, product, 1);
+            }
+        }
+    }
+    /**
+     * Re-indexes the products that were using a part under its old ID.
+     * @param oldId the ID the part had.
+     */
+    void partIdChanged(int oldId) {
+        Map<Product, Integer> users = productsByPart.get(oldId);
+        if (users != null) {
+            for (Product product : new ArrayList<>(users.keySet())) {
+                update(product);
+            }
+        }
+    }
+    /**
+     * Empties the index.
+     */
+    void clear() {
+        indexed.clear();
+        productsByPart.clear();
+    }
+    /**
+     * Gets the products that list a part with the given ID.
+     * @param partId the part ID.
+     * @return the products, in no particular order.
+     */
+    List<Product> productsUsing(int partId) {
+        Map<Product, Integer> users = productsByPart.get(partId);
+        return users == null ? Collections.emptyList() : new ArrayList<>(users.keySet());
+    }
+    /**
+     * Tells whether any product lists a part with the given ID.
+     * @param partId the part ID.
+     * @return true if the part is used.
+     */
+    boolean isUsed(int partId) {
+        Map<Product, Integer> users = productsByPart.get(partId);
+        return users != null && !users.isEmpty();
+    }
+    /**
+     * Counts the products that list a part with the given ID.
+     * @param partId the part ID.
+     * @return the number of products.
+     */
+    int count(int partId) {
+        Map<Product, Integer> users = productsByPart.get(partId);
+        return users == null ? 0 : users.size();
+    }
+    /**
+     * Tells whether a product lists a part with the given ID.
+     * @param partId the part ID.
+     * @param product the product, compared by identity.
+     * @return true if the product is indexed as listing the part.
+     */
+    boolean isUsedBy(int partId, Product product) {
+        Map<Product, Integer> users = productsByPart.get(partId);
+        return users != null && users.containsKey(product);
+    }
+    /**
+     * Lowers the number of times a product lists a part ID, dropping entries that reach zero.
+     */
+    private void decrement(int id, Product product, int count) {
+        Map<Product, Integer> users = productsByPart.get(id);
+        if (users == null) {
+            return;
+        }
+        users.computeIfPresent(product, (key, listed) -> listed > count ? listed - count : null);
+        if (users.isEmpty()) {
+            productsByPart.remove(id, users);
+        }
+    }
+}
@@ -1,8 +1,13 @@
  package Models;
 
 import javafx.collections.FXCollections;
+import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 /**
  * Supplied class Product.java
  *
@@ -25,9 +30,18 @@ public class Product {
     private int min;
     private int max;
     /**
-     * Associated parts for product listed
+     * Associated parts for product listed, synchronized so other threads can copy them while a screen edits them.
+     */
+    private final List<Part> associatedParts = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Sub-assemblies the product is built from, each listed once per unit needed.
+     */
+    private final List<Product> components = Collections.synchronizedList(new ArrayList<>());
+    /**
+     * Observable view of the associated parts for the screens, created when a screen first asks for it. Once it
+     * exists, the associated parts are changed through it, so tables bound to it see every change.
      */
-    private ObservableList<Part> associatedParts = FXCollections.observableArrayList();
+    private volatile ObservableList<Part> associatedPartsView;
     /**
      * Constructor for a new product
      */
@@ -49,7 +63,9 @@ public class Product {
      * id setter
      */
     public void setId(int id) {
+        int oldId = this.id;
         this.id = id;
+        Inventory.productIdChanged(this, oldId);
     }
     /**
      * name getter
@@ -62,6 +78,7 @@ public class Product {
      */
     public void setName(String name) {
         this.name = name;
+        Inventory.productNameChanged(this);
     }
     /**
      * price getter
@@ -74,6 +91,7 @@ public class Product {
      */
     public void setPrice(double price) {
         this.price = price;
+        Inventory.productChanged(this);
     }
     /**
      * stock getter
@@ -85,7 +103,9 @@ public class Product {
      * stock setter
      */
     public void setStock(int stock) {
+        int oldStock = this.stock;
         this.stock = stock;
+        Inventory.productStockChanged(this, oldStock);
     }
     /**
      * min getter
@@ -98,6 +118,7 @@ public class Product {
      * */
     public void setMin(int min) {
         this.min = min;
+        Inventory.productChanged(this);
     }
     /**
      * max getter
@@ -110,26 +131,140 @@ public class Product {
      */
     public void setMax(int max) {
         this.max = max;
+        Inventory.productChanged(this);
     }
     /**
      * Adds a part to the product's associated parts list.
      */
     public void  addAssociatedPart(Part part) {
-        associatedParts.add(part);
+        ObservableList<Part> view = associatedPartsView;
+        if (view != null) {
+            view.add(part);
+        } else {
+            associatedParts.add(part);
+            Inventory.productPartsChanged(this);
+        }
     }
     /**
      * Deletes a part from the products associated parts list.
      */
     public boolean deleteAssociatedPart(Part selectedAssociatedPart) {
-        if (associatedParts.contains(selectedAssociatedPart)) {
-            associatedParts.remove(selectedAssociatedPart);
+        ObservableList<Part> view = associatedPartsView;
+        if (view != null) {
+            return view.remove(selectedAssociatedPart);
+        }
+        if (associatedParts.remove(selectedAssociatedPart)) {
+            Inventory.productPartsChanged(this);
             return true;
         }
         else
             return false;
     }
     /**
-     * List of products associated parts.
+     * Copy of the associated parts, for callers that do not use JavaFX or run on other threads.
+     * @return the associated parts at the time of the call.
+     */
+    public List<Part> getAssociatedPartList() {
+        synchronized (associatedParts) {
+            return new ArrayList<>(associatedParts);
+        }
+    }
+    /**
+     * Adds a sub-assembly to the product's components. A product needing several units of a sub-assembly lists it
+     * several times.
+     * @param component the product this product is built from.
+     * @throws IllegalArgumentException if the component is this product or is built from it, which would make the
+     * bill of materials a cycle.
+     */
+    public void addComponent(Product component) {
+        if (BillOfMaterials.isBuiltFrom(component, id)) {
+            throw new IllegalArgumentException("Product " + component.getId() + " is built from product " + id + ".");
+        }
+        components.add(component);
+        Inventory.productPartsChanged(this);
+    }
+    /**
+     * Deletes one listing of a sub-assembly from the product's components.
+     * @param component the sub-assembly to remove.
+     * @return true if it was listed.
+     */
+    public boolean deleteComponent(Product component) {
+        if (components.remove(component)) {
+            Inventory.productPartsChanged(this);
+            return true;
+        }
+        return false;
+    }
+    /**
+     * Copy of the components, for callers that do not use JavaFX or run on other threads.
+     * @return the sub-assemblies at the time of the call.
      */
-    public ObservableList<Part> getAllAssociatedParts() {return associatedParts;}
+    public List<Product> getComponentList() {
+        synchronized (components) {
+            return new ArrayList<>(components);
+        }
+    }
+    /**
+     * Replaces the associated parts and components at once, for a journal replay restoring a product that was
+     * already checked when it was first built.
+     * @param parts the new associated parts.
+     * @param newComponents the new components.
+     */
+    void setLinks(List<Part> parts, List<Product> newComponents) {
+        ObservableList<Part> view = associatedPartsView;
+        if (view != null) {
+            view.setAll(parts);
+        } else {
+            synchronized (associatedParts) {
+                associatedParts.clear();
+                associatedParts.addAll(parts);
+            }
+        }
+        synchronized (components) {
+            components.clear();
+            components.addAll(newComponents);
+        }
+        Inventory.productPartsChanged(this);
+    }
+    /**
+     * IDs of the associated parts, one per listing, for the part usage index.
+     */
+    int[] associatedPartIds() {
+        synchronized (associatedParts) {
+            int[] ids = new int[associatedParts.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = associatedParts.get(i).getId();
+            }
+            return ids;
+        }
+    }
+    /**
+     * IDs of the components, one per listing, for the component usage index.
+     */
+    int[] componentIds() {
+        synchronized (components) {
+            int[] ids = new int[components.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = components.get(i).getId();
+            }
+            return ids;
+        }
+    }
+    /**
+     * List of products associated parts. Changes made through the returned list write through to the product.
+     */
+    public ObservableList<Part> getAllAssociatedParts() {
+        ObservableList<Part> view = associatedPartsView;
+        if (view == null) {
+            synchronized (associatedParts) {
+                view = associatedPartsView;
+                if (view == null) {
+                    view = FXCollections.observableList(associatedParts);
+                    view.addListener((ListChangeListener<Part>) change -> Inventory.productPartsChanged(this));
+                    associatedPartsView = view;
+                }
+            }
+        }
+        return view;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,45 @@
+package Models;
+
+/**
+ * Supplied class ProductQuery.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ProductQuery Class. An InventoryQuery over the products, adding criteria on the parts they use. Start one with
+ * Inventory.queryProducts().
+ */
+public class ProductQuery extends InventoryQuery<Product, ProductQuery> {
+    /**
+     * Creates a query matching every product.
+     */
+    ProductQuery() {
+        super("products", Product::getPrice, Product::getStock, Product::getMin, Product::getMax);
+    }
+    /**
+     * Keeps the products whose associated parts include a part, through the part usage index.
+     * @param partId the part's ID.
+     * @return this query.
+     */
+    public ProductQuery usingPart(int partId) {
+        return add(new Criterion<>("using part " + partId, product -> Inventory.isPartUsedBy(partId, product),
+                () -> Inventory.countProductsUsing(partId), () -> Inventory.lookupProductsUsing(partId)));
+    }
+    @Override
+    InventoryStore<Product> store() {
+        return Inventory.getProductStore();
+    }
+    @Override
+    OrderedIndex<Product> priceIndex() {
+        return Inventory.productPriceIndex();
+    }
+    @Override
+    OrderedIndex<Product> stockIndex() {
+        return Inventory.productStockIndex();
+    }
+    @Override
+    ProductQuery self() {
+        return this;
+    }
+}
@@ -0,0 +1,138 @@
+package Models;
+
+/**
+ * Supplied class ReorderAlert.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ReorderAlert Class. A part or product whose inventory level has fallen to or below its minimum, as last seen by
+ * ReorderAlerts. The shortfall is how far the level is below the minimum, zero at the minimum; the reorder quantity
+ * is what brings the level back up to the maximum. Alerts are immutable: a change to the item produces a new alert
+ * with the UPDATED status, and the item leaving the reorder list one with the CLEARED status.
+ */
+public class ReorderAlert {
+    /**
+     * What happened to the item's alert.
+     */
+    public enum Status {
+        /**
+         * The item fell to or below its minimum.
+         */
+        RAISED,
+        /**
+         * The item is still at or below its minimum, with a different level or thresholds.
+         */
+        UPDATED,
+        /**
+         * The item is back above its minimum, or left inventory.
+         */
+        CLEARED
+    }
+
+    /**
+     * True for a product, false for a part.
+     */
+    private final boolean product;
+    private final int id;
+    private final String name;
+    private final int stock;
+    private final int min;
+    private final int max;
+    private final Status status;
+
+    /**
+     * Creates an alert.
+     * @param product true for a product, false for a part.
+     * @param id the item's ID.
+     * @param name the item's name.
+     * @param stock the item's inventory level.
+     * @param min the item's minimum level.
+     * @param max the item's maximum level.
+     * @param status what happened to the alert.
+     */
+    ReorderAlert(boolean product, int id, String name, int stock, int min, int max, Status status) {
+        this.product = product;
+        this.id = id;
+        this.name = name;
+        this.stock = stock;
+        this.min = min;
+        this.max = max;
+        this.status = status;
+    }
+    /**
+     * Tells whether the alert is for a product.
+     * @return true for a product, false for a part.
+     */
+    public boolean isProduct() {
+        return product;
+    }
+    /**
+     * Gets the ID of the part or product.
+     * @return the ID.
+     */
+    public int getId() {
+        return id;
+    }
+    /**
+     * Gets the name of the part or product.
+     * @return the name.
+     */
+    public String getName() {
+        return name;
+    }
+    /**
+     * Gets the inventory level.
+     * @return the stock.
+     */
+    public int getStock() {
+        return stock;
+    }
+    /**
+     * Gets the minimum level.
+     * @return the min.
+     */
+    public int getMin() {
+        return min;
+    }
+    /**
+     * Gets the maximum level.
+     * @return the max.
+     */
+    public int getMax() {
+        return max;
+    }
+    /**
+     * Gets how far the inventory level is below the minimum.
+     * @return min minus stock, zero at the minimum.
+     */
+    public int getShortfall() {
+        return min - stock;
+    }
+    /**
+     * Gets the quantity to order to bring the inventory level up to the maximum.
+     * @return max minus stock, never negative.
+     */
+    public int getReorderQuantity() {
+        return Math.max(0, max - stock);
+    }
+    /**
+     * Gets what happened to the alert.
+     * @return RAISED, UPDATED or CLEARED.
+     */
+    public Status getStatus() {
+        return status;
+    }
+    /**
+     * Creates the same alert with another status.
+     */
+    ReorderAlert withStatus(Status status) {
+        return new ReorderAlert(product, id, name, stock, min, max, status);
+    }
+    @Override
+    public String toString() {
+        return (product ? "Product " : "Part ") + id + " " + name + ": " + status + ", stock " + stock + " of min "
+                + min;
+    }
+}
@@ -0,0 +1,425 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supplied class ReorderAlerts.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ReorderAlerts Class. Keeps the parts and products whose inventory level is at or below their minimum in a
+ * priority queue ordered by shortfall, and tells subscribers when an item's alert is raised, updated or cleared.
+ * <p>The engine listens to Inventory and only notes the IDs of the items that changed, which costs a hash lookup
+ * under Inventory's lock. A worker thread then re-reads those items at most once per interval, so a burst of stock
+ * updates to the same item costs one re-read, and updates the queue in O(log n) per item. An alert is delivered at
+ * most one interval, plus the time to re-read the items changed in that interval, after the change that caused it,
+ * however many changes are made per second.</p>
+ * <p>Batches are handed to the delivery executor, for the screens Platform::runLater, so a slow subscriber does not
+ * hold up the engine. The whole inventory is read once when the engine starts and after Inventory is cleared.</p>
+ */
+public class ReorderAlerts implements AutoCloseable {
+    /**
+     * Milliseconds between batches, unless another interval is given.
+     */
+    public static final long DEFAULT_INTERVAL_MILLIS = 50;
+    /**
+     * Orders the queue: largest shortfall first, then parts before products, then by ID.
+     */
+    private static final Comparator<ReorderAlert> PRIORITY = Comparator
+            .comparingInt(ReorderAlert::getShortfall).reversed()
+            .thenComparing(ReorderAlert::isProduct)
+            .thenComparingInt(ReorderAlert::getId);
+    /**
+     * Runs the subscribers' callbacks.
+     */
+    private final Executor delivery;
+    /**
+     * Milliseconds between batches.
+     */
+    private final long intervalMillis;
+    /**
+     * Re-reads the changed items and publishes the batches.
+     */
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(task -> {
+        Thread thread = new Thread(task, "reorder-alerts");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * Subscribers.
+     */
+    private final List<ReorderListener> listeners = new CopyOnWriteArrayList<>();
+    /**
+     * Notes the items Inventory changes.
+     */
+    private final InventoryListener inventoryListener = new Changes();
+    /**
+     * Guards the changes waiting for the next batch.
+     */
+    private final Object pendingLock = new Object();
+    /**
+     * IDs of the parts changed since the last batch.
+     */
+    private IdSet changedParts = new IdSet();
+    /**
+     * IDs of the products changed since the last batch.
+     */
+    private IdSet changedProducts = new IdSet();
+    /**
+     * True when the next batch has to read the whole inventory.
+     */
+    private boolean rescan = true;
+    /**
+     * True while a batch is scheduled.
+     */
+    private boolean scheduled;
+    /**
+     * The queue as a binary heap of the current alerts, guarded by this.
+     */
+    private ReorderAlert[] heap = new ReorderAlert[64];
+    private int size;
+    /**
+     * Heap position of each part ID with an alert.
+     */
+    private final IntIntHashMap partPositions = new IntIntHashMap();
+    /**
+     * Heap position of each product ID with an alert.
+     */
+    private final IntIntHashMap productPositions = new IntIntHashMap();
+
+    /**
+     * Creates an engine delivering batches on its own thread, at the default interval.
+     */
+    public ReorderAlerts() {
+        this(Runnable::run, DEFAULT_INTERVAL_MILLIS);
+    }
+    /**
+     * Creates an engine and starts watching Inventory.
+     * @param delivery runs the subscribers' callbacks, such as Platform::runLater.
+     * @param intervalMillis milliseconds between batches, the most a change waits before it is looked at.
+     */
+    public ReorderAlerts(Executor delivery, long intervalMillis) {
+        this.delivery = delivery;
+        this.intervalMillis = intervalMillis;
+        Inventory.addListener(inventoryListener);
+        synchronized (pendingLock) {
+            schedule();
+        }
+    }
+    /**
+     * Subscribes to the alerts. A new subscriber only hears about changes; getAlerts gives the current ones.
+     * @param listener the subscriber.
+     */
+    public void addListener(ReorderListener listener) {
+        listeners.add(listener);
+    }
+    /**
+     * Unsubscribes from the alerts.
+     * @param listener the subscriber.
+     */
+    public void removeListener(ReorderListener listener) {
+        listeners.remove(listener);
+    }
+    /**
+     * Gets the current alerts, as of the last batch.
+     * @return the alerts by decreasing shortfall.
+     */
+    public synchronized List<ReorderAlert> getAlerts() {
+        ReorderAlert[] alerts = Arrays.copyOf(heap, size);
+        Arrays.sort(alerts, PRIORITY);
+        return Collections.unmodifiableList(Arrays.asList(alerts));
+    }
+    /**
+     * Gets the alert with the largest shortfall, in constant time.
+     * @return the most urgent alert, null if nothing needs reordering.
+     */
+    public synchronized ReorderAlert peek() {
+        return size == 0 ? null : heap[0];
+    }
+    /**
+     * Counts the items at or below their minimum.
+     * @return the number of alerts.
+     */
+    public synchronized int size() {
+        return size;
+    }
+    /**
+     * Stops watching Inventory and delivering alerts.
+     */
+    @Override
+    public void close() {
+        Inventory.removeListener(inventoryListener);
+        synchronized (pendingLock) {
+            worker.shutdownNow();
+        }
+    }
+    /**
+     * Schedules the next batch unless one is already scheduled; called holding pendingLock.
+     */
+    private void schedule() {
+        if (!scheduled && !worker.isShutdown()) {
+            scheduled = true;
+            worker.schedule(this::runBatch, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+    /**
+     * Notes a changed part.
+     */
+    private void partChanged(int id) {
+        synchronized (pendingLock) {
+            if (!changedParts.contains(id)) {
+                changedParts.add(id);
+            }
+            schedule();
+        }
+    }
+    /**
+     * Notes a changed product.
+     */
+    private void productChanged(int id) {
+        synchronized (pendingLock) {
+            if (!changedProducts.contains(id)) {
+                changedProducts.add(id);
+            }
+            schedule();
+        }
+    }
+    /**
+     * Re-reads the items changed since the last batch and delivers the alerts that changed.
+     */
+    private void runBatch() {
+        IdSet parts;
+        IdSet products;
+        boolean all;
+        synchronized (pendingLock) {
+            parts = changedParts;
+            products = changedProducts;
+            all = rescan;
+            changedParts = new IdSet();
+            changedProducts = new IdSet();
+            rescan = false;
+            scheduled = false;
+        }
+        List<ReorderAlert> changes = new ArrayList<>();
+        synchronized (this) {
+            if (all) {
+                for (ReorderAlert alert : Arrays.copyOf(heap, size)) {
+                    reread(alert.isProduct(), alert.getId(), changes);
+                }
+                for (Part part : Inventory.getPartStore().snapshot()) {
+                    evaluate(false, part.getId(), part.getName(), part.getStock(), part.getMin(), part.getMax(),
+                            changes);
+                }
+                for (Product product : Inventory.getProductStore().snapshot()) {
+                    evaluate(true, product.getId(), product.getName(), product.getStock(), product.getMin(),
+                            product.getMax(), changes);
+                }
+            }
+            for (int id : parts.toArray()) {
+                reread(false, id, changes);
+            }
+            for (int id : products.toArray()) {
+                reread(true, id, changes);
+            }
+        }
+        if (changes.isEmpty()) {
+            return;
+        }
+        changes.sort(Comparator.comparing((ReorderAlert alert) -> alert.getStatus() == ReorderAlert.Status.CLEARED)
+                .thenComparing(PRIORITY));
+        List<ReorderAlert> batch = Collections.unmodifiableList(changes);
+        for (ReorderListener listener : listeners) {
+            delivery.execute(() -> listener.alertsChanged(batch));
+        }
+    }
+    /**
+     * Looks an item up by ID and updates its alert.
+     */
+    private void reread(boolean product, int id, List<ReorderAlert> changes) {
+        if (product) {
+            Product item = Inventory.lookupProduct(id);
+            if (item == null) {
+                clear(true, id, changes);
+            } else {
+                evaluate(true, id, item.getName(), item.getStock(), item.getMin(), item.getMax(), changes);
+            }
+        } else {
+            Part item = Inventory.lookupPart(id);
+            if (item == null) {
+                clear(false, id, changes);
+            } else {
+                evaluate(false, id, item.getName(), item.getStock(), item.getMin(), item.getMax(), changes);
+            }
+        }
+    }
+    /**
+     * Raises, updates or clears an item's alert from its current fields, noting what changed.
+     */
+    private void evaluate(boolean product, int id, String name, int stock, int min, int max,
+                          List<ReorderAlert> changes) {
+        if (stock > min) {
+            clear(product, id, changes);
+            return;
+        }
+        IntIntHashMap positions = product ? productPositions : partPositions;
+        int position = positions.get(id);
+        if (position == IntIntHashMap.MISSING) {
+            ReorderAlert alert = new ReorderAlert(product, id, name, stock, min, max, ReorderAlert.Status.RAISED);
+            if (size == heap.length) {
+                heap = Arrays.copyOf(heap, size * 2);
+            }
+            place(alert, size++);
+            siftUp(size - 1);
+            changes.add(alert);
+            return;
+        }
+        ReorderAlert old = heap[position];
+        if (old.getStock() == stock && old.getMin() == min && old.getMax() == max
+                && Objects.equals(old.getName(), name)) {
+            return;
+        }
+        ReorderAlert alert = new ReorderAlert(product, id, name, stock, min, max, ReorderAlert.Status.UPDATED);
+        place(alert, position);
+        siftDown(siftUp(position));
+        changes.add(alert);
+    }
+    /**
+     * Removes an item's alert if it has one, noting it as cleared.
+     */
+    private void clear(boolean product, int id, List<ReorderAlert> changes) {
+        int position = (product ? productPositions : partPositions).remove(id);
+        if (position == IntIntHashMap.MISSING) {
+            return;
+        }
+        changes.add(heap[position].withStatus(ReorderAlert.Status.CLEARED));
+        ReorderAlert last = heap[--size];
+        heap[size] = null;
+        if (position != size) {
+            place(last, position);
+            siftDown(siftUp(position));
+        }
+    }
+    /**
+     * Puts an alert at a heap position and records the position.
+     */
+    private void place(ReorderAlert alert, int position) {
+        heap[position] = alert;
+        (alert.isProduct() ? productPositions : partPositions).put(alert.getId(), position);
+    }
+    /**
+     * Moves an alert up while it outranks its parent.
+     * @return the alert's new position.
+     */
+    private int siftUp(int position) {
+        ReorderAlert alert = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) / 2;
+            if (PRIORITY.compare(alert, heap[parent]) >= 0) {
+                break;
+            }
+            place(heap[parent], position);
+            position = parent;
+        }
+        place(alert, position);
+        return position;
+    }
+    /**
+     * Moves an alert down while a child outranks it.
+     */
+    private void siftDown(int position) {
+        ReorderAlert alert = heap[position];
+        while (true) {
+            int child = 2 * position + 1;
+            if (child >= size) {
+                break;
+            }
+            if (child + 1 < size && PRIORITY.compare(heap[child + 1], heap[child]) < 0) {
+                child++;
+            }
+            if (PRIORITY.compare(heap[child], alert) >= 0) {
+                break;
+            }
+            place(heap[child], position);
+            position = child;
+        }
+        place(alert, position);
+    }
+
+    /**
+     * Notes the IDs of the items Inventory changes.
+     */
+    private final class Changes implements InventoryListener {
+        @Override
+        public void partAdded(Part part) {
+            partChanged(part.getId());
+        }
+        @Override
+        public void partsAdded(Collection<? extends Part> parts) {
+            synchronized (pendingLock) {
+                for (Part part : parts) {
+                    partChanged(part.getId());
+                }
+            }
+        }
+        @Override
+        public void partUpdated(Part old, Part part) {
+            partChanged(old.getId());
+            partChanged(part.getId());
+        }
+        @Override
+        public void partIdChanged(Part part, int oldId) {
+            partChanged(oldId);
+            partChanged(part.getId());
+        }
+        @Override
+        public void partRemoved(Part part) {
+            partChanged(part.getId());
+        }
+        @Override
+        public void productAdded(Product product) {
+            productChanged(product.getId());
+        }
+        @Override
+        public void productsAdded(Collection<? extends Product> products) {
+            synchronized (pendingLock) {
+                for (Product product : products) {
+                    productChanged(product.getId());
+                }
+            }
+        }
+        @Override
+        public void productUpdated(Product old, Product product) {
+            productChanged(old.getId());
+            productChanged(product.getId());
+        }
+        @Override
+        public void productIdChanged(Product product, int oldId) {
+            productChanged(oldId);
+            productChanged(product.getId());
+        }
+        @Override
+        public void productRemoved(Product product) {
+            productChanged(product.getId());
+        }
+        @Override
+        public void cleared() {
+            synchronized (pendingLock) {
+                rescan = true;
+                schedule();
+            }
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package Models;
+
+import java.util.List;
+
+/**
+ * Supplied class ReorderListener.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ReorderListener Interface. Subscribes to ReorderAlerts. Alerts are delivered in batches: all the items whose alert
+ * was raised, updated or cleared since the last batch, each item at most once with its latest state.
+ */
+public interface ReorderListener {
+    /**
+     * Called through the delivery executor of ReorderAlerts with the alerts that changed.
+     * @param alerts the changed alerts, by decreasing shortfall; cleared alerts last.
+     */
+    void alertsChanged(List<ReorderAlert> alerts);
+}
@@ -0,0 +1,500 @@
+package Models;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * Supplied class SearchIndex.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * SearchIndex Class. An n-gram index over the ID and name of parts or products, answering the search screens'
+ * "ID or name contains the text" query without scanning the whole inventory.
+ * <p>Every 1, 2 and 3 character gram of an item's ID text and name is mapped to a posting list of the items
+ * containing it. A query of up to three characters is answered by a single posting list; a longer query intersects
+ * the posting lists of its trigrams and then confirms each candidate with {@code contains}, so the results are
+ * exactly the items for which {@code String.valueOf(id).contains(text) || name.contains(text)} holds.</p>
+ * <p>Results come back in the order the items were added. An item replaced through {@link #replace} keeps the
+ * position of the item it replaced.</p>
+ * <p>Changes are serialized by a StampedLock. Searches read optimistically without locking and are only retried
+ * when a change was made while they ran; {@link #trySearch} never waits for a change to finish.</p>
+ * <p>A disabled index holds nothing, ignores changes and answers no searches, for stores whose items should not
+ * be kept alive by an index.</p>
+ * @param <T> the type of the indexed items.
+ */
+public class SearchIndex<T> {
+    /**
+     * Reads the ID of an item.
+     */
+    private final ToIntFunction<T> idOf;
+    /**
+     * Reads the name of an item.
+     */
+    private final Function<T, String> nameOf;
+    /**
+     * Indexed items by document number, null once removed.
+     */
+    private Object[] docs = new Object[16];
+    /**
+     * Position of each document in the result order.
+     */
+    private long[] order = new long[16];
+    /**
+     * Next free document number.
+     */
+    private int docCount;
+    /**
+     * Number of documents that have been removed but are still listed in postings.
+     */
+    private int deadCount;
+    /**
+     * Next position handed out to a newly added item.
+     */
+    private long nextOrder;
+    /**
+     * Document number of each indexed item.
+     */
+    private final IdentityHashMap<T, Integer> docOf = new IdentityHashMap<>();
+    /**
+     * Posting lists by gram.
+     */
+    private GramTable grams = new GramTable();
+    /**
+     * Serializes changes and lets searches detect a change made while they ran.
+     */
+    private final StampedLock lock = new StampedLock();
+    /**
+     * False when the index ignores changes and answers no searches.
+     */
+    private volatile boolean enabled = true;
+
+    /**
+     * Creates an empty search index.
+     * @param idOf reads the ID of an item.
+     * @param nameOf reads the name of an item.
+     */
+    public SearchIndex(ToIntFunction<T> idOf, Function<T, String> nameOf) {
+        this.idOf = idOf;
+        this.nameOf = nameOf;
+    }
+    /**
+     * Adds an item to the end of the index.
+     * @param item the item to add.
+     */
+    public void add(T item) {
+        if (!enabled) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            if (!docOf.containsKey(item)) {
+                index(item, nextOrder++);
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**
+     * Removes an item from the index.
+     * @param item the item to remove.
+     */
+    public void remove(T item) {
+        if (!enabled) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            unindex(item);
+            compactIfSparse();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**
+     * Replaces an item by another, which takes over its position in the results.
+     * @param old the item being replaced.
+     * @param item the replacement.
+     */
+    public void replace(T old, T item) {
+        if (!enabled) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            Integer doc = docOf.get(old);
+            if (doc == null) {
+                if (!docOf.containsKey(item)) {
+                    index(item, nextOrder++);
+                }
+                return;
+            }
+            long position = order[doc];
+            unindex(old);
+            unindex(item);
+            index(item, position);
+            compactIfSparse();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**
+     * Re-indexes an item after its ID or name changed, keeping its position.
+     * @param item the changed item.
+     */
+    public void update(T item) {
+        if (!enabled) {
+            return;
+        }
+        long stamp = lock.writeLock();
+        try {
+            Integer doc = docOf.get(item);
+            if (doc != null) {
+                long position = order[doc];
+                unindex(item);
+                index(item, position);
+                compactIfSparse();
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**
+     * Removes every item.
+     */
+    public void clear() {
+        long stamp = lock.writeLock();
+        try {
+            docs = new Object[16];
+            order = new long[16];
+            docCount = 0;
+            deadCount = 0;
+            nextOrder = 0;
+            docOf.clear();
+            grams = new GramTable();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+    /**
+     * Enables or disables the index, removing every item either way. The items in the store have to be added
+     * again after enabling it.
+     * @param enabled false to stop indexing and answering searches.
+     */
+    public void setEnabled(boolean enabled) {
+        clear();
+        this.enabled = enabled;
+    }
+    /**
+     * Finds the items whose ID text or name contains the given text. Waits for a change in progress only if
+     * reading without a lock was interrupted by changes twice.
+     * @param text the text to search for.
+     * @return the matching items in index order, null if the index is disabled.
+     */
+    public List<T> search(String text) {
+        if (!enabled) {
+            return null;
+        }
+        List<T> found = trySearch(text);
+        if (found == null) {
+            found = trySearch(text);
+        }
+        if (found == null) {
+            long stamp = lock.readLock();
+            try {
+                found = find(text);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return found;
+    }
+    /**
+     * Finds the items whose ID text or name contains the given text without waiting for changes.
+     * @param text the text to search for.
+     * @return the matching items in index order, null if a change was in progress or made during the search or
+     * the index is disabled.
+     */
+    public List<T> trySearch(String text) {
+        if (!enabled) {
+            return null;
+        }
+        long stamp = lock.tryOptimisticRead();
+        if (stamp == 0) {
+            return null;
+        }
+        try {
+            List<T> found = find(text);
+            return lock.validate(stamp) ? found : null;
+        } catch (RuntimeException e) {
+            // A change made during the search left the arrays it read out of step with each other.
+            return null;
+        }
+    }
+    /**
+     * Answers a search from the index; the caller makes sure no change runs meanwhile, or validates afterwards.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> find(String text) {
+        int[] candidates;
+        boolean exact;
+        if (text.isEmpty()) {
+            candidates = new int[docCount];
+            for (int i = 0; i < docCount; i++) {
+                candidates[i] = i;
+            }
+            exact = true;
+        } else if (text.length() <= 3) {
+            IntList posting = grams.get(gram(text, 0, text.length()));
+            candidates = posting == null ? new int[0] : posting.toArray();
+            exact = true;
+        } else {
+            candidates = intersectTrigrams(text);
+            exact = false;
+        }
+        int found = 0;
+        int[] matches = new int[candidates.length];
+        for (int doc : candidates) {
+            T item = (T) docs[doc];
+            if (item != null && (exact || matches(item, text))) {
+                matches[found++] = doc;
+            }
+        }
+        return inOrder(matches, found);
+    }
+    /**
+     * Number of items in the index.
+     * @return the size.
+     */
+    public int size() {
+        return docOf.size();
+    }
+    /**
+     * The search semantics the index answers, applied to a single item.
+     */
+    private boolean matches(T item, String text) {
+        return String.valueOf(idOf.applyAsInt(item)).contains(text) || nameOf.apply(item).contains(text);
+    }
+    /**
+     * Intersects the posting lists of every trigram of a text, smallest list first.
+     */
+    private int[] intersectTrigrams(String text) {
+        int count = text.length() - 2;
+        IntList[] lists = new IntList[count];
+        for (int i = 0; i < count; i++) {
+            lists[i] = grams.get(gram(text, i, 3));
+            if (lists[i] == null) {
+                return new int[0];
+            }
+        }
+        Arrays.sort(lists, (a, b) -> Integer.compare(a.size, b.size));
+        int[] result = lists[0].toArray();
+        int length = result.length;
+        for (int i = 1; i < count && length > 0; i++) {
+            length = retainAll(result, length, lists[i]);
+        }
+        return Arrays.copyOf(result, length);
+    }
+    /**
+     * Keeps the documents of a sorted array that also appear in a sorted posting list.
+     * @return the number of documents kept at the start of the array.
+     */
+    private static int retainAll(int[] docs, int length, IntList posting) {
+        int kept = 0;
+        int j = 0;
+        for (int i = 0; i < length && j < posting.size; i++) {
+            while (j < posting.size && posting.values[j] < docs[i]) {
+                j++;
+            }
+            if (j < posting.size && posting.values[j] == docs[i]) {
+                docs[kept++] = docs[i];
+            }
+        }
+        return kept;
+    }
+    /**
+     * Collects matching documents sorted by their position.
+     */
+    @SuppressWarnings("unchecked")
+    private List<T> inOrder(int[] matches, int found) {
+        long[] keyed = new long[found];
+        boolean sorted = true;
+        for (int i = 0; i < found; i++) {
+            keyed[i] = order[matches[i]];
+            sorted &= i == 0 || keyed[i - 1] < keyed[i];
+        }
+        List<T> result = new ArrayList<>(found);
+        if (sorted) {
+            for (int i = 0; i < found; i++) {
+                result.add((T) docs[matches[i]]);
+            }
+            return result;
+        }
+        // Replaced items sit out of document order, so sort the few matches by position.
+        Integer[] byPosition = new Integer[found];
+        for (int i = 0; i < found; i++) {
+            byPosition[i] = i;
+        }
+        Arrays.sort(byPosition, (x, y) -> Long.compare(keyed[x], keyed[y]));
+        for (Integer i : byPosition) {
+            result.add((T) docs[matches[i]]);
+        }
+        return result;
+    }
+    /**
+     * Marks the document of an item as dead.
+     */
+    private void unindex(T item) {
+        Integer doc = docOf.remove(item);
+        if (doc != null) {
+            docs[doc] = null;
+            deadCount++;
+        }
+    }
+    /**
+     * Adds an item under a new document number at the given position.
+     */
+    private void index(T item, long position) {
+        if (docCount == docs.length) {
+            docs = Arrays.copyOf(docs, docCount * 2);
+            order = Arrays.copyOf(order, docCount * 2);
+        }
+        int doc = docCount++;
+        docs[doc] = item;
+        order[doc] = position;
+        docOf.put(item, doc);
+        addGrams(String.valueOf(idOf.applyAsInt(item)), doc);
+        addGrams(nameOf.apply(item), doc);
+    }
+    /**
+     * Adds a document to the posting list of every 1, 2 and 3 character gram of a text.
+     */
+    private void addGrams(String text, int doc) {
+        for (int i = 0; i < text.length(); i++) {
+            for (int length = 1; length <= 3 && i + length <= text.length(); length++) {
+                IntList posting = grams.getOrCreate(gram(text, i, length));
+                // Documents are numbered in increasing order, so a repeated gram only has to check the tail.
+                if (posting.size == 0 || posting.values[posting.size - 1] != doc) {
+                    posting.add(doc);
+                }
+            }
+        }
+    }
+    /**
+     * Rebuilds the index once more than half of the documents are dead.
+     */
+    @SuppressWarnings("unchecked")
+    private void compactIfSparse() {
+        if (deadCount < 1024 || deadCount * 2 < docCount) {
+            return;
+        }
+        Object[] oldDocs = docs;
+        long[] oldOrder = order;
+        int oldCount = docCount;
+        docs = new Object[Math.max(16, docOf.size() * 2)];
+        order = new long[docs.length];
+        docCount = 0;
+        deadCount = 0;
+        docOf.clear();
+        grams = new GramTable();
+        for (int i = 0; i < oldCount; i++) {
+            if (oldDocs[i] != null) {
+                index((T) oldDocs[i], oldOrder[i]);
+            }
+        }
+    }
+    /**
+     * Packs a gram of up to three characters and its length into a long.
+     */
+    private static long gram(String text, int start, int length) {
+        long key = length;
+        for (int i = 0; i < 3; i++) {
+            key = (key << 16) | (i < length ? text.charAt(start + i) : 0);
+        }
+        return key;
+    }
+
+    /**
+     * A growable array of document numbers.
+     */
+    private static final class IntList {
+        int[] values = new int[4];
+        int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+
+    /**
+     * Posting lists keyed by packed gram, with open addressing on primitive long keys.
+     */
+    private static final class GramTable {
+        long[] keys = new long[1024];
+        IntList[] lists = new IntList[1024];
+        int size;
+
+        IntList get(long key) {
+            int mask = keys.length - 1;
+            for (int i = mix(key) & mask; lists[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return lists[i];
+                }
+            }
+            return null;
+        }
+
+        IntList getOrCreate(long key) {
+            int mask = keys.length - 1;
+            int i = mix(key) & mask;
+            for (; lists[i] != null; i = (i + 1) & mask) {
+                if (keys[i] == key) {
+                    return lists[i];
+                }
+            }
+            IntList list = new IntList();
+            keys[i] = key;
+            lists[i] = list;
+            if (++size > keys.length / 2) {
+                resize();
+            }
+            return list;
+        }
+
+        void resize() {
+            long[] oldKeys = keys;
+            IntList[] oldLists = lists;
+            keys = new long[oldKeys.length * 2];
+            lists = new IntList[oldKeys.length * 2];
+            int mask = keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++) {
+                if (oldLists[j] != null) {
+                    int i = mix(oldKeys[j]) & mask;
+                    while (lists[i] != null) {
+                        i = (i + 1) & mask;
+                    }
+                    keys[i] = oldKeys[j];
+                    lists[i] = oldLists[j];
+                }
+            }
+        }
+
+        static int mix(long key) {
+            long h = key * 0x9E3779B97F4A7C15L;
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+}
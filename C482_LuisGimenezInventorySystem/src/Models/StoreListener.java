@@ -0,0 +1,39 @@
+package Models;
+
+import java.util.List;
+
+/**
+ * Supplied class StoreListener.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * StoreListener Interface. Receives the positional changes of an InventoryStore, called after each change is made.
+ * @param <T> the type of the stored items.
+ */
+public interface StoreListener<T> {
+    /**
+     * Items were added.
+     * @param from the position of the first added item.
+     * @param to the position after the last added item.
+     */
+    void added(int from, int to);
+    /**
+     * An item was removed. If it was not the last item, the last item was moved into its position.
+     * @param index the position the item was removed from.
+     * @param item the removed item.
+     */
+    void removed(int index, T item);
+    /**
+     * An item was replaced.
+     * @param index the position of the replacement.
+     * @param old the replaced item.
+     */
+    void replaced(int index, T old);
+    /**
+     * Every item was removed.
+     * @param items the removed items, in their former order.
+     */
+    void cleared(List<? extends T> items);
+}
@@ -0,0 +1,150 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+
+/**
+ * Supplied class ValuationIndex.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * ValuationIndex Class. Keeps the InventoryTotals of the parts or the products in inventory up to date as items are
+ * added, changed, replaced and removed, so reading them costs the same however large the catalog is.
+ * <p>The stock, price and below-minimum state each item ID was last counted with are kept, like MachineIndex, so a
+ * change only subtracts the item's old contribution and adds the new one. Prices are counted in whole cents, so
+ * the stock value is exact fixed-point arithmetic and does not drift however many changes are summed up, which a
+ * running double sum would.</p>
+ * <p>Changes are made by Inventory under its lock; the totals are immutable and published through a volatile
+ * field, so reading them never waits.</p>
+ * @param <T> the type of the counted items.
+ */
+class ValuationIndex<T> {
+    private final ToIntFunction<T> idOf;
+    private final ToIntFunction<T> stockOf;
+    private final ToDoubleFunction<T> priceOf;
+    private final ToIntFunction<T> minOf;
+    /**
+     * Current totals.
+     */
+    private volatile InventoryTotals totals = InventoryTotals.NONE;
+    /**
+     * Slot holding what each counted item ID was last counted with.
+     */
+    private final IntIntHashMap slotOf = new IntIntHashMap();
+    /**
+     * Inventory level of each slot.
+     */
+    private int[] stocks = new int[64];
+    /**
+     * Price in cents of each slot.
+     */
+    private long[] cents = new long[64];
+    /**
+     * Whether each slot was below its minimum.
+     */
+    private boolean[] below = new boolean[64];
+    /**
+     * Slots freed by removed items, reused before new ones.
+     */
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+    /**
+     * Next slot never used.
+     */
+    private int nextSlot;
+
+    /**
+     * Creates empty totals.
+     * @param idOf reads the ID of an item.
+     * @param stockOf reads the inventory level of an item.
+     * @param priceOf reads the price of an item.
+     * @param minOf reads the minimum level of an item.
+     */
+    ValuationIndex(ToIntFunction<T> idOf, ToIntFunction<T> stockOf, ToDoubleFunction<T> priceOf,
+                   ToIntFunction<T> minOf) {
+        this.idOf = idOf;
+        this.stockOf = stockOf;
+        this.priceOf = priceOf;
+        this.minOf = minOf;
+    }
+    /**
+     * Counts an item's current stock and price, replacing what it was counted with before.
+     * @param item the item, added to inventory or changed.
+     */
+    synchronized void update(T item) {
+        int id = idOf.applyAsInt(item);
+        int stock = stockOf.applyAsInt(item);
+        long price = Math.round(priceOf.applyAsDouble(item) * 100);
+        boolean isBelow = stock < minOf.applyAsInt(item);
+        int slot = slotOf.get(id);
+        if (slot == IntIntHashMap.MISSING) {
+            slot = allocate();
+            slotOf.put(id, slot);
+            add(1, stock, stock * price, isBelow ? 1 : 0);
+        } else if (stocks[slot] == stock && cents[slot] == price && below[slot] == isBelow) {
+            return;
+        } else {
+            add(0, stock - stocks[slot], stock * price - stocks[slot] * cents[slot],
+                    (isBelow ? 1 : 0) - (below[slot] ? 1 : 0));
+        }
+        stocks[slot] = stock;
+        cents[slot] = price;
+        below[slot] = isBelow;
+    }
+    /**
+     * Stops counting an item ID.
+     * @param id the ID of the item leaving inventory, or the ID an item had before it changed.
+     */
+    synchronized void remove(int id) {
+        int slot = slotOf.remove(id);
+        if (slot == IntIntHashMap.MISSING) {
+            return;
+        }
+        add(-1, -stocks[slot], -stocks[slot] * cents[slot], below[slot] ? -1 : 0);
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+    }
+    /**
+     * Stops counting every item.
+     */
+    synchronized void clear() {
+        slotOf.clear();
+        freeCount = 0;
+        nextSlot = 0;
+        totals = InventoryTotals.NONE;
+    }
+    /**
+     * Gets the current totals.
+     * @return the totals, in constant time.
+     */
+    InventoryTotals totals() {
+        return totals;
+    }
+    /**
+     * Publishes the totals changed by the given amounts, in one step so readers never see half a change.
+     */
+    private void add(int count, long stock, long value, int belowMin) {
+        InventoryTotals current = totals;
+        totals = new InventoryTotals(current.getCount() + count, current.getTotalStock() + stock,
+                current.getStockValueCents() + value, current.getBelowMinCount() + belowMin);
+    }
+    /**
+     * Hands out a free slot, growing the arrays when none is left.
+     */
+    private int allocate() {
+        if (freeCount > 0) {
+            return freeSlots[--freeCount];
+        }
+        if (nextSlot == stocks.length) {
+            stocks = Arrays.copyOf(stocks, nextSlot * 2);
+            cents = Arrays.copyOf(cents, nextSlot * 2);
+            below = Arrays.copyOf(below, nextSlot * 2);
+        }
+        return nextSlot++;
+    }
+}
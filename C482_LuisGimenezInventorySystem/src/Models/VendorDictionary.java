@@ -0,0 +1,106 @@
+package Models;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Supplied class VendorDictionary.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * VendorDictionary Class. Canonicalizes the company names of outsourced parts to small integer codes, so a catalog
+ * with millions of outsourced parts from a few hundred vendors keeps a few hundred company name strings instead of
+ * one per part. Outsourced parts store the code, and the vendor index in Inventory is keyed by it.
+ * <p>Names are trimmed, so "Shimano" and "Shimano " are the same vendor; otherwise they are kept as entered. Codes
+ * are handed out from zero in the order vendors are first seen and never reused, for as long as the application
+ * runs.</p>
+ * <p>Looking up a known name or a code never waits; adding a new vendor is synchronized.</p>
+ */
+public class VendorDictionary {
+    /**
+     * Code standing for no company name.
+     */
+    public static final int NONE = -1;
+    /**
+     * Code of each vendor name.
+     */
+    private static final ConcurrentHashMap<String, Integer> codes = new ConcurrentHashMap<>();
+    /**
+     * Vendor name of each code.
+     */
+    private static volatile String[] names = new String[64];
+    /**
+     * Number of vendors; written after the name it counts, so a reader seeing a code sees its name.
+     */
+    private static volatile int size;
+
+    /**
+     * No instances; the dictionary is shared by the whole inventory.
+     */
+    private VendorDictionary() {
+    }
+    /**
+     * Gets the code of a company name, adding the vendor if it is new.
+     * @param companyName the company name, may be null.
+     * @return the vendor's code, NONE for null.
+     */
+    public static int code(String companyName) {
+        int code = find(companyName);
+        return code != NONE || companyName == null ? code : add(companyName.trim());
+    }
+    /**
+     * Gets the code of a company name without adding it.
+     * @param companyName the company name, may be null.
+     * @return the vendor's code, NONE if no part was ever given that company name.
+     */
+    public static int find(String companyName) {
+        if (companyName == null) {
+            return NONE;
+        }
+        Integer code = codes.get(companyName);
+        if (code == null) {
+            code = codes.get(companyName.trim());
+        }
+        return code != null ? code : NONE;
+    }
+    /**
+     * Gets the company name of a code.
+     * @param code the vendor's code, or NONE.
+     * @return the canonical company name, null for NONE.
+     */
+    public static String name(int code) {
+        if (code == NONE) {
+            return null;
+        }
+        if (code < 0 || code >= size) {
+            throw new IllegalArgumentException("Unknown vendor code " + code + ".");
+        }
+        return names[code];
+    }
+    /**
+     * Number of vendors seen so far.
+     * @return the number of codes handed out.
+     */
+    public static int size() {
+        return size;
+    }
+    /**
+     * Hands out the next code to a trimmed name, unless another thread added it first.
+     */
+    private static synchronized int add(String companyName) {
+        Integer code = codes.get(companyName);
+        if (code != null) {
+            return code;
+        }
+        int next = size;
+        if (next == names.length) {
+            names = Arrays.copyOf(names, next * 2);
+        }
+        names[next] = companyName;
+        size = next + 1;
+        codes.put(companyName, next);
+        return next;
+    }
+}
@@ -0,0 +1,94 @@
+package Models;
+
+import java.util.Arrays;
+
+/**
+ * Supplied class VendorIndex.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * VendorIndex Class. An index from vendor code to the IDs of the outsourced parts in inventory from that vendor, so
+ * "all parts from vendor X" costs as much as the number of such parts instead of a scan of every part.
+ * <p>Parts are indexed by ID rather than by object, like PartUsageIndex, so a part replaced by a new object with the
+ * same ID stays indexed, and no part object is kept alive by the index. The IDs of each vendor are kept in an
+ * IdSet.</p>
+ * <p>Changes are made by Inventory under its lock; lookups copy the IDs of one vendor under the index's own
+ * monitor.</p>
+ */
+class VendorIndex {
+    /**
+     * Part IDs of each vendor, by vendor code; null for vendors without parts in inventory.
+     */
+    private IdSet[] partsByVendor = new IdSet[64];
+    /**
+     * Vendor code each indexed part ID was last indexed with.
+     */
+    private final IntIntHashMap vendorOf = new IntIntHashMap();
+
+    /**
+     * Indexes a part under its current vendor, moving it from the vendor it was indexed with before. Parts that are
+     * not outsourced or have no company name are not indexed.
+     * @param part the part, added to inventory or changed.
+     */
+    synchronized void update(Part part) {
+        int code = part instanceof Outsourced ? ((Outsourced) part).getCompanyCode() : VendorDictionary.NONE;
+        int old = vendorOf.get(part.getId());
+        // MISSING and NONE are both -1, so a part without a vendor that was not indexed needs nothing either.
+        if (old == code) {
+            return;
+        }
+        if (old != IntIntHashMap.MISSING) {
+            partsByVendor[old].remove(part.getId());
+        }
+        if (code == VendorDictionary.NONE) {
+            vendorOf.remove(part.getId());
+            return;
+        }
+        vendorOf.put(part.getId(), code);
+        if (code >= partsByVendor.length) {
+            partsByVendor = Arrays.copyOf(partsByVendor, Math.max(code + 1, partsByVendor.length * 2));
+        }
+        if (partsByVendor[code] == null) {
+            partsByVendor[code] = new IdSet();
+        }
+        partsByVendor[code].add(part.getId());
+    }
+    /**
+     * Removes a part ID from the index.
+     * @param partId the ID of the part leaving inventory, or the ID a part had before it changed.
+     */
+    synchronized void remove(int partId) {
+        int old = vendorOf.remove(partId);
+        if (old != IntIntHashMap.MISSING) {
+            partsByVendor[old].remove(partId);
+        }
+    }
+    /**
+     * Removes every part.
+     */
+    synchronized void clear() {
+        partsByVendor = new IdSet[64];
+        vendorOf.clear();
+    }
+    /**
+     * Gets the IDs of the parts from a vendor.
+     * @param code the vendor code.
+     * @return the part IDs, in no particular order.
+     */
+    synchronized int[] partIds(int code) {
+        if (code < 0 || code >= partsByVendor.length || partsByVendor[code] == null) {
+            return new int[0];
+        }
+        return partsByVendor[code].toArray();
+    }
+    /**
+     * Counts the parts from a vendor.
+     * @param code the vendor code.
+     * @return the number of parts.
+     */
+    synchronized int count(int code) {
+        return code < 0 || code >= partsByVendor.length || partsByVendor[code] == null ? 0 : partsByVendor[code].size();
+    }
+}
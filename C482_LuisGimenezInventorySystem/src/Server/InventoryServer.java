@@ -0,0 +1,499 @@
+package Server;
+
+import Models.Inventory;
+import Models.InventoryJournal;
+import Models.InventoryLoader;
+import Models.JsonReader;
+import Models.Part;
+import Models.Product;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Supplied class InventoryServer.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * InventoryServer Class. Serves Inventory over HTTP without the JavaFX screens, using the JDK's built-in HTTP server.
+ * Each request runs on its own virtual thread when the Java runtime has them (Java 21 and later) and on a pooled
+ * thread otherwise; Inventory is safe for any number of concurrent readers and writers, so requests are not
+ * serialized here.
+ * <p>Parts and products are sent and received as JSON with the field names InventoryLoader reads. A product lists
+ * the IDs of its associated parts in a "parts" array and the IDs of the products it is built from in a
+ * "components" array.</p>
+ * <pre>
+ * GET    /parts?search=text&amp;offset=0&amp;limit=100   parts whose ID or name contains text, or all parts
+ * GET    /parts?vendor=name                        outsourced parts from a company
+ * GET    /parts/{id}                               one part
+ * POST   /parts                                    add a part; a missing ID gets the next part ID
+ * PUT    /parts/{id}                               replace a part
+ * DELETE /parts/{id}                               delete a part that no product uses
+ * GET    /parts/{id}/products                      the products using a part
+ * GET, POST, PUT, DELETE /products...              the same for products; a product is deleted only when no
+ *                                                  product is built from it
+ * GET    /products/{id}/parts                      the associated parts of a product
+ * PUT    /products/{id}/parts/{partId}             associate a part with a product
+ * DELETE /products/{id}/parts/{partId}             remove a part from a product
+ * </pre>
+ * <p>Errors are answered with 400 for invalid input, 404 for a missing part or product, 405 for an unsupported
+ * method and 409 for adding an ID already in use or deleting a part or product that products use, each with a JSON
+ * body holding the error message.</p>
+ */
+public class InventoryServer {
+    /**
+     * Port used when none is given.
+     */
+    public static final int DEFAULT_PORT = 8080;
+    /**
+     * Most items returned by one list request unless a limit is given.
+     */
+    private static final int DEFAULT_LIMIT = 1000;
+    /**
+     * The HTTP server.
+     */
+    private final HttpServer server;
+    /**
+     * Runs the requests.
+     */
+    private final ExecutorService executor;
+
+    static {
+        // The JDK server writes the headers and body of a response separately; without TCP_NODELAY the second
+        // write waits for the client's delayed acknowledgement, about 40 ms per request on a kept-alive connection.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+    /**
+     * Creates a server on an address. Call start to accept requests.
+     * @param address the address to listen on; port 0 picks a free port.
+     * @throws IOException if the address cannot be bound.
+     */
+    public InventoryServer(InetSocketAddress address) throws IOException {
+        server = HttpServer.create(address, 1024);
+        executor = newExecutor();
+        server.setExecutor(executor);
+        server.createContext("/parts", this::handleParts);
+        server.createContext("/products", this::handleProducts);
+    }
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+    /**
+     * Stops accepting requests and waits up to the given delay for the requests being answered.
+     * @param delaySeconds most seconds to wait.
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(delaySeconds, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    /**
+     * Gets the port the server listens on.
+     * @return the port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+    /**
+     * Runs the server headless on the inventory kept in the application's directory. The port is the first
+     * argument, by default 8080. The stores are chosen by system properties as in the application.
+     * @param args the optional port.
+     * @throws IOException if the inventory cannot be loaded or the port cannot be bound.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_PORT;
+        Inventory.configureStores();
+        InventoryJournal journal = InventoryJournal.open(InventoryJournal.defaultDirectory());
+        InventoryServer server = new InventoryServer(new InetSocketAddress(port));
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop(1);
+            try {
+                journal.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }));
+        server.start();
+        System.out.println("Inventory server listening on port " + server.getPort());
+    }
+    /**
+     * Creates a virtual thread per task executor if the runtime has virtual threads, a cached thread pool otherwise.
+     * The project is built for Java 11, so the virtual thread executor is found by reflection.
+     */
+    private static ExecutorService newExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(task -> {
+                Thread thread = new Thread(task, "inventory-server");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    /**
+     * Answers requests under /parts.
+     */
+    private void handleParts(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = path(exchange, "/parts");
+            String method = exchange.getRequestMethod();
+            if (path.length == 0) {
+                switch (method) {
+                    case "GET":
+                        Map<String, String> query = query(exchange);
+                        List<Part> parts = query.containsKey("vendor")
+                                ? Inventory.lookupPartsByVendor(query.get("vendor"))
+                                : query.containsKey("search") ? Inventory.searchParts(query.get("search"))
+                                : Inventory.getPartStore().snapshot();
+                        int from = Math.min(number(query, "offset", 0), parts.size());
+                        int to = from + Math.min(number(query, "limit", DEFAULT_LIMIT), parts.size() - from);
+                        send(exchange, 200, new JsonWriter().parts(parts, from, to));
+                        return;
+                    case "POST":
+                        Part part = InventoryLoader.toPart(readBody(exchange));
+                        if (!Inventory.addPartIfAbsent(part)) {
+                            throw new IllegalStateException("Part " + part.getId() + " already exists.");
+                        }
+                        send(exchange, 201, new JsonWriter().part(part));
+                        return;
+                }
+            } else if (path.length == 1) {
+                int id = id(path[0]);
+                switch (method) {
+                    case "GET":
+                        send(exchange, 200, new JsonWriter().part(findPart(id)));
+                        return;
+                    case "PUT":
+                        Map<String, Object> fields = readBody(exchange);
+                        fields.put("id", Integer.toString(id));
+                        Part part = InventoryLoader.toPart(fields);
+                        if (!Inventory.updatePart(part)) {
+                            throw new NotFoundException("Part " + id + " not found.");
+                        }
+                        send(exchange, 200, new JsonWriter().part(part));
+                        return;
+                    case "DELETE":
+                        if (!Inventory.deleteUnusedPart(findPart(id))) {
+                            if (Inventory.isPartUsed(id)) {
+                                throw new IllegalStateException("Part " + id + " is used by products "
+                                        + productIds(Inventory.lookupProductsUsing(id)) + ".");
+                            }
+                            throw new NotFoundException("Part " + id + " not found.");
+                        }
+                        send(exchange, 204, null);
+                        return;
+                }
+            } else if (path.length == 2 && path[1].equals("products")) {
+                int id = id(path[0]);
+                if (method.equals("GET")) {
+                    findPart(id);
+                    List<Product> products = Inventory.lookupProductsUsing(id);
+                    send(exchange, 200, new JsonWriter().products(products, 0, products.size()));
+                    return;
+                }
+            } else {
+                throw new NotFoundException("No such resource.");
+            }
+            send(exchange, 405, new JsonWriter().error("Method " + method + " not allowed."));
+        } catch (RuntimeException e) {
+            fail(exchange, e);
+        }
+    }
+    /**
+     * Answers requests under /products.
+     */
+    private void handleProducts(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = path(exchange, "/products");
+            String method = exchange.getRequestMethod();
+            if (path.length == 0) {
+                switch (method) {
+                    case "GET":
+                        Map<String, String> query = query(exchange);
+                        List<Product> products = query.containsKey("search")
+                                ? Inventory.searchProducts(query.get("search"))
+                                : Inventory.getProductStore().snapshot();
+                        int from = Math.min(number(query, "offset", 0), products.size());
+                        int to = from + Math.min(number(query, "limit", DEFAULT_LIMIT), products.size() - from);
+                        send(exchange, 200, new JsonWriter().products(products, from, to));
+                        return;
+                    case "POST":
+                        Product product = toProduct(readBody(exchange));
+                        if (!Inventory.addProductIfAbsent(product)) {
+                            throw new IllegalStateException("Product " + product.getId() + " already exists.");
+                        }
+                        send(exchange, 201, new JsonWriter().product(product));
+                        return;
+                }
+            } else if (path.length == 1) {
+                int id = id(path[0]);
+                switch (method) {
+                    case "GET":
+                        send(exchange, 200, new JsonWriter().product(findProduct(id)));
+                        return;
+                    case "PUT":
+                        Map<String, Object> fields = readBody(exchange);
+                        fields.put("id", Integer.toString(id));
+                        Product product = toProduct(fields);
+                        if (!fields.containsKey("parts")) {
+                            // Replacing a product without naming its parts keeps the parts it has.
+                            for (Part part : findProduct(id).getAssociatedPartList()) {
+                                product.addAssociatedPart(part);
+                            }
+                        }
+                        if (!fields.containsKey("components")) {
+                            for (Product component : findProduct(id).getComponentList()) {
+                                product.addComponent(component);
+                            }
+                        }
+                        if (!Inventory.updateProduct(product)) {
+                            throw new NotFoundException("Product " + id + " not found.");
+                        }
+                        send(exchange, 200, new JsonWriter().product(product));
+                        return;
+                    case "DELETE":
+                        if (!Inventory.deleteUnusedProduct(findProduct(id))) {
+                            if (Inventory.isProductUsed(id)) {
+                                throw new IllegalStateException("Product " + id + " is a component of products "
+                                        + productIds(Inventory.lookupAssembliesUsing(id)) + ".");
+                            }
+                            throw new NotFoundException("Product " + id + " not found.");
+                        }
+                        send(exchange, 204, null);
+                        return;
+                }
+            } else if (path[1].equals("parts") && path.length <= 3) {
+                Product product = findProduct(id(path[0]));
+                if (path.length == 2) {
+                    if (method.equals("GET")) {
+                        List<Part> parts = product.getAssociatedPartList();
+                        send(exchange, 200, new JsonWriter().parts(parts, 0, parts.size()));
+                        return;
+                    }
+                } else {
+                    int partId = id(path[2]);
+                    switch (method) {
+                        case "PUT":
+                            product.addAssociatedPart(findPart(partId));
+                            send(exchange, 200, new JsonWriter().product(product));
+                            return;
+                        case "DELETE":
+                            if (!product.deleteAssociatedPart(findPart(partId))) {
+                                throw new NotFoundException("Part " + partId + " is not associated with product "
+                                        + product.getId() + ".");
+                            }
+                            send(exchange, 200, new JsonWriter().product(product));
+                            return;
+                    }
+                }
+            } else {
+                throw new NotFoundException("No such resource.");
+            }
+            send(exchange, 405, new JsonWriter().error("Method " + method + " not allowed."));
+        } catch (RuntimeException e) {
+            fail(exchange, e);
+        }
+    }
+    /**
+     * Builds a product and associates the parts and components its fields name.
+     */
+    private static Product toProduct(Map<String, ?> fields) {
+        int[] partIds = InventoryLoader.partIdsOf(fields);
+        Part[] parts = new Part[partIds.length];
+        for (int i = 0; i < partIds.length; i++) {
+            parts[i] = Inventory.lookupPart(partIds[i]);
+            if (parts[i] == null) {
+                throw new IllegalArgumentException("Part " + partIds[i] + " not found.");
+            }
+        }
+        int[] componentIds = InventoryLoader.componentIdsOf(fields);
+        Product[] components = new Product[componentIds.length];
+        for (int i = 0; i < componentIds.length; i++) {
+            components[i] = Inventory.lookupProduct(componentIds[i]);
+            if (components[i] == null) {
+                throw new IllegalArgumentException("Product " + componentIds[i] + " not found.");
+            }
+        }
+        Product product = InventoryLoader.toProduct(fields);
+        for (Part part : parts) {
+            product.addAssociatedPart(part);
+        }
+        for (Product component : components) {
+            product.addComponent(component);
+        }
+        return product;
+    }
+    /**
+     * Lists the IDs of products for an error message.
+     */
+    private static String productIds(List<Product> products) {
+        StringBuilder ids = new StringBuilder();
+        for (Product product : products) {
+            ids.append(ids.length() == 0 ? "" : ", ").append(product.getId());
+        }
+        return ids.toString();
+    }
+    /**
+     * Finds a part by ID.
+     */
+    private static Part findPart(int id) {
+        Part part = Inventory.lookupPart(id);
+        if (part == null) {
+            throw new NotFoundException("Part " + id + " not found.");
+        }
+        return part;
+    }
+    /**
+     * Finds a product by ID.
+     */
+    private static Product findProduct(int id) {
+        Product product = Inventory.lookupProduct(id);
+        if (product == null) {
+            throw new NotFoundException("Product " + id + " not found.");
+        }
+        return product;
+    }
+    /**
+     * Splits the part of the request path after a context into its segments.
+     */
+    private static String[] path(HttpExchange exchange, String context) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.length() > context.length() && path.charAt(context.length()) != '/') {
+            // The server matches contexts by prefix, so /partsX arrives here too.
+            throw new NotFoundException("No such resource.");
+        }
+        String rest = path.substring(context.length());
+        while (rest.startsWith("/")) {
+            rest = rest.substring(1);
+        }
+        while (rest.endsWith("/")) {
+            rest = rest.substring(0, rest.length() - 1);
+        }
+        return rest.isEmpty() ? new String[0] : rest.split("/");
+    }
+    /**
+     * Reads the query parameters of a request.
+     */
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> query = new HashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int equals = pair.indexOf('=');
+                String key = equals < 0 ? pair : pair.substring(0, equals);
+                String value = equals < 0 ? "" : pair.substring(equals + 1);
+                query.put(URLDecoder.decode(key, StandardCharsets.UTF_8),
+                        URLDecoder.decode(value, StandardCharsets.UTF_8));
+            }
+        }
+        return query;
+    }
+    /**
+     * Reads a non-negative number from the query, or the default if it is not given.
+     */
+    private static int number(Map<String, String> query, String name, int defaultValue) {
+        String value = query.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int number = Integer.parseInt(value);
+            if (number < 0) {
+                throw new IllegalArgumentException(name + " must not be negative.");
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " must be a number.");
+        }
+    }
+    /**
+     * Reads an ID from the request path.
+     */
+    private static int id(String segment) {
+        try {
+            return Integer.parseInt(segment);
+        } catch (NumberFormatException e) {
+            throw new NotFoundException("No such resource.");
+        }
+    }
+    /**
+     * Reads the request body as a JSON object.
+     */
+    private static Map<String, Object> readBody(HttpExchange exchange) {
+        try {
+            JsonReader reader = new JsonReader(
+                    new InputStreamReader(exchange.getRequestBody(), StandardCharsets.UTF_8));
+            if (reader.peek() != '{') {
+                throw new IllegalArgumentException("Request body must be a JSON object.");
+            }
+            return reader.readObject();
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable request body: " + e.getMessage(), e);
+        }
+    }
+    /**
+     * Answers a request with a status and an optional JSON body.
+     */
+    private static void send(HttpExchange exchange, int status, JsonWriter body) throws IOException {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    /**
+     * Answers a request that failed with the matching error status.
+     */
+    private static void fail(HttpExchange exchange, RuntimeException e) throws IOException {
+        if (e instanceof NotFoundException) {
+            send(exchange, 404, new JsonWriter().error(e.getMessage()));
+        } else if (e instanceof IllegalArgumentException) {
+            send(exchange, 400, new JsonWriter().error(e.getMessage()));
+        } else if (e instanceof IllegalStateException) {
+            send(exchange, 409, new JsonWriter().error(e.getMessage()));
+        } else {
+            send(exchange, 500, new JsonWriter().error(String.valueOf(e)));
+        }
+    }
+
+    /**
+     * Thrown when a request names a part, product or path that does not exist.
+     */
+    private static final class NotFoundException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        NotFoundException(String message) {
+            super(message);
+        }
+    }
+}
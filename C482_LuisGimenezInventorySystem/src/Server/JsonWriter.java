@@ -0,0 +1,175 @@
+package Server;
+
+import Models.InHouse;
+import Models.Outsourced;
+import Models.Part;
+import Models.Product;
+
+import java.util.List;
+
+/**
+ * Supplied class JsonWriter.java
+ *
+ * @author Luis J. Gimenez
+ */
+
+/**
+ * JsonWriter Class. Writes parts and products as JSON for InventoryServer, with the same field names that
+ * InventoryLoader reads, so a part or product sent back to the server reads the same way it was written.
+ */
+class JsonWriter {
+    /**
+     * The JSON text written so far.
+     */
+    private final StringBuilder json = new StringBuilder(256);
+
+    /**
+     * Writes a part.
+     * @param part the part.
+     * @return this writer.
+     */
+    JsonWriter part(Part part) {
+        json.append("{\"id\":").append(part.getId());
+        if (part instanceof InHouse) {
+            json.append(",\"type\":\"InHouse\"");
+        } else if (part instanceof Outsourced) {
+            json.append(",\"type\":\"Outsourced\"");
+        }
+        json.append(",\"name\":");
+        string(part.getName());
+        json.append(",\"price\":").append(part.getPrice())
+                .append(",\"stock\":").append(part.getStock())
+                .append(",\"min\":").append(part.getMin())
+                .append(",\"max\":").append(part.getMax());
+        if (part instanceof InHouse) {
+            json.append(",\"machineId\":").append(((InHouse) part).getMachineId());
+        } else if (part instanceof Outsourced) {
+            json.append(",\"companyName\":");
+            string(((Outsourced) part).getCompanyName());
+        }
+        json.append('}');
+        return this;
+    }
+    /**
+     * Writes a product, with the IDs of its associated parts and components.
+     * @param product the product.
+     * @return this writer.
+     */
+    JsonWriter product(Product product) {
+        json.append("{\"id\":").append(product.getId()).append(",\"name\":");
+        string(product.getName());
+        json.append(",\"price\":").append(product.getPrice())
+                .append(",\"stock\":").append(product.getStock())
+                .append(",\"min\":").append(product.getMin())
+                .append(",\"max\":").append(product.getMax())
+                .append(",\"parts\":[");
+        List<Part> parts = product.getAssociatedPartList();
+        for (int i = 0; i < parts.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(parts.get(i).getId());
+        }
+        json.append("],\"components\":[");
+        List<Product> components = product.getComponentList();
+        for (int i = 0; i < components.size(); i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append(components.get(i).getId());
+        }
+        json.append("]}");
+        return this;
+    }
+    /**
+     * Writes a range of parts as an array.
+     * @param parts the parts.
+     * @param from position of the first part written.
+     * @param to position after the last part written.
+     * @return this writer.
+     */
+    JsonWriter parts(List<Part> parts, int from, int to) {
+        json.append('[');
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            part(parts.get(i));
+        }
+        json.append(']');
+        return this;
+    }
+    /**
+     * Writes a range of products as an array.
+     * @param products the products.
+     * @param from position of the first product written.
+     * @param to position after the last product written.
+     * @return this writer.
+     */
+    JsonWriter products(List<Product> products, int from, int to) {
+        json.append('[');
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                json.append(',');
+            }
+            product(products.get(i));
+        }
+        json.append(']');
+        return this;
+    }
+    /**
+     * Writes an error object.
+     * @param message the error message.
+     * @return this writer.
+     */
+    JsonWriter error(String message) {
+        json.append("{\"error\":");
+        string(message);
+        json.append('}');
+        return this;
+    }
+    /**
+     * Writes a string literal, or null.
+     */
+    private void string(String text) {
+        if (text == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+    /**
+     * Gets the JSON text written.
+     */
+    @Override
+    public String toString() {
+        return json.toString();
+    }
+}